@@ -3,6 +3,8 @@ import { apiService, Lead, LeadSearchResponse } from '../services/api';
 import LeadForm from './LeadForm';
 import './LeadsTable.css';
 
+const SEARCH_DEBOUNCE_MS = 300;
+
 const LeadsTable: React.FC = () => {
   const [leads, setLeads] = useState<Lead[]>([]);
   const [loading, setLoading] = useState(true);
@@ -16,6 +18,7 @@ const LeadsTable: React.FC = () => {
   const [statusFilter, setStatusFilter] = useState<string>('');
   const [sourceFilter, setSourceFilter] = useState<string>('');
   const [searchTerm, setSearchTerm] = useState<string>('');
+  const [debouncedSearchTerm, setDebouncedSearchTerm] = useState<string>('');
   
   // Modal states
   const [showCreateForm, setShowCreateForm] = useState(false);
@@ -33,7 +36,7 @@ const LeadsTable: React.FC = () => {
 
       if (statusFilter) params.status = statusFilter;
       if (sourceFilter) params.source = sourceFilter;
-      if (searchTerm) params.search = searchTerm;
+      if (debouncedSearchTerm) params.search = debouncedSearchTerm;
 
       const response: LeadSearchResponse = await apiService.getLeads(params);
       
@@ -48,9 +51,15 @@ const LeadsTable: React.FC = () => {
     }
   };
 
+  // Wait for typing to pause before searching so each keystroke doesn't hit the API
+  useEffect(() => {
+    const timer = setTimeout(() => setDebouncedSearchTerm(searchTerm.trim()), SEARCH_DEBOUNCE_MS);
+    return () => clearTimeout(timer);
+  }, [searchTerm]);
+
   useEffect(() => {
     loadLeads();
-  }, [currentPage, statusFilter, sourceFilter, searchTerm]); // eslint-disable-line react-hooks/exhaustive-deps
+  }, [currentPage, statusFilter, sourceFilter, debouncedSearchTerm]); // eslint-disable-line react-hooks/exhaustive-deps
 
   const handleDelete = async (id: number) => {
     if (window.confirm('Are you sure you want to delete this lead?')) {
@@ -19,6 +19,8 @@ export interface Lead {
   status: 'NEW' | 'CONTACTED' | 'QUALIFIED' | 'LOST' | 'CONVERTED';
   source: 'WEBSITE' | 'REFERRAL' | 'COLD_CALL' | 'EMAIL' | 'TRADE_SHOW' | 'SOCIAL_MEDIA' | 'OTHER';
   owner?: User;
+  ownerId?: number;
+  ownerName?: string;
   createdAt?: string;
   updatedAt?: string;
 }
@@ -0,0 +1,97 @@
+import groovy.json.JsonSlurper
+
+plugins {
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+// Benchmarks only, nothing to package
+tasks.bootJar {
+    enabled = false
+}
+
+dependencies {
+    jmh(project(":core"))
+    jmh(project(":infra"))
+    jmh(project(":security"))
+    
+    jmh("org.springframework.boot:spring-boot-starter-web")
+    jmh("org.springframework.boot:spring-boot-starter-security")
+    jmh("org.springframework.boot:spring-boot-starter-data-jpa")
+    jmh("org.springframework:spring-test")
+    jmh("io.jsonwebtoken:jjwt-api:0.12.3")
+    jmh("io.micrometer:micrometer-core")
+}
+
+// ./gradlew :benchmarks:jmh [-PjmhIncludes=Jwt] writes build/results/jmh/results.json
+jmh {
+    jmhVersion = "1.37"
+    warmupIterations = 3
+    warmup = "1s"
+    iterations = 5
+    timeOnIteration = "1s"
+    fork = 1
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("results/jmh/results.json")
+    (findProperty("jmhIncludes") as String?)?.let { includes = listOf(it) }
+}
+
+// Compare a run with a baseline run of the target branch and fail on regressions:
+//   ./gradlew :benchmarks:jmh :benchmarks:jmhCompare -PjmhBaseline=base-results.json [-PjmhMaxRegression=10]
+// Prints a Markdown table for the PR description.
+tasks.register("jmhCompare") {
+    group = "benchmark"
+    description = "Compares JMH results with a baseline results.json"
+    
+    val baselineFile = (findProperty("jmhBaseline") as String?)?.let { file(it) }
+    val resultsFile = layout.buildDirectory.file("results/jmh/results.json")
+    val maxRegression = (findProperty("jmhMaxRegression") as String? ?: "10").toDouble()
+    
+    doLast {
+        if (baselineFile == null || !baselineFile.exists()) {
+            throw GradleException("Pass the baseline results with -PjmhBaseline=<results.json>")
+        }
+        val current = resultsFile.get().asFile
+        if (!current.exists()) {
+            throw GradleException("No results at $current, run :benchmarks:jmh first")
+        }
+        
+        @Suppress("UNCHECKED_CAST")
+        fun scores(json: File): Map<String, Map<String, Any?>> =
+            (JsonSlurper().parse(json) as List<Map<String, Any?>>).associateBy { run ->
+                val params = (run["params"] as Map<String, Any?>?).orEmpty()
+                    .entries.joinToString(",") { "${it.key}=${it.value}" }
+                "${run["benchmark"]}(${params}) ${run["mode"]}"
+            }
+        
+        val baseline = scores(baselineFile)
+        val regressions = mutableListOf<String>()
+        println("| Benchmark | Baseline | Current | Change |")
+        println("|---|---:|---:|---:|")
+        scores(current).forEach { (key, run) ->
+            @Suppress("UNCHECKED_CAST")
+            val metric = run["primaryMetric"] as Map<String, Any?>
+            val score = (metric["score"] as Number).toDouble()
+            val unit = metric["scoreUnit"]
+            val name = key.substringAfterLast("benchmarks.")
+            
+            @Suppress("UNCHECKED_CAST")
+            val base = (baseline[key]?.get("primaryMetric") as Map<String, Any?>?)
+                ?.let { (it["score"] as Number).toDouble() }
+            if (base == null || base == 0.0) {
+                println("| $name | - | %.3f %s | new |".format(score, unit))
+                return@forEach
+            }
+            // Throughput modes are better when higher, time modes when lower
+            val change = (score - base) / base * 100
+            val worse = if (run["mode"] == "thrpt") -change else change
+            val flag = if (worse > maxRegression) " :warning:" else ""
+            println("| $name | %.3f | %.3f %s | %+.1f%%%s |".format(base, score, unit, change, flag))
+            if (worse > maxRegression) {
+                regressions += name
+            }
+        }
+        if (regressions.isNotEmpty()) {
+            throw GradleException("Regressed by more than $maxRegression%: ${regressions.joinToString()}")
+        }
+    }
+}
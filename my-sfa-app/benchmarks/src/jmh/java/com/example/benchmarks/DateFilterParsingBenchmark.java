@@ -0,0 +1,39 @@
+package com.example.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing the startDate and endDate filters of the lead list and export, including the rejected input
+ * that the controllers turn into a 400
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DateFilterParsingBenchmark {
+    
+    private String valid = "2024-05-01T09:30:00";
+    private String dateOnly = "2024-05-01";
+    
+    @Benchmark
+    public LocalDateTime parseValid() {
+        return LocalDateTime.parse(valid);
+    }
+    
+    @Benchmark
+    public Object parseInvalid() {
+        try {
+            return LocalDateTime.parse(dateOnly);
+        } catch (DateTimeParseException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.benchmarks;
+
+import com.example.security.jwt.JwtAuthenticationFilter;
+import com.example.security.jwt.JwtPrincipalCache;
+import com.example.security.jwt.JwtTokenProvider;
+import com.example.security.service.UserDetailsServiceImpl;
+import com.example.security.service.UserDetailsServiceImpl.UserPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authenticating a request from its bearer token. {@code repeat} sends the same token on every request
+ * so the principal cache answers; {@code first} cycles through more tokens than the cache holds, so
+ * every request verifies the signature and caches the principal as a first request would.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtAuthenticationFilterBenchmark {
+    
+    private static final int TOKENS = 1024;
+    
+    @Param({"repeat", "first"})
+    public String request;
+    
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest[] requests;
+    private int next;
+    
+    @Setup
+    public void setUp() {
+        JwtTokenProvider tokenProvider = new JwtTokenProvider(JwtTokenProviderBenchmark.SECRET, 86_400_000);
+        boolean repeat = request.equals("repeat");
+        JwtPrincipalCache principalCache = new JwtPrincipalCache(repeat ? 10_000 : 16, Duration.ofSeconds(30));
+        // Users are answered as if from the second-level cache, so misses measure verification, not the database
+        UserDetailsServiceImpl users = new UserDetailsServiceImpl(null) {
+            @Override
+            public UserPrincipal loadUserById(Long id) {
+                return JwtTokenProviderBenchmark.principal(id);
+            }
+        };
+        filter = new JwtAuthenticationFilter(tokenProvider, users, principalCache, new SimpleMeterRegistry());
+        
+        requests = new MockHttpServletRequest[repeat ? 1 : TOKENS];
+        for (int i = 0; i < requests.length; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/leads");
+            request.addHeader("Authorization",
+                    "Bearer " + tokenProvider.generateToken(JwtTokenProviderBenchmark.principal(i + 1)));
+            requests[i] = request;
+        }
+    }
+    
+    @Benchmark
+    public Authentication authenticate() throws ServletException, IOException {
+        MockHttpServletRequest request = requests[next];
+        next = (next + 1) % requests.length;
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
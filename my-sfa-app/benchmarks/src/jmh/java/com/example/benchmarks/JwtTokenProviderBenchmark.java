@@ -0,0 +1,60 @@
+package com.example.benchmarks;
+
+import com.example.security.jwt.JwtTokenProvider;
+import com.example.security.service.UserDetailsServiceImpl.UserPrincipal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signing and verifying access tokens, the cost paid on every login and every uncached request
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtTokenProviderBenchmark {
+    
+    static final String SECRET = "benchmarkSecretKey123456789012345678901234567890";
+    
+    private JwtTokenProvider tokenProvider;
+    private UserPrincipal principal;
+    private String token;
+    private String tamperedToken;
+    
+    @Setup
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider(SECRET, 86_400_000);
+        principal = principal(1L);
+        token = tokenProvider.generateToken(principal);
+        tamperedToken = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+    }
+    
+    @Benchmark
+    public String generateToken() {
+        return tokenProvider.generateToken(principal);
+    }
+    
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+    
+    @Benchmark
+    public boolean validateTamperedToken() {
+        return tokenProvider.validateToken(tamperedToken);
+    }
+    
+    static UserPrincipal principal(long id) {
+        List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_SALES_REP"));
+        return new UserPrincipal(id, "user" + id + "@example.com", "x", authorities, true, 0);
+    }
+}
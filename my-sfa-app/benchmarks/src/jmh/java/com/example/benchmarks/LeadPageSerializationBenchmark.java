@@ -0,0 +1,105 @@
+package com.example.benchmarks;
+
+import com.example.core.domain.Lead;
+import com.example.core.domain.User;
+import com.example.infra.repository.projection.LeadSummary;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing a lead list page as entities, as before the list endpoints returned projections,
+ * versus as {@link LeadSummary} rows. Page bodies match the offset list response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LeadPageSerializationBenchmark {
+    
+    @Param({"20", "100"})
+    public int size;
+    
+    private ObjectMapper objectMapper;
+    private Map<String, Object> entityPage;
+    private Map<String, Object> summaryPage;
+    
+    @Setup
+    public void setUp() {
+        // Same date handling as the application's mapper
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        
+        LocalDateTime now = LocalDateTime.of(2024, 5, 1, 9, 30);
+        User owner = User.builder()
+                .id(7L)
+                .email("owner@example.com")
+                .password("$2a$10$abcdefghijklmnopqrstuv")
+                .firstName("Olive")
+                .lastName("Owner")
+                .role(User.Role.SALES_REP)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        List<Lead> leads = new ArrayList<>(size);
+        List<LeadSummary> summaries = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            Lead lead = Lead.builder()
+                    .id(id)
+                    .companyName("Company " + id)
+                    .contactName("Contact " + id)
+                    .email("contact" + id + "@company.example")
+                    .phone("555-01" + id)
+                    .status(Lead.Status.values()[(int) (id % Lead.Status.values().length)])
+                    .source(Lead.Source.values()[(int) (id % Lead.Source.values().length)])
+                    .owner(owner)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .version(1L)
+                    .build();
+            leads.add(lead);
+            summaries.add(new LeadSummary(id, lead.getCompanyName(), lead.getContactName(), lead.getEmail(),
+                    lead.getPhone(), lead.getStatus(), lead.getSource(), now, now, owner.getId(), "Olive Owner"));
+        }
+        entityPage = page(leads);
+        summaryPage = page(summaries);
+    }
+    
+    @Benchmark
+    public byte[] entities() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(entityPage);
+    }
+    
+    @Benchmark
+    public byte[] summaries() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(summaryPage);
+    }
+    
+    private Map<String, Object> page(List<?> content) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("content", content);
+        response.put("pageable", Map.of("page", 0, "size", size, "sort", "createdAt: DESC"));
+        response.put("totalElements", 1000L);
+        response.put("totalPages", 1000 / size);
+        response.put("first", true);
+        response.put("last", false);
+        response.put("empty", false);
+        return response;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.benchmarks;
+
+import com.example.core.domain.Lead;
+import com.example.infra.repository.LeadPatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a PATCH body into lead changes and applying them, as the partial lead update does
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LeadPatchBenchmark {
+    
+    @Param({"2", "6"})
+    public int fields;
+    
+    private Map<String, Object> updates;
+    private Lead lead;
+    
+    @Setup
+    public void setUp() {
+        updates = new LinkedHashMap<>();
+        updates.put("status", "CONTACTED");
+        updates.put("phone", "555-0100");
+        if (fields > 2) {
+            updates.put("companyName", "Acme");
+            updates.put("contactName", "Jo");
+            updates.put("email", "jo@acme.example");
+            updates.put("source", "REFERRAL");
+        }
+        lead = Lead.builder().status(Lead.Status.NEW).source(Lead.Source.WEBSITE).build();
+    }
+    
+    @Benchmark
+    public Lead parseAndApply() {
+        LeadPatch.from(updates).accept(lead);
+        return lead;
+    }
+}
@@ -21,15 +21,19 @@ subprojects {
     apply(plugin = "io.spring.dependency-management")
     
     java {
-        // Use source/target compatibility for broad Java version support
-        // This works with Java 17+ (including Java 21, 24, etc.)
-        sourceCompatibility = JavaVersion.VERSION_17
-        targetCompatibility = JavaVersion.VERSION_17
-        
-        // Optionally use toolchain if available, but don't fail if not found
-        // toolchain {
-        //     languageVersion = JavaLanguageVersion.of(21)
-        // }
+        val javaRelease = findProperty("javaRelease") as String?
+        if (javaRelease == null) {
+            // Use source/target compatibility for broad Java version support
+            // This works with Java 17+ (including Java 21, 24, etc.)
+            sourceCompatibility = JavaVersion.VERSION_17
+            targetCompatibility = JavaVersion.VERSION_17
+        } else {
+            // Opt-in newer release, e.g. ./gradlew build -PjavaRelease=21 for the virtual-threads profile.
+            // Compiles and runs the tests on a matching toolchain
+            toolchain {
+                languageVersion = JavaLanguageVersion.of(javaRelease.toInt())
+            }
+        }
     }
     
     configure<DependencyManagementExtension> {
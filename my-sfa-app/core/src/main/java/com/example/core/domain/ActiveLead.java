@@ -0,0 +1,68 @@
+package com.example.core.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * A lead that is neither LOST nor CONVERTED, joined with its owner.
+ * Rows come from the {@code v_active_leads} materialized view, so they are as of its last refresh
+ * (see {@link MaterializedViewRefresh}) and are never written through JPA.
+ */
+@Entity
+@Table(name = "v_active_leads")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Immutable
+public class ActiveLead {
+    
+    public static final String VIEW_NAME = "v_active_leads";
+    
+    @Id
+    private Long id;
+    
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+    
+    @Column(name = "company_name", nullable = false)
+    private String companyName;
+    
+    @Column(name = "contact_name", nullable = false)
+    private String contactName;
+    
+    @Column(nullable = false)
+    private String email;
+    
+    @Column(length = 50)
+    private String phone;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private Lead.Status status;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(length = 50)
+    private Lead.Source source;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    @Column(name = "owner_first_name", nullable = false)
+    private String ownerFirstName;
+    
+    @Column(name = "owner_last_name", nullable = false)
+    private String ownerLastName;
+    
+    @Column(name = "owner_email", nullable = false)
+    private String ownerEmail;
+}
@@ -24,7 +24,8 @@ import java.time.LocalDateTime;
 public class Activity {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "activities_id_seq")
+    @SequenceGenerator(name = "activities_id_seq", sequenceName = "activities_id_seq", allocationSize = 50)
     private Long id;
     
     @Enumerated(EnumType.STRING)
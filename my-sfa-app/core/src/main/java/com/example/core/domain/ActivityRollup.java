@@ -0,0 +1,56 @@
+package com.example.core.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Number of activities of one user, type and status dated on one day.
+ * Rows are folded from the trigger-recorded {@link ActivityRollupDelta}s and corrected by the periodic
+ * reconciliation, so the application never writes them through JPA.
+ */
+@Entity
+@Table(name = "activity_rollups")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Immutable
+@IdClass(ActivityRollup.Key.class)
+public class ActivityRollup {
+    
+    @Id
+    @Column(name = "activity_day", nullable = false)
+    private LocalDate activityDay;
+    
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Activity.Type type;
+    
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Activity.Status status;
+    
+    @Column(name = "activity_count", nullable = false)
+    private int activityCount;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate activityDay;
+        private Long userId;
+        private Activity.Type type;
+        private Activity.Status status;
+    }
+}
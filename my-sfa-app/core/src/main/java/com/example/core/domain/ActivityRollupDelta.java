@@ -0,0 +1,43 @@
+package com.example.core.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+
+/**
+ * Signed change to one {@link ActivityRollup} not yet folded into it.
+ * Rows are appended by the V12 activity triggers and folded by the periodic compaction.
+ */
+@Entity
+@Table(name = "activity_rollup_deltas")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Immutable
+public class ActivityRollupDelta {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "activity_day", nullable = false)
+    private LocalDate activityDay;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Activity.Type type;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Activity.Status status;
+    
+    @Column(nullable = false)
+    private int delta;
+}
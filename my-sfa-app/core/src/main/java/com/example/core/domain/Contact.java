@@ -26,7 +26,8 @@ import java.util.List;
 public class Contact {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contacts_id_seq")
+    @SequenceGenerator(name = "contacts_id_seq", sequenceName = "contacts_id_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank
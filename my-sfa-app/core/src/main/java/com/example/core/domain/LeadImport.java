@@ -0,0 +1,78 @@
+package com.example.core.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persisted progress of a bulk lead import, written by the instance running it after every batch
+ * and read by status polls on any instance.
+ */
+@Entity
+@Table(name = "lead_import_jobs")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeadImport {
+    
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+    
+    @Id
+    @Column(length = 36)
+    private String id;
+    
+    @Column(name = "file_name")
+    private String fileName;
+    
+    /** Name of the file format, e.g. CSV */
+    @Column(nullable = false, length = 10)
+    private String format;
+    
+    /** Email of the submitting user */
+    @Column(name = "submitted_by", nullable = false)
+    private String submittedBy;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private State state;
+    
+    @Column(columnDefinition = "TEXT")
+    private String message;
+    
+    @Column(name = "rows_read", nullable = false)
+    private long rowsRead;
+    
+    @Column(name = "rows_imported", nullable = false)
+    private long rowsImported;
+    
+    @Column(name = "rows_rejected", nullable = false)
+    private long rowsRejected;
+    
+    /** JSON array of the first rejected rows */
+    @Column(columnDefinition = "TEXT")
+    private String errors;
+    
+    @Column(name = "submitted_at", nullable = false)
+    private LocalDateTime submittedAt;
+    
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+    
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+    
+    /** Last sign of life from the instance running the job */
+    @Column(name = "heartbeat_at", nullable = false)
+    private LocalDateTime heartbeatAt;
+    
+    public boolean isFinished() {
+        return state == State.COMPLETED || state == State.FAILED;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.core.domain;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+
+/**
+ * Pre-aggregated lead count for one (dimension, bucket) pair, as of the last compaction.
+ * Lead writes append to {@code lead_stats_counter_deltas} through the {@code record_lead_stats_deltas}
+ * triggers; current counts are these rows plus the deltas not yet folded in.
+ */
+@Entity
+@Table(name = "lead_stats_counters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Immutable
+@IdClass(LeadStatsCounter.Key.class)
+public class LeadStatsCounter {
+    
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Dimension dimension;
+    
+    @Id
+    @Column(nullable = false, length = 50)
+    private String bucket;
+    
+    @Column(name = "lead_count", nullable = false)
+    private long leadCount;
+    
+    public enum Dimension {
+        TOTAL, STATUS, SOURCE
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Dimension dimension;
+        private String bucket;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.core.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Whether the lead statistics triggers are recording deltas. A single row with id 1.
+ */
+@Entity
+@Table(name = "lead_stats_counter_state")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeadStatsCounterState {
+    
+    public static final short ID = 1;
+    
+    @Id
+    private Short id;
+    
+    @Column(nullable = false)
+    private boolean enabled;
+    
+    /** When the counters were last rebuilt from leads */
+    @Column(name = "rebuilt_at")
+    private LocalDateTime rebuiltAt;
+}
@@ -0,0 +1,80 @@
+package com.example.core.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * One lead status transition. The table is append-only and written in JDBC batches by the status
+ * history writer, so the application never persists or updates these rows through JPA.
+ * <p>
+ * Statuses and sources are stored as SMALLINT codes to keep rows narrow. Funnel statuses are coded
+ * 1..4 in funnel order (NEW, CONTACTED, QUALIFIED, CONVERTED) so the furthest stage reached is a MAX.
+ * {@code fromStatus} is null on the row recording the lead's creation.
+ */
+@Entity
+@Table(name = "lead_status_history")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Immutable
+public class LeadStatusHistory {
+    
+    private static final Map<Lead.Status, Short> STATUS_CODES = new EnumMap<>(Map.of(
+            Lead.Status.NEW, (short) 1,
+            Lead.Status.CONTACTED, (short) 2,
+            Lead.Status.QUALIFIED, (short) 3,
+            Lead.Status.CONVERTED, (short) 4,
+            Lead.Status.LOST, (short) 9));
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "lead_id", nullable = false)
+    private Long leadId;
+    
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+    
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+    
+    @Column(name = "from_status")
+    private Short fromStatus;
+    
+    @Column(name = "to_status", nullable = false)
+    private Short toStatus;
+    
+    private Short source;
+    
+    public static short code(Lead.Status status) {
+        return STATUS_CODES.get(status);
+    }
+    
+    public static Lead.Status status(short code) {
+        for (Map.Entry<Lead.Status, Short> entry : STATUS_CODES.entrySet()) {
+            if (entry.getValue() == code) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalArgumentException("Unknown lead status code: " + code);
+    }
+    
+    /**
+     * Sources are coded 1..n in declaration order; new sources must be appended
+     */
+    public static short code(Lead.Source source) {
+        return (short) (source.ordinal() + 1);
+    }
+    
+    public static Lead.Source source(short code) {
+        return Lead.Source.values()[code - 1];
+    }
+}
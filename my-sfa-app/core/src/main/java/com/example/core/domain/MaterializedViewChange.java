@@ -0,0 +1,33 @@
+package com.example.core.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A write statement on the sources of a materialized reporting view, recorded by the V13 triggers
+ * and deleted by the refresh that includes it.
+ */
+@Entity
+@Table(name = "materialized_view_changes")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MaterializedViewChange {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "view_name", nullable = false, length = 63)
+    private String viewName;
+    
+    @Builder.Default
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt = LocalDateTime.now();
+}
@@ -0,0 +1,37 @@
+package com.example.core.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Refresh state of one materialized reporting view.
+ * Writes to the view's sources are recorded as {@link MaterializedViewChange}s until a refresh includes them.
+ */
+@Entity
+@Table(name = "materialized_view_refreshes")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MaterializedViewRefresh {
+    
+    @Id
+    @Column(name = "view_name", length = 63)
+    private String viewName;
+    
+    /** The view holds every write committed before this time */
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+    
+    /** Set while an instance is refreshing the view */
+    @Column(name = "refreshing_since")
+    private LocalDateTime refreshingSince;
+    
+    @Column(name = "refresh_duration_ms")
+    private Long refreshDurationMs;
+}
@@ -29,7 +29,8 @@ import java.util.List;
 public class Opportunity {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "opportunities_id_seq")
+    @SequenceGenerator(name = "opportunities_id_seq", sequenceName = "opportunities_id_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank
@@ -76,8 +77,33 @@ public class Opportunity {
     private List<Activity> activities;
     
     public enum Stage {
-        PROSPECTING, QUALIFICATION, NEEDS_ANALYSIS, VALUE_PROPOSITION, 
-        ID_DECISION_MAKERS, PERCEPTION_ANALYSIS, PROPOSAL, 
-        NEGOTIATION_REVIEW, CLOSED_WON, CLOSED_LOST
+        PROSPECTING(ForecastCategory.PIPELINE),
+        QUALIFICATION(ForecastCategory.PIPELINE),
+        NEEDS_ANALYSIS(ForecastCategory.PIPELINE),
+        VALUE_PROPOSITION(ForecastCategory.PIPELINE),
+        ID_DECISION_MAKERS(ForecastCategory.BEST_CASE),
+        PERCEPTION_ANALYSIS(ForecastCategory.BEST_CASE),
+        PROPOSAL(ForecastCategory.BEST_CASE),
+        NEGOTIATION_REVIEW(ForecastCategory.COMMIT),
+        CLOSED_WON(ForecastCategory.CLOSED),
+        CLOSED_LOST(ForecastCategory.OMITTED);
+        
+        private final ForecastCategory forecastCategory;
+        
+        Stage(ForecastCategory forecastCategory) {
+            this.forecastCategory = forecastCategory;
+        }
+        
+        public ForecastCategory getForecastCategory() {
+            return forecastCategory;
+        }
+    }
+    
+    /**
+     * Forecast category of a stage. Categories are disjoint: the best-case forecast of a period is
+     * CLOSED + COMMIT + BEST_CASE. Lost opportunities are OMITTED from forecasts.
+     */
+    public enum ForecastCategory {
+        CLOSED, COMMIT, BEST_CASE, PIPELINE, OMITTED
     }
 }
\ No newline at end of file
@@ -15,9 +15,19 @@ dependencies {
     implementation("org.flywaydb:flyway-core")
     implementation("org.flywaydb:flyway-database-postgresql")
     
+    // Second-level cache: Hibernate JCache regions backed by Caffeine (regions in application.conf)
+    implementation("org.hibernate.orm:hibernate-jcache")
+    implementation("com.github.ben-manes.caffeine:jcache")
+    
     runtimeOnly("org.postgresql:postgresql")
     
     // Testing
     testImplementation("org.testcontainers:postgresql")
     testImplementation("org.springframework.boot:spring-boot-testcontainers")
-}
\ No newline at end of file
+    testRuntimeOnly("com.h2database:h2")
+}
+// Opt-in throughput runs: gradle :infra:test -Dbenchmark=true
+tasks.test {
+    providers.systemProperty("benchmark").orNull?.let { systemProperty("benchmark", it) }
+    testLogging.showStandardStreams = providers.systemProperty("benchmark").isPresent
+}
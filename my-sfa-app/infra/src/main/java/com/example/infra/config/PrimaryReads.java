@@ -0,0 +1,36 @@
+package com.example.infra.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Routing hint: reads made inside {@link #call} go to the primary database even in read-only
+ * transactions, which otherwise may be served by a replica up to {@code app.datasource.replica.max-lag}
+ * behind. For lookups that must see rows committed moments ago, possibly by another instance.
+ * Without replicas every read is on the primary anyway.
+ * <p>
+ * The database is chosen when a transaction takes its connection, at its first statement, so the
+ * action has to contain that statement.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> REQUESTED = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T call(Supplier<T> action) {
+        boolean outer = isRequested();
+        REQUESTED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (!outer) {
+                REQUESTED.remove();
+            }
+        }
+    }
+
+    public static boolean isRequested() {
+        return REQUESTED.get() != null;
+    }
+}
@@ -2,21 +2,21 @@ package com.example.infra.repository;
 
 import com.example.core.domain.Account;
 import com.example.core.domain.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.util.List;
-import java.util.Optional;
 
 @Repository
-public interface AccountRepository extends JpaRepository<Account, Long> {
-    
-    Optional<Account> findByName(String name);
+public interface AccountRepository extends JpaRepository<Account, Long>, AccountRepositoryCustom {
     
     Page<Account> findByOwner(User owner, Pageable pageable);
     
@@ -30,8 +30,11 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     List<Account> findByEmployeeCountBetween(@Param("minEmployees") Integer minEmployees, 
                                            @Param("maxEmployees") Integer maxEmployees);
     
+    // Cached queries are invalidated by any write to the accounts table
     @Query("SELECT DISTINCT a.industry FROM Account a WHERE a.industry IS NOT NULL ORDER BY a.industry")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<String> findDistinctIndustries();
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     boolean existsByName(String name);
 }
\ No newline at end of file
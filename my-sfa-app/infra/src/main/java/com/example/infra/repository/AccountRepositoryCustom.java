@@ -0,0 +1,14 @@
+package com.example.infra.repository;
+
+import com.example.core.domain.Account;
+
+import java.util.Optional;
+
+public interface AccountRepositoryCustom {
+    
+    /**
+     * Natural-id lookup: answered from the second-level cache when the account has been loaded before,
+     * without a query.
+     */
+    Optional<Account> findByName(String name);
+}
@@ -0,0 +1,23 @@
+package com.example.infra.repository;
+
+import com.example.core.domain.Account;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public class AccountRepositoryCustomImpl implements AccountRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Account> findByName(String name) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Account.class)
+                .loadOptional(name);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.infra.repository;
+
+import com.example.core.domain.ActiveLead;
+import com.example.infra.repository.projection.ActiveLeadTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ActiveLeadRepository extends JpaRepository<ActiveLead, Long> {
+    
+    /**
+     * Active lead counts by owner, status and source, read from the view with no join to users
+     */
+    @Query("SELECT new com.example.infra.repository.projection.ActiveLeadTotal(" +
+           "a.ownerId, CONCAT(a.ownerFirstName, ' ', a.ownerLastName), a.ownerEmail, a.status, a.source, COUNT(a)) " +
+           "FROM ActiveLead a " +
+           "GROUP BY a.ownerId, a.ownerFirstName, a.ownerLastName, a.ownerEmail, a.status, a.source")
+    List<ActiveLeadTotal> findTotals();
+    
+    /**
+     * {@link #findTotals} of one owner, an index range scan on {@code idx_v_active_leads_owner}
+     */
+    @Query("SELECT new com.example.infra.repository.projection.ActiveLeadTotal(" +
+           "a.ownerId, CONCAT(a.ownerFirstName, ' ', a.ownerLastName), a.ownerEmail, a.status, a.source, COUNT(a)) " +
+           "FROM ActiveLead a WHERE a.ownerId = :ownerId " +
+           "GROUP BY a.ownerId, a.ownerFirstName, a.ownerLastName, a.ownerEmail, a.status, a.source")
+    List<ActiveLeadTotal> findOwnerTotals(@Param("ownerId") Long ownerId);
+}
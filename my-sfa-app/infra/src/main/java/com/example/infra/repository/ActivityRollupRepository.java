@@ -0,0 +1,39 @@
+package com.example.infra.repository;
+
+import com.example.core.domain.ActivityRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ActivityRollupRepository extends JpaRepository<ActivityRollup, ActivityRollup.Key> {
+    
+    /**
+     * Non-empty current rollups, i.e. rollups plus pending deltas, of the days from {@code from} through {@code to}
+     */
+    @Query(value = "SELECT activity_day, user_id, type, status, CAST(SUM(activity_count) AS INTEGER) AS activity_count FROM (" +
+                   "SELECT activity_day, user_id, type, status, activity_count FROM activity_rollups " +
+                   "WHERE activity_day BETWEEN :from AND :to " +
+                   "UNION ALL SELECT activity_day, user_id, type, status, delta FROM activity_rollup_deltas " +
+                   "WHERE activity_day BETWEEN :from AND :to) r " +
+                   "GROUP BY activity_day, user_id, type, status HAVING SUM(activity_count) <> 0", nativeQuery = true)
+    List<ActivityRollup> findInRange(@Param("from") LocalDate from,
+                                     @Param("to") LocalDate to);
+    
+    /**
+     * Non-empty current rollups of one user's days from {@code from} through {@code to}
+     */
+    @Query(value = "SELECT activity_day, user_id, type, status, CAST(SUM(activity_count) AS INTEGER) AS activity_count FROM (" +
+                   "SELECT activity_day, user_id, type, status, activity_count FROM activity_rollups " +
+                   "WHERE activity_day BETWEEN :from AND :to AND user_id = :userId " +
+                   "UNION ALL SELECT activity_day, user_id, type, status, delta FROM activity_rollup_deltas " +
+                   "WHERE activity_day BETWEEN :from AND :to AND user_id = :userId) r " +
+                   "GROUP BY activity_day, user_id, type, status HAVING SUM(activity_count) <> 0", nativeQuery = true)
+    List<ActivityRollup> findInRangeForUser(@Param("from") LocalDate from,
+                                            @Param("to") LocalDate to,
+                                            @Param("userId") Long userId);
+}
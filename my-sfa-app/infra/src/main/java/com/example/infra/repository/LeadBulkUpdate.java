@@ -0,0 +1,25 @@
+package com.example.infra.repository;
+
+import com.example.core.domain.Lead;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Field changes applied by a bulk lead update. Any field left null is not changed.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeadBulkUpdate {
+    
+    private Lead.Status status;
+    private Lead.Source source;
+    private Long ownerId;
+    
+    public boolean isEmpty() {
+        return status == null && source == null && ownerId == null;
+    }
+}
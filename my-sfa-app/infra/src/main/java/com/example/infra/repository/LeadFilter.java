@@ -0,0 +1,30 @@
+package com.example.infra.repository;
+
+import com.example.core.domain.Lead;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional lead list filters. Any field left null is not applied.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeadFilter {
+    
+    private Lead.Status status;
+    private Lead.Source source;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private String searchTerm;
+    
+    public boolean isEmpty() {
+        return status == null && source == null && startDate == null && endDate == null
+                && (searchTerm == null || searchTerm.isBlank());
+    }
+}
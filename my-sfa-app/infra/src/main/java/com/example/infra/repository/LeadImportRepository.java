@@ -0,0 +1,43 @@
+package com.example.infra.repository;
+
+import com.example.core.domain.LeadImport;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Repository
+public interface LeadImportRepository extends JpaRepository<LeadImport, String> {
+    
+    /**
+     * Refresh the heartbeat of jobs this instance is still running
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE LeadImport j SET j.heartbeatAt = :now WHERE j.id IN :ids AND j.finishedAt IS NULL")
+    int heartbeat(@Param("ids") Collection<String> ids, @Param("now") LocalDateTime now);
+    
+    /**
+     * Fail an unfinished job whose heartbeat is still the one a status poll saw, i.e. whose instance stopped
+     *
+     * @return 1 if the job was failed, 0 if it has moved on since
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE LeadImport j SET j.state = com.example.core.domain.LeadImport.State.FAILED, j.message = :message, " +
+           "j.finishedAt = :now WHERE j.id = :id AND j.finishedAt IS NULL AND j.heartbeatAt = :heartbeatAt")
+    int failAbandoned(@Param("id") String id,
+                      @Param("heartbeatAt") LocalDateTime heartbeatAt,
+                      @Param("message") String message,
+                      @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM LeadImport j WHERE j.finishedAt < :cutoff")
+    int deleteFinishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
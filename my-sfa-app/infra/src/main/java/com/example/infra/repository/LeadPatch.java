@@ -0,0 +1,78 @@
+package com.example.infra.repository;
+
+import com.example.core.domain.Lead;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Field changes of a single-lead PATCH, applied to a loaded lead by {@link LeadRepository#update}.
+ * Recognized fields (any case) are companyName, contactName, email, phone, status and source;
+ * others are ignored, whatever their value. Values are checked and enums parsed up front so bad values
+ * fail before the lead is loaded; null clears a field.
+ */
+public final class LeadPatch implements Consumer<Lead> {
+    
+    private final List<Consumer<Lead>> changes;
+    
+    private LeadPatch(List<Consumer<Lead>> changes) {
+        this.changes = changes;
+    }
+    
+    /**
+     * @throws IllegalArgumentException if a recognized field is not a string or null, or a status or
+     *         source is not a known constant
+     */
+    public static LeadPatch from(Map<String, Object> updates) {
+        List<Consumer<Lead>> changes = new ArrayList<>(updates.size());
+        updates.forEach((key, value) -> {
+            switch (key.toLowerCase()) {
+                case "companyname":
+                    String companyName = text(key, value);
+                    changes.add(lead -> lead.setCompanyName(companyName));
+                    break;
+                case "contactname":
+                    String contactName = text(key, value);
+                    changes.add(lead -> lead.setContactName(contactName));
+                    break;
+                case "email":
+                    String email = text(key, value);
+                    changes.add(lead -> lead.setEmail(email));
+                    break;
+                case "phone":
+                    String phone = text(key, value);
+                    changes.add(lead -> lead.setPhone(phone));
+                    break;
+                case "status":
+                    String statusName = text(key, value);
+                    if (statusName == null) {
+                        throw new IllegalArgumentException("status cannot be null");
+                    }
+                    Lead.Status status = Lead.Status.valueOf(statusName);
+                    changes.add(lead -> lead.setStatus(status));
+                    break;
+                case "source":
+                    String sourceName = text(key, value);
+                    Lead.Source source = sourceName != null ? Lead.Source.valueOf(sourceName) : null;
+                    changes.add(lead -> lead.setSource(source));
+                    break;
+            }
+        });
+        return new LeadPatch(changes);
+    }
+    
+    // Null clears the field
+    private static String text(String key, Object value) {
+        if (value != null && !(value instanceof String)) {
+            throw new IllegalArgumentException(key + " must be a string");
+        }
+        return (String) value;
+    }
+    
+    @Override
+    public void accept(Lead lead) {
+        changes.forEach(change -> change.accept(lead));
+    }
+}
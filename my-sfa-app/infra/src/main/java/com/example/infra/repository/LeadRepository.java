@@ -2,18 +2,21 @@ package com.example.infra.repository;
 
 import com.example.core.domain.Lead;
 import com.example.core.domain.User;
+import com.example.infra.repository.projection.LeadSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface LeadRepository extends JpaRepository<Lead, Long> {
+public interface LeadRepository extends JpaRepository<Lead, Long>, JpaSpecificationExecutor<Lead>, LeadRepositoryCustom {
     
     Page<Lead> findByOwner(User owner, Pageable pageable);
     
@@ -45,7 +48,20 @@ public interface LeadRepository extends JpaRepository<Lead, Long> {
     
     @Query("SELECT COUNT(l) FROM Lead l WHERE l.owner = :owner AND l.status = :status")
     long countByOwnerAndStatus(@Param("owner") User owner, @Param("status") Lead.Status status);
-    
+
+    @Query("SELECT COUNT(l) FROM Lead l WHERE l.createdAt >= :since")
+    long countCreatedSince(@Param("since") LocalDateTime since);
+
+    // Aggregates: each row is [status, count]
+    @Query("SELECT l.status, COUNT(l) FROM Lead l GROUP BY l.status")
+    List<Object[]> countGroupedByStatus();
+
+    // Aggregates: each row is [status, source, count, createdSinceCount]
+    @Query("SELECT l.status, l.source, COUNT(l), " +
+           "SUM(CASE WHEN l.createdAt >= :since THEN 1L ELSE 0L END) " +
+           "FROM Lead l GROUP BY l.status, l.source")
+    List<Object[]> countGroupedByStatusAndSource(@Param("since") LocalDateTime since);
+
     // Search by company name (case insensitive)
     @Query("SELECT l FROM Lead l WHERE LOWER(l.companyName) LIKE LOWER(CONCAT('%', :companyName, '%'))")
     Page<Lead> findByCompanyNameContainingIgnoreCase(@Param("companyName") String companyName, Pageable pageable);
@@ -65,34 +81,49 @@ public interface LeadRepository extends JpaRepository<Lead, Long> {
            "LOWER(l.email) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     Page<Lead> searchLeads(@Param("searchTerm") String searchTerm, Pageable pageable);
     
-    // Advanced filter with multiple criteria
-    @Query("SELECT l FROM Lead l WHERE " +
-           "(:status IS NULL OR l.status = :status) AND " +
-           "(:source IS NULL OR l.source = :source) AND " +
-           "(:startDate IS NULL OR l.createdAt >= :startDate) AND " +
-           "(:endDate IS NULL OR l.createdAt <= :endDate) AND " +
-           "(:searchTerm IS NULL OR " +
-           "  LOWER(l.companyName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "  LOWER(l.contactName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "  LOWER(l.email) LIKE LOWER(CONCAT('%', :searchTerm, '%'))" +
-           ")")
-    Page<Lead> findLeadsWithFilters(
-        @Param("status") Lead.Status status,
-        @Param("source") Lead.Source source,
-        @Param("startDate") LocalDateTime startDate,
-        @Param("endDate") LocalDateTime endDate,
-        @Param("searchTerm") String searchTerm,
-        Pageable pageable);
-        
-    // Count leads with filters
-    @Query("SELECT COUNT(l) FROM Lead l WHERE " +
-           "(:status IS NULL OR l.status = :status) AND " +
-           "(:source IS NULL OR l.source = :source) AND " +
-           "(:startDate IS NULL OR l.createdAt >= :startDate) AND " +
-           "(:endDate IS NULL OR l.createdAt <= :endDate)")
-    long countLeadsWithFilters(
-        @Param("status") Lead.Status status,
-        @Param("source") Lead.Source source,
-        @Param("startDate") LocalDateTime startDate,
-        @Param("endDate") LocalDateTime endDate);
+    // Ranked substring search backed by the pg_trgm GIN indexes (PostgreSQL only, see V6).
+    // Returns only ids in relevance order; rows are loaded with findSummariesByIdIn.
+    // :pattern is the lower-cased, LIKE-escaped term wrapped in '%'; :term is the lower-cased raw term.
+    @Query(value = "SELECT l.id FROM leads l WHERE " +
+                   "LOWER(l.company_name) LIKE :pattern OR " +
+                   "LOWER(l.contact_name) LIKE :pattern OR " +
+                   "LOWER(l.email) LIKE :pattern " +
+                   "ORDER BY GREATEST(" +
+                   "  word_similarity(:term, LOWER(l.company_name)), " +
+                   "  word_similarity(:term, LOWER(l.contact_name)), " +
+                   "  word_similarity(:term, LOWER(l.email))" +
+                   ") DESC, l.id DESC",
+           countQuery = "SELECT COUNT(*) FROM leads l WHERE " +
+                        "LOWER(l.company_name) LIKE :pattern OR " +
+                        "LOWER(l.contact_name) LIKE :pattern OR " +
+                        "LOWER(l.email) LIKE :pattern",
+           nativeQuery = true)
+    Page<Long> searchLeadIdsRanked(@Param("term") String term, @Param("pattern") String pattern, Pageable pageable);
+    
+    // Projections: list rows with the owner's display name, no entity hydration
+    String SUMMARY_SELECT = "SELECT new com.example.infra.repository.projection.LeadSummary(" +
+            "l.id, l.companyName, l.contactName, l.email, l.phone, l.status, l.source, " +
+            "l.createdAt, l.updatedAt, o.id, CONCAT(o.firstName, ' ', o.lastName)) " +
+            "FROM Lead l JOIN l.owner o ";
+    
+    @Query(SUMMARY_SELECT + "WHERE l.id IN :ids")
+    List<LeadSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query(SUMMARY_SELECT + "WHERE l.status = :status")
+    List<LeadSummary> findSummariesByStatus(@Param("status") Lead.Status status);
+    
+    @Query(value = SUMMARY_SELECT + "WHERE l.source = :source",
+           countQuery = "SELECT COUNT(l) FROM Lead l WHERE l.source = :source")
+    Page<LeadSummary> findSummariesBySource(@Param("source") Lead.Source source, Pageable pageable);
+    
+    // Portable fallback of searchLeadIdsRanked; :pattern is prepared the same way, escaped with '\'
+    @Query(value = SUMMARY_SELECT + "WHERE " +
+                   "LOWER(l.companyName) LIKE :pattern ESCAPE '\\' OR " +
+                   "LOWER(l.contactName) LIKE :pattern ESCAPE '\\' OR " +
+                   "LOWER(l.email) LIKE :pattern ESCAPE '\\'",
+           countQuery = "SELECT COUNT(l) FROM Lead l WHERE " +
+                        "LOWER(l.companyName) LIKE :pattern ESCAPE '\\' OR " +
+                        "LOWER(l.contactName) LIKE :pattern ESCAPE '\\' OR " +
+                        "LOWER(l.email) LIKE :pattern ESCAPE '\\'")
+    Page<LeadSummary> searchSummaries(@Param("pattern") String pattern, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,88 @@
+package com.example.infra.repository;
+
+import com.example.core.domain.Lead;
+import com.example.infra.repository.projection.LeadListFingerprint;
+import com.example.infra.repository.projection.LeadSummary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public interface LeadRepositoryCustom {
+    
+    /**
+     * Offset page of lead list rows matching the filter (all leads when the filter is empty).
+     * The count query is skipped when the page itself shows there are no further rows.
+     */
+    Page<LeadSummary> findLeadSummaries(LeadFilter filter, Pageable pageable);
+    
+    /**
+     * Offset page of lead list rows matching the filter, with the total already known
+     * (e.g. from {@link #fingerprint(LeadFilter)}), so no count query is issued.
+     */
+    Page<LeadSummary> findLeadSummaries(LeadFilter filter, Pageable pageable, long total);
+    
+    /**
+     * Keyset (seek) page ordered by createdAt DESC, id DESC.
+     * Returns up to {@code limit} leads strictly after the given (createdAt, id) position,
+     * or the first page when the position is null. No count query is issued.
+     */
+    List<LeadSummary> findLeadsAfter(LeadFilter filter, LocalDateTime afterCreatedAt, Long afterId, int limit);
+    
+    /**
+     * Every lead row matching the filter, ordered by id, read through a server-side cursor
+     * with the given JDBC fetch size. Must be consumed inside a transaction and closed.
+     */
+    Stream<LeadSummary> streamLeadSummaries(LeadFilter filter, int fetchSize);
+    
+    /**
+     * Count of leads matching the filter, including the search term
+     */
+    long countLeads(LeadFilter filter);
+    
+    /**
+     * Count and latest updatedAt of the leads matching the filter, in one aggregate query
+     * costing about as much as {@link #countLeads(LeadFilter)}
+     */
+    LeadListFingerprint fingerprint(LeadFilter filter);
+    
+    /**
+     * Load the lead, apply the changes and write them in one transaction. Lead is @DynamicUpdate,
+     * so the UPDATE sets only the columns that changed and is guarded by the version.
+     *
+     * @param expectedVersion version the changes were made against, or null to apply them to the current one
+     * @return the updated lead, or empty if there is no lead with this id
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the lead is not at the
+     *         expected version, or another transaction updated it first
+     */
+    Optional<Lead> update(Long id, Long expectedVersion, Consumer<Lead> changes);
+    
+    /**
+     * Apply the changes to the given leads in one UPDATE statement. A status change first reads the
+     * leads it moves and publishes them as a {@link LeadStatusChangeEvent}.
+     *
+     * @return number of leads updated
+     */
+    int bulkUpdate(Collection<Long> ids, LeadBulkUpdate changes);
+    
+    /**
+     * Apply the changes to every lead matching the filter in one UPDATE statement, publishing
+     * status changes as {@link #bulkUpdate(Collection, LeadBulkUpdate)} does.
+     *
+     * @return number of leads updated
+     */
+    int bulkUpdate(LeadFilter filter, LeadBulkUpdate changes);
+    
+    /**
+     * Delete every lead matching the filter, together with its activities
+     * (the same cascade as deleting a single lead).
+     *
+     * @return number of leads deleted
+     */
+    int bulkDelete(LeadFilter filter);
+}
@@ -0,0 +1,323 @@
+package com.example.infra.repository;
+
+import com.example.core.domain.Activity;
+import com.example.core.domain.Lead;
+import com.example.core.domain.User;
+import com.example.infra.repository.projection.LeadListFingerprint;
+import com.example.infra.repository.projection.LeadSummary;
+import com.example.infra.repository.specification.LeadSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaDelete;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+public class LeadRepositoryCustomImpl implements LeadRepositoryCustom {
+    
+    // Keeps status updates of large selections under the driver's bind parameter limit
+    private static final int STATUS_UPDATE_CHUNK_SIZE = 10_000;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Override
+    public Page<LeadSummary> findLeadSummaries(LeadFilter filter, Pageable pageable) {
+        return PageableExecutionUtils.getPage(pageContent(filter, pageable), pageable, () -> countLeads(filter));
+    }
+    
+    @Override
+    public Page<LeadSummary> findLeadSummaries(LeadFilter filter, Pageable pageable, long total) {
+        return new PageImpl<>(pageContent(filter, pageable), pageable, total);
+    }
+    
+    private List<LeadSummary> pageContent(LeadFilter filter, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<LeadSummary> query = cb.createQuery(LeadSummary.class);
+        Root<Lead> lead = query.from(Lead.class);
+        
+        query.select(summary(cb, lead))
+             .where(filterPredicates(filter, query, cb, lead).toArray(new Predicate[0]));
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), lead, cb));
+        }
+        
+        TypedQuery<LeadSummary> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        
+        return typedQuery.getResultList();
+    }
+    
+    @Override
+    public List<LeadSummary> findLeadsAfter(LeadFilter filter, LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<LeadSummary> query = cb.createQuery(LeadSummary.class);
+        Root<Lead> lead = query.from(Lead.class);
+        
+        List<Predicate> predicates = filterPredicates(filter, query, cb, lead);
+        
+        if (afterCreatedAt != null && afterId != null) {
+            Path<LocalDateTime> createdAt = lead.get("createdAt");
+            Path<Long> id = lead.get("id");
+            // The redundant upper bound lets the (created_at, id) index start the range scan at the cursor
+            predicates.add(cb.lessThanOrEqualTo(createdAt, afterCreatedAt));
+            predicates.add(cb.or(
+                cb.lessThan(createdAt, afterCreatedAt),
+                cb.and(cb.equal(createdAt, afterCreatedAt), cb.lessThan(id, afterId))
+            ));
+        }
+        
+        query.select(summary(cb, lead))
+             .where(predicates.toArray(new Predicate[0]))
+             .orderBy(cb.desc(lead.get("createdAt")), cb.desc(lead.get("id")));
+        
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+    
+    @Override
+    public Stream<LeadSummary> streamLeadSummaries(LeadFilter filter, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<LeadSummary> query = cb.createQuery(LeadSummary.class);
+        Root<Lead> lead = query.from(Lead.class);
+        
+        query.select(summary(cb, lead))
+             .where(filterPredicates(filter, query, cb, lead).toArray(new Predicate[0]))
+             .orderBy(cb.asc(lead.get("id")));
+        
+        // DTO rows are never managed, so the persistence context stays empty however many rows are read
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+    
+    @Override
+    public long countLeads(LeadFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Lead> lead = query.from(Lead.class);
+        
+        query.select(cb.count(lead))
+             .where(filterPredicates(filter, query, cb, lead).toArray(new Predicate[0]));
+        
+        return entityManager.createQuery(query).getSingleResult();
+    }
+    
+    @Override
+    public LeadListFingerprint fingerprint(LeadFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<LeadListFingerprint> query = cb.createQuery(LeadListFingerprint.class);
+        Root<Lead> lead = query.from(Lead.class);
+        
+        query.select(cb.construct(LeadListFingerprint.class,
+                 cb.count(lead),
+                 cb.greatest(lead.<LocalDateTime>get("updatedAt"))))
+             .where(filterPredicates(filter, query, cb, lead).toArray(new Predicate[0]));
+        
+        return entityManager.createQuery(query).getSingleResult();
+    }
+    
+    @Override
+    @Transactional
+    public Optional<Lead> update(Long id, Long expectedVersion, Consumer<Lead> changes) {
+        Lead lead = entityManager.find(Lead.class, id);
+        if (lead == null) {
+            return Optional.empty();
+        }
+        if (expectedVersion != null && !expectedVersion.equals(lead.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Lead.class, id);
+        }
+        
+        changes.accept(lead);
+        // Surface a lost race here, translated like any repository exception, rather than at commit
+        entityManager.flush();
+        return Optional.of(lead);
+    }
+    
+    @Override
+    @Transactional
+    public int bulkUpdate(Collection<Long> ids, LeadBulkUpdate changes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Lead> update = cb.createCriteriaUpdate(Lead.class);
+        Root<Lead> lead = update.from(Lead.class);
+        
+        update.where(lead.get("id").in(ids));
+        return executeUpdate(update, lead, changes, matched -> new Predicate[] { matched.get("id").in(ids) });
+    }
+    
+    @Override
+    @Transactional
+    public int bulkUpdate(LeadFilter filter, LeadBulkUpdate changes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Lead> update = cb.createCriteriaUpdate(Lead.class);
+        Root<Lead> lead = update.from(Lead.class);
+        
+        update.where(bulkPredicates(filter, cb, lead));
+        return executeUpdate(update, lead, changes, matched -> bulkPredicates(filter, cb, matched));
+    }
+    
+    @Override
+    @Transactional
+    public int bulkDelete(LeadFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        
+        // activities.lead_id has no ON DELETE rule; remove them first, as the Lead.activities cascade would
+        CriteriaDelete<Activity> deleteActivities = cb.createCriteriaDelete(Activity.class);
+        Root<Activity> activity = deleteActivities.from(Activity.class);
+        Subquery<Long> matchingLeads = deleteActivities.subquery(Long.class);
+        Root<Lead> matched = matchingLeads.from(Lead.class);
+        matchingLeads.select(matched.get("id")).where(bulkPredicates(filter, cb, matched));
+        deleteActivities.where(activity.get("lead").get("id").in(matchingLeads));
+        
+        CriteriaDelete<Lead> deleteLeads = cb.createCriteriaDelete(Lead.class);
+        Root<Lead> lead = deleteLeads.from(Lead.class);
+        deleteLeads.where(bulkPredicates(filter, cb, lead));
+        
+        entityManager.flush();
+        entityManager.createQuery(deleteActivities).executeUpdate();
+        int deleted = entityManager.createQuery(deleteLeads).executeUpdate();
+        entityManager.clear();
+        return deleted;
+    }
+    
+    private int executeUpdate(CriteriaUpdate<Lead> update, Root<Lead> lead, LeadBulkUpdate changes,
+                              Function<Root<Lead>, Predicate[]> matching) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        LocalDateTime now = LocalDateTime.now();
+        if (changes.getStatus() != null) {
+            update.set(lead.<Lead.Status>get("status"), changes.getStatus());
+        }
+        if (changes.getSource() != null) {
+            update.set(lead.<Lead.Source>get("source"), changes.getSource());
+        }
+        if (changes.getOwnerId() != null) {
+            update.set(lead.<User>get("owner"), entityManager.getReference(User.class, changes.getOwnerId()));
+        }
+        // Bulk statements bypass the auditing listener and version increment
+        update.set(lead.<LocalDateTime>get("updatedAt"), now);
+        update.set(lead.<Long>get("version"), cb.sum(lead.<Long>get("version"), 1L));
+        
+        // Managed leads would be stale after the statement, as with @Modifying(flushAutomatically, clearAutomatically)
+        entityManager.flush();
+        if (changes.getStatus() == null) {
+            int updated = entityManager.createQuery(update).executeUpdate();
+            entityManager.clear();
+            return updated;
+        }
+        
+        // Update exactly the locked leads, so no lead moves without its previous status being recorded
+        List<Long> ids = lockAndPublishStatusChanges(changes, matching, now);
+        int updated = 0;
+        for (int from = 0; from < ids.size(); from += STATUS_UPDATE_CHUNK_SIZE) {
+            update.where(lead.get("id").in(ids.subList(from, Math.min(ids.size(), from + STATUS_UPDATE_CHUNK_SIZE))));
+            updated += entityManager.createQuery(update).executeUpdate();
+        }
+        entityManager.clear();
+        return updated;
+    }
+    
+    /**
+     * Lock the matching leads in id order and publish the transitions of those moving to another status.
+     * The locks hold to commit, so the recorded previous statuses cannot change under the update, and
+     * concurrent bulk updates over overlapping leads queue rather than deadlock.
+     *
+     * @return ids of the locked leads
+     */
+    private List<Long> lockAndPublishStatusChanges(LeadBulkUpdate changes, Function<Root<Lead>, Predicate[]> matching,
+                                                   LocalDateTime now) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Lead> lead = query.from(Lead.class);
+        
+        query.multiselect(lead.get("id"), lead.get("status"), lead.get("owner").get("id"), lead.get("source"))
+             .where(matching.apply(lead))
+             .orderBy(cb.asc(lead.get("id")));
+        List<Tuple> rows = entityManager.createQuery(query)
+            .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+            .getResultList();
+        
+        List<LeadStatusChange> statusChanges = rows.stream()
+            .filter(row -> row.get(1, Lead.Status.class) != changes.getStatus())
+            .map(row -> new LeadStatusChange(
+                row.get(0, Long.class),
+                row.get(1, Lead.Status.class),
+                changes.getStatus(),
+                changes.getOwnerId() != null ? changes.getOwnerId() : row.get(2, Long.class),
+                changes.getSource() != null ? changes.getSource() : row.get(3, Lead.Source.class),
+                now))
+            .toList();
+        if (!statusChanges.isEmpty()) {
+            eventPublisher.publishEvent(new LeadStatusChangeEvent(statusChanges));
+        }
+        return rows.stream().map(row -> row.get(0, Long.class)).toList();
+    }
+    
+    // Bulk statements have no CriteriaQuery; the lead specifications only use the root and builder,
+    // the same contract as JpaSpecificationExecutor.delete(Specification)
+    private Predicate[] bulkPredicates(LeadFilter filter, CriteriaBuilder cb, Root<Lead> lead) {
+        Predicate filters = LeadSpecifications.matching(filter).toPredicate(lead, null, cb);
+        return filters != null ? new Predicate[] { filters } : new Predicate[0];
+    }
+    
+    private CompoundSelection<LeadSummary> summary(CriteriaBuilder cb, Root<Lead> lead) {
+        Join<Lead, User> owner = lead.join("owner");
+        return cb.construct(LeadSummary.class,
+            lead.get("id"),
+            lead.get("companyName"),
+            lead.get("contactName"),
+            lead.get("email"),
+            lead.get("phone"),
+            lead.get("status"),
+            lead.get("source"),
+            lead.get("createdAt"),
+            lead.get("updatedAt"),
+            owner.get("id"),
+            cb.concat(cb.concat(owner.<String>get("firstName"), " "), owner.<String>get("lastName"))
+        );
+    }
+    
+    private List<Predicate> filterPredicates(LeadFilter filter, CriteriaQuery<?> query, CriteriaBuilder cb, Root<Lead> lead) {
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate filters = LeadSpecifications.matching(filter).toPredicate(lead, query, cb);
+        if (filters != null) {
+            predicates.add(filters);
+        }
+        return predicates;
+    }
+}
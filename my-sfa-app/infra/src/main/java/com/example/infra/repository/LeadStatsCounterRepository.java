@@ -0,0 +1,27 @@
+package com.example.infra.repository;
+
+import com.example.core.domain.LeadStatsCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LeadStatsCounterRepository extends JpaRepository<LeadStatsCounter, LeadStatsCounter.Key> {
+    
+    // Current counts, i.e. counters plus pending deltas: each row is [dimension, bucket, count]
+    @Query(value = "SELECT dimension, bucket, SUM(lead_count) FROM (" +
+                   "SELECT dimension, bucket, lead_count FROM lead_stats_counters " +
+                   "UNION ALL SELECT dimension, bucket, delta FROM lead_stats_counter_deltas) c " +
+                   "GROUP BY dimension, bucket", nativeQuery = true)
+    List<Object[]> sumCurrentCounts();
+    
+    // Current counts of one dimension: each row is [bucket, count]
+    @Query(value = "SELECT bucket, SUM(lead_count) FROM (" +
+                   "SELECT bucket, lead_count FROM lead_stats_counters WHERE dimension = :dimension " +
+                   "UNION ALL SELECT bucket, delta FROM lead_stats_counter_deltas WHERE dimension = :dimension) c " +
+                   "GROUP BY bucket", nativeQuery = true)
+    List<Object[]> sumCurrentCounts(@Param("dimension") String dimension);
+}
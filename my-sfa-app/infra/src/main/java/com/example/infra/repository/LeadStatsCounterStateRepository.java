@@ -0,0 +1,9 @@
+package com.example.infra.repository;
+
+import com.example.core.domain.LeadStatsCounterState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LeadStatsCounterStateRepository extends JpaRepository<LeadStatsCounterState, Short> {
+}
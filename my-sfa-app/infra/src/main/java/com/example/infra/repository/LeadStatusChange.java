@@ -0,0 +1,18 @@
+package com.example.infra.repository;
+
+import com.example.core.domain.Lead;
+
+import java.time.LocalDateTime;
+
+/**
+ * A lead entering {@code toStatus}. {@code fromStatus} is null when the lead was created in it.
+ * {@code ownerId} and {@code source} are the lead's values after the change.
+ */
+public record LeadStatusChange(
+        Long leadId,
+        Lead.Status fromStatus,
+        Lead.Status toStatus,
+        Long ownerId,
+        Lead.Source source,
+        LocalDateTime changedAt) {
+}
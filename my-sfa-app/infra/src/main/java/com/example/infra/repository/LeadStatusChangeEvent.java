@@ -0,0 +1,10 @@
+package com.example.infra.repository;
+
+import java.util.List;
+
+/**
+ * Published inside the transaction of a bulk update that changed lead statuses. Bulk statements
+ * bypass Hibernate's entity events, so this is the only record of which leads moved from where.
+ */
+public record LeadStatusChangeEvent(List<LeadStatusChange> changes) {
+}
@@ -0,0 +1,28 @@
+package com.example.infra.repository;
+
+import com.example.core.domain.MaterializedViewChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface MaterializedViewChangeRepository extends JpaRepository<MaterializedViewChange, Long> {
+    
+    /**
+     * Whether writes to the view's sources are not yet in the view
+     */
+    boolean existsByViewName(String viewName);
+    
+    /**
+     * Delete the view's recorded changes. Runs in the transaction of the refresh, before it: the refresh
+     * sees every write whose change this deleted, and changes committed later stay for the next refresh.
+     */
+    @Modifying
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Query("DELETE FROM MaterializedViewChange c WHERE c.viewName = :viewName")
+    int consumeChanges(@Param("viewName") String viewName);
+}
@@ -0,0 +1,51 @@
+package com.example.infra.repository;
+
+import com.example.core.domain.MaterializedViewRefresh;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface MaterializedViewRefreshRepository extends JpaRepository<MaterializedViewRefresh, String> {
+    
+    /**
+     * Claim a refresh of the view if it has recorded changes or was last refreshed before {@code staleBefore},
+     * and no other instance has been refreshing it since {@code leaseExpiredBefore}.
+     *
+     * @return 1 if claimed, 0 otherwise
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE MaterializedViewRefresh r SET r.refreshingSince = :now WHERE r.viewName = :viewName " +
+           "AND (EXISTS (SELECT c.id FROM MaterializedViewChange c WHERE c.viewName = r.viewName) " +
+           "OR r.refreshedAt < :staleBefore) " +
+           "AND (r.refreshingSince IS NULL OR r.refreshingSince < :leaseExpiredBefore)")
+    int claimRefresh(@Param("viewName") String viewName,
+                     @Param("now") LocalDateTime now,
+                     @Param("staleBefore") LocalDateTime staleBefore,
+                     @Param("leaseExpiredBefore") LocalDateTime leaseExpiredBefore);
+    
+    /**
+     * Record a finished refresh of a view claimed at {@code refreshedAt}
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE MaterializedViewRefresh r SET r.refreshedAt = :refreshedAt, r.refreshDurationMs = :durationMs, " +
+           "r.refreshingSince = NULL WHERE r.viewName = :viewName")
+    int completeRefresh(@Param("viewName") String viewName,
+                        @Param("refreshedAt") LocalDateTime refreshedAt,
+                        @Param("durationMs") long durationMs);
+    
+    /**
+     * Release a failed refresh. Its transaction rolled back, so the changes it consumed make the next run retry it.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE MaterializedViewRefresh r SET r.refreshingSince = NULL WHERE r.viewName = :viewName")
+    int failRefresh(@Param("viewName") String viewName);
+}
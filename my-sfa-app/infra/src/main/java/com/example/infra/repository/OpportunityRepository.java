@@ -3,9 +3,12 @@ package com.example.infra.repository;
 import com.example.core.domain.Account;
 import com.example.core.domain.Opportunity;
 import com.example.core.domain.User;
+import com.example.infra.repository.projection.ForecastTotal;
+import com.example.infra.repository.projection.PipelineStageTotal;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -15,7 +18,7 @@ import java.time.LocalDate;
 import java.util.List;
 
 @Repository
-public interface OpportunityRepository extends JpaRepository<Opportunity, Long> {
+public interface OpportunityRepository extends JpaRepository<Opportunity, Long>, JpaSpecificationExecutor<Opportunity> {
     
     Page<Opportunity> findByOwner(User owner, Pageable pageable);
     
@@ -45,4 +48,42 @@ public interface OpportunityRepository extends JpaRepository<Opportunity, Long>
     
     @Query("SELECT COUNT(o) FROM Opportunity o WHERE o.owner = :owner AND o.stage = :stage")
     long countByOwnerAndStage(@Param("owner") User owner, @Param("stage") Opportunity.Stage stage);
-}
\ No newline at end of file
+    
+    /**
+     * Count, amount and probability-weighted amount per owner and stage in one grouped scan.
+     * The weighted sum is divided by 100 in {@link PipelineStageTotal} so no precision is lost in SQL.
+     */
+    @Query("SELECT new com.example.infra.repository.projection.PipelineStageTotal(" +
+           "u.id, CONCAT(u.firstName, ' ', u.lastName), o.stage, COUNT(o), SUM(o.amount), SUM(o.amount * o.probability)) " +
+           "FROM Opportunity o JOIN o.owner u " +
+           "GROUP BY u.id, u.firstName, u.lastName, o.stage")
+    List<PipelineStageTotal> findPipelineTotals();
+    
+    /**
+     * Count, amount and probability-weighted amount per owner, stage and close month of the open and won
+     * opportunities closing in [from, to]. Lost opportunities are left out.
+     */
+    @Query("SELECT new com.example.infra.repository.projection.ForecastTotal(" +
+           "u.id, CONCAT(u.firstName, ' ', u.lastName), o.stage, YEAR(o.closeDate), MONTH(o.closeDate), " +
+           "COUNT(o), SUM(o.amount), SUM(o.amount * o.probability)) " +
+           "FROM Opportunity o JOIN o.owner u " +
+           "WHERE o.closeDate BETWEEN :from AND :to AND o.stage <> com.example.core.domain.Opportunity.Stage.CLOSED_LOST " +
+           "GROUP BY u.id, u.firstName, u.lastName, o.stage, YEAR(o.closeDate), MONTH(o.closeDate)")
+    List<ForecastTotal> findForecastTotals(@Param("from") LocalDate from,
+                                           @Param("to") LocalDate to);
+    
+    /**
+     * {@link #findForecastTotals} of one owner. A separate query rather than an optional owner predicate,
+     * so PostgreSQL plans it for the owner's rows.
+     */
+    @Query("SELECT new com.example.infra.repository.projection.ForecastTotal(" +
+           "u.id, CONCAT(u.firstName, ' ', u.lastName), o.stage, YEAR(o.closeDate), MONTH(o.closeDate), " +
+           "COUNT(o), SUM(o.amount), SUM(o.amount * o.probability)) " +
+           "FROM Opportunity o JOIN o.owner u " +
+           "WHERE o.closeDate BETWEEN :from AND :to AND o.stage <> com.example.core.domain.Opportunity.Stage.CLOSED_LOST " +
+           "AND u.id = :ownerId " +
+           "GROUP BY u.id, u.firstName, u.lastName, o.stage, YEAR(o.closeDate), MONTH(o.closeDate)")
+    List<ForecastTotal> findOwnerForecastTotals(@Param("from") LocalDate from,
+                                                @Param("to") LocalDate to,
+                                                @Param("ownerId") Long ownerId);
+}
@@ -0,0 +1,14 @@
+package com.example.infra.repository;
+
+import com.example.core.domain.User;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+    
+    /**
+     * Natural-id lookup: answered from the second-level cache when the user has been loaded before,
+     * without a query.
+     */
+    Optional<User> findByEmail(String email);
+}
@@ -0,0 +1,15 @@
+package com.example.infra.repository.projection;
+
+import com.example.core.domain.Lead;
+
+/**
+ * Number of active leads of one owner with one status and source
+ */
+public record ActiveLeadTotal(
+        Long ownerId,
+        String ownerName,
+        String ownerEmail,
+        Lead.Status status,
+        Lead.Source source,
+        long count) {
+}
@@ -0,0 +1,32 @@
+package com.example.infra.repository.projection;
+
+import com.example.core.domain.Opportunity;
+
+import java.math.BigDecimal;
+
+/**
+ * Opportunity totals of one owner in one stage closing in one calendar month.
+ * {@code weightedAmount} is the sum of amount × probability / 100.
+ */
+public record ForecastTotal(
+        Long ownerId,
+        String ownerName,
+        Opportunity.Stage stage,
+        int year,
+        int month,
+        long count,
+        BigDecimal amount,
+        BigDecimal weightedAmount) {
+
+    public ForecastTotal(Long ownerId, String ownerName, Opportunity.Stage stage, int year, int month, long count,
+                         BigDecimal amount, BigDecimal weightedAmount) {
+        this.ownerId = ownerId;
+        this.ownerName = ownerName;
+        this.stage = stage;
+        this.year = year;
+        this.month = month;
+        this.count = count;
+        this.amount = amount != null ? amount : BigDecimal.ZERO;
+        this.weightedAmount = weightedAmount != null ? weightedAmount.movePointLeft(2) : BigDecimal.ZERO;
+    }
+}
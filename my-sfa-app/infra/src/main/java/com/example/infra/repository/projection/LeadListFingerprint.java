@@ -0,0 +1,10 @@
+package com.example.infra.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row count and latest update time of the leads matching a filter. Creating, updating or deleting
+ * a matching lead changes at least one of them, so together they identify a version of a lead list.
+ */
+public record LeadListFingerprint(long count, LocalDateTime lastUpdatedAt) {
+}
@@ -0,0 +1,24 @@
+package com.example.infra.repository.projection;
+
+import com.example.core.domain.Lead;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only lead list row: the columns shown in lead tables plus the owner's display name,
+ * selected in a single query with the owner join. Never a managed entity, so no lazy proxies
+ * or follow-up queries during serialization.
+ */
+public record LeadSummary(
+        Long id,
+        String companyName,
+        String contactName,
+        String email,
+        String phone,
+        Lead.Status status,
+        Lead.Source source,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Long ownerId,
+        String ownerName) {
+}
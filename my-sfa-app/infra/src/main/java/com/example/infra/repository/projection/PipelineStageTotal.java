@@ -0,0 +1,28 @@
+package com.example.infra.repository.projection;
+
+import com.example.core.domain.Opportunity;
+
+import java.math.BigDecimal;
+
+/**
+ * Opportunity totals of one owner in one stage. {@code weightedAmount} is the sum of
+ * amount × probability / 100; opportunities without an amount count but add nothing.
+ */
+public record PipelineStageTotal(
+        Long ownerId,
+        String ownerName,
+        Opportunity.Stage stage,
+        long count,
+        BigDecimal amount,
+        BigDecimal weightedAmount) {
+
+    public PipelineStageTotal(Long ownerId, String ownerName, Opportunity.Stage stage, long count,
+                              BigDecimal amount, BigDecimal weightedAmount) {
+        this.ownerId = ownerId;
+        this.ownerName = ownerName;
+        this.stage = stage;
+        this.count = count;
+        this.amount = amount != null ? amount : BigDecimal.ZERO;
+        this.weightedAmount = weightedAmount != null ? weightedAmount.movePointLeft(2) : BigDecimal.ZERO;
+    }
+}
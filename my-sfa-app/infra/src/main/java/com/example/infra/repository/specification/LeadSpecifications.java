@@ -0,0 +1,27 @@
+package com.example.infra.repository.specification;
+
+import com.example.core.domain.Lead;
+import com.example.infra.repository.LeadFilter;
+import org.springframework.data.jpa.domain.Specification;
+
+public final class LeadSpecifications {
+    
+    private LeadSpecifications() {
+    }
+    
+    /**
+     * Specification for the lead list filters; unset filters add no predicate
+     */
+    public static Specification<Lead> matching(LeadFilter filter) {
+        if (filter == null) {
+            return SpecificationBuilder.<Lead>create().build();
+        }
+        return SpecificationBuilder.<Lead>create()
+                .equal("status", filter.getStatus())
+                .equal("source", filter.getSource())
+                .atLeast("createdAt", filter.getStartDate())
+                .atMost("createdAt", filter.getEndDate())
+                .containsIgnoreCase(filter.getSearchTerm(), "companyName", "contactName", "email")
+                .build();
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.infra.repository.specification;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Fluent builder for JPA {@link Specification}s that only emits predicates for values that are actually set.
+ * <p>
+ * Every method is a no-op for a null (or blank/empty) value, so callers can pass optional request
+ * filters straight through. Unlike the {@code (:p IS NULL OR col = :p)} JPQL pattern, the resulting
+ * SQL differs per filter combination and PostgreSQL can plan each shape against the right index.
+ * Attribute names may be dotted paths, e.g. {@code "owner.id"}.
+ */
+public final class SpecificationBuilder<T> {
+    
+    private static final char LIKE_ESCAPE = '\\';
+    
+    private final List<Specification<T>> specifications = new ArrayList<>();
+    
+    private SpecificationBuilder() {
+    }
+    
+    public static <T> SpecificationBuilder<T> create() {
+        return new SpecificationBuilder<>();
+    }
+    
+    public SpecificationBuilder<T> equal(String attribute, Object value) {
+        if (value != null) {
+            specifications.add((root, query, cb) -> cb.equal(path(root, attribute), value));
+        }
+        return this;
+    }
+    
+    public SpecificationBuilder<T> in(String attribute, Collection<?> values) {
+        if (values != null && !values.isEmpty()) {
+            specifications.add((root, query, cb) -> path(root, attribute).in(values));
+        }
+        return this;
+    }
+    
+    public <Y extends Comparable<? super Y>> SpecificationBuilder<T> atLeast(String attribute, Y value) {
+        if (value != null) {
+            specifications.add((root, query, cb) -> cb.greaterThanOrEqualTo(path(root, attribute), value));
+        }
+        return this;
+    }
+    
+    public <Y extends Comparable<? super Y>> SpecificationBuilder<T> atMost(String attribute, Y value) {
+        if (value != null) {
+            specifications.add((root, query, cb) -> cb.lessThanOrEqualTo(path(root, attribute), value));
+        }
+        return this;
+    }
+    
+    /**
+     * Case-insensitive substring match of {@code term} against any of the given attributes
+     */
+    public SpecificationBuilder<T> containsIgnoreCase(String term, String... attributes) {
+        if (term != null && !term.isBlank() && attributes.length > 0) {
+            String pattern = "%" + escapeLike(term.trim().toLowerCase(Locale.ROOT)) + "%";
+            specifications.add((root, query, cb) -> {
+                Predicate[] matches = new Predicate[attributes.length];
+                for (int i = 0; i < attributes.length; i++) {
+                    Expression<String> column = cb.lower(path(root, attributes[i]));
+                    matches[i] = cb.like(column, pattern, LIKE_ESCAPE);
+                }
+                return cb.or(matches);
+            });
+        }
+        return this;
+    }
+    
+    /**
+     * Add an arbitrary specification (ignored when null)
+     */
+    public SpecificationBuilder<T> and(Specification<T> specification) {
+        if (specification != null) {
+            specifications.add(specification);
+        }
+        return this;
+    }
+    
+    /**
+     * Conjunction of everything added; matches all rows when nothing was added
+     */
+    public Specification<T> build() {
+        List<Specification<T>> parts = List.copyOf(specifications);
+        return (root, query, cb) -> {
+            if (parts.isEmpty()) {
+                return null;
+            }
+            Predicate[] predicates = new Predicate[parts.size()];
+            for (int i = 0; i < parts.size(); i++) {
+                predicates[i] = parts.get(i).toPredicate(root, query, cb);
+            }
+            return cb.and(predicates);
+        };
+    }
+    
+    private static <Y> Path<Y> path(Root<?> root, String attribute) {
+        Path<?> path = root;
+        for (String part : attribute.split("\\.")) {
+            path = path.get(part);
+        }
+        @SuppressWarnings("unchecked")
+        Path<Y> typed = (Path<Y>) path;
+        return typed;
+    }
+    
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,9 @@
+-- V10: Covering index for the revenue forecast (close date range grouped by owner, stage and month)
+
+-- Carries every column the forecast reads so a quarter is an index-only range scan.
+-- Built without blocking opportunity writes; Flyway runs CONCURRENTLY statements outside a transaction.
+CREATE INDEX CONCURRENTLY idx_opportunities_close_date_forecast ON opportunities(close_date)
+    INCLUDE (owner_id, stage, amount, probability);
+
+-- Superseded by idx_opportunities_close_date_forecast (same key column)
+DROP INDEX CONCURRENTLY IF EXISTS idx_opportunities_close_date;
@@ -0,0 +1,80 @@
+-- V12: Daily activity counts per user, type and status, fed by activity write triggers
+
+-- Keyed by day first so report ranges are a primary key range scan.
+-- Only the compaction job (ActivityRollupMaintenance) and reconciliation write these rows.
+CREATE TABLE activity_rollups (
+    activity_day DATE NOT NULL,
+    user_id BIGINT NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    activity_count INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (activity_day, user_id, type, status)
+);
+
+-- Seed rollups from existing activities
+INSERT INTO activity_rollups (activity_day, user_id, type, status, activity_count)
+SELECT activity_date::date, user_id, type, status, COUNT(*)
+FROM activities
+GROUP BY activity_date::date, user_id, type, status;
+
+-- Signed changes not yet folded into activity_rollups. Activity writes only ever insert here, so
+-- statements touching many activities (bulk and cascade deletes) never wait on each other for a
+-- rollup row and cannot deadlock on rollups.
+CREATE TABLE activity_rollup_deltas (
+    id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    activity_day DATE NOT NULL,
+    user_id BIGINT NOT NULL,
+    type VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    delta INTEGER NOT NULL
+);
+
+-- One delta row per changed rollup key per statement
+CREATE OR REPLACE FUNCTION record_activity_rollup_deltas()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO activity_rollup_deltas (activity_day, user_id, type, status, delta)
+        SELECT activity_date::date, user_id, type, status, COUNT(*)
+        FROM new_activities
+        GROUP BY activity_date::date, user_id, type, status;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO activity_rollup_deltas (activity_day, user_id, type, status, delta)
+        SELECT activity_date::date, user_id, type, status, -COUNT(*)
+        FROM old_activities
+        GROUP BY activity_date::date, user_id, type, status;
+    ELSE
+        INSERT INTO activity_rollup_deltas (activity_day, user_id, type, status, delta)
+        SELECT activity_day, user_id, type, status, SUM(delta)
+        FROM (
+            SELECT o.activity_date::date AS activity_day, o.user_id, o.type, o.status, -1 AS delta
+            FROM old_activities o JOIN new_activities n ON n.id = o.id
+            WHERE (n.activity_date::date, n.user_id, n.type, n.status)
+                IS DISTINCT FROM (o.activity_date::date, o.user_id, o.type, o.status)
+            UNION ALL
+            SELECT n.activity_date::date, n.user_id, n.type, n.status, 1
+            FROM old_activities o JOIN new_activities n ON n.id = o.id
+            WHERE (n.activity_date::date, n.user_id, n.type, n.status)
+                IS DISTINCT FROM (o.activity_date::date, o.user_id, o.type, o.status)
+        ) changes
+        GROUP BY activity_day, user_id, type, status
+        HAVING SUM(delta) <> 0;
+    END IF;
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+-- Transition tables cannot be combined with several events or a column list, hence three triggers
+CREATE TRIGGER record_activity_rollup_deltas_insert
+    AFTER INSERT ON activities REFERENCING NEW TABLE AS new_activities
+    FOR EACH STATEMENT EXECUTE FUNCTION record_activity_rollup_deltas();
+
+CREATE TRIGGER record_activity_rollup_deltas_update
+    AFTER UPDATE ON activities REFERENCING OLD TABLE AS old_activities NEW TABLE AS new_activities
+    FOR EACH STATEMENT EXECUTE FUNCTION record_activity_rollup_deltas();
+
+CREATE TRIGGER record_activity_rollup_deltas_delete
+    AFTER DELETE ON activities REFERENCING OLD TABLE AS old_activities
+    FOR EACH STATEMENT EXECUTE FUNCTION record_activity_rollup_deltas();
+
+COMMENT ON TABLE activity_rollups IS 'Daily activity counts, folded from activity_rollup_deltas and periodically reconciled against activities';
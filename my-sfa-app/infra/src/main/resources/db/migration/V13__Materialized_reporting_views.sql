@@ -0,0 +1,72 @@
+-- V13: Materialize the reporting views and track when they need refreshing
+
+-- Same columns as the V3 view plus owner_id, so reports are index lookups on pre-joined rows
+DROP VIEW v_active_leads;
+
+CREATE MATERIALIZED VIEW v_active_leads AS
+SELECT
+    l.id,
+    l.owner_id,
+    l.company_name,
+    l.contact_name,
+    l.email,
+    l.phone,
+    l.status,
+    l.source,
+    l.created_at,
+    l.updated_at,
+    u.first_name as owner_first_name,
+    u.last_name as owner_last_name,
+    u.email as owner_email
+FROM leads l
+JOIN users u ON l.owner_id = u.id
+WHERE l.status NOT IN ('LOST', 'CONVERTED');
+
+-- REFRESH ... CONCURRENTLY requires a unique index
+CREATE UNIQUE INDEX idx_v_active_leads_id ON v_active_leads(id);
+CREATE INDEX idx_v_active_leads_owner ON v_active_leads(owner_id, status, source);
+
+COMMENT ON MATERIALIZED VIEW v_active_leads IS 'Active leads with owner information for reporting, refreshed when dirty';
+
+-- One row per materialized view: its last refresh and whether an instance is refreshing it
+CREATE TABLE materialized_view_refreshes (
+    view_name VARCHAR(63) PRIMARY KEY,
+    refreshed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    refreshing_since TIMESTAMP,
+    refresh_duration_ms BIGINT
+);
+
+INSERT INTO materialized_view_refreshes (view_name) VALUES ('v_active_leads');
+
+-- Writes to a view's sources since its last refresh, one row per statement. A view is dirty while it has
+-- rows here; the refresh deletes the rows committed before it started, in its own transaction.
+CREATE TABLE materialized_view_changes (
+    id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    view_name VARCHAR(63) NOT NULL,
+    changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_materialized_view_changes_view ON materialized_view_changes(view_name);
+
+-- Record a change of the views named in the trigger arguments, once per write statement.
+-- Appending never waits on other writers, and the row commits or rolls back with the write itself,
+-- so every committed write stays recorded until a refresh that includes it.
+CREATE OR REPLACE FUNCTION mark_materialized_views_dirty()
+RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO materialized_view_changes (view_name)
+    SELECT unnest(TG_ARGV);
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER mark_v_active_leads_dirty_on_leads
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON leads
+    FOR EACH STATEMENT EXECUTE FUNCTION mark_materialized_views_dirty('v_active_leads');
+
+CREATE TRIGGER mark_v_active_leads_dirty_on_users
+    AFTER UPDATE OF first_name, last_name, email OR DELETE OR TRUNCATE ON users
+    FOR EACH STATEMENT EXECUTE FUNCTION mark_materialized_views_dirty('v_active_leads');
+
+COMMENT ON TABLE materialized_view_refreshes IS 'Last refresh of the materialized reporting views';
+COMMENT ON TABLE materialized_view_changes IS 'Writes to the sources of the materialized reporting views not yet refreshed';
@@ -0,0 +1,24 @@
+-- V14: Token version for shared JWT revocation
+-- Every token carries the version of its user at login; the JWT filter refuses tokens whose version
+-- no longer matches. Raising it revokes all of the user's tokens on every instance.
+-- Adding a NOT NULL column with a constant default does not rewrite the table.
+ALTER TABLE users ADD COLUMN token_version INTEGER NOT NULL DEFAULT 0;
+
+-- The application raises the version itself when it changes a role or the active flag (keeping its
+-- second-level cache current). Changes made outside it, e.g. from a SQL console, are caught here.
+CREATE OR REPLACE FUNCTION bump_user_token_version()
+RETURNS TRIGGER AS $$
+BEGIN
+    NEW.token_version := OLD.token_version + 1;
+    RETURN NEW;
+END;
+$$ language 'plpgsql';
+
+CREATE TRIGGER bump_user_token_version
+    BEFORE UPDATE OF role, active ON users
+    FOR EACH ROW
+    WHEN ((OLD.role IS DISTINCT FROM NEW.role OR OLD.active IS DISTINCT FROM NEW.active)
+          AND NEW.token_version = OLD.token_version)
+    EXECUTE FUNCTION bump_user_token_version();
+
+COMMENT ON COLUMN users.token_version IS 'Raised on role or active changes; JWTs issued under an older version are refused';
@@ -0,0 +1,25 @@
+-- V15: Bulk lead import jobs, so any instance can report an import's progress and jobs outlive restarts
+
+CREATE TABLE lead_import_jobs (
+    id VARCHAR(36) PRIMARY KEY,
+    file_name VARCHAR(255),
+    format VARCHAR(10) NOT NULL,
+    submitted_by VARCHAR(255) NOT NULL,
+    state VARCHAR(20) NOT NULL CHECK (state IN ('QUEUED', 'RUNNING', 'COMPLETED', 'FAILED')),
+    message TEXT,
+    rows_read BIGINT NOT NULL DEFAULT 0,
+    rows_imported BIGINT NOT NULL DEFAULT 0,
+    rows_rejected BIGINT NOT NULL DEFAULT 0,
+    -- JSON array of the first rejected rows: [{"row": 3, "message": "..."}]
+    errors TEXT,
+    submitted_at TIMESTAMP NOT NULL,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    -- Refreshed by the instance running the job; an unfinished job whose heartbeat stops was interrupted
+    heartbeat_at TIMESTAMP NOT NULL
+);
+
+-- Expiry of finished jobs
+CREATE INDEX idx_lead_import_jobs_finished ON lead_import_jobs(finished_at) WHERE finished_at IS NOT NULL;
+
+COMMENT ON TABLE lead_import_jobs IS 'Bulk lead import jobs and their progress, kept for an hour after they finish';
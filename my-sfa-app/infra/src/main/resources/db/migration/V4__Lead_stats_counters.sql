@@ -0,0 +1,89 @@
+-- V4: Lead statistics counters, maintained only while app.leads.stats.use-counters is on
+
+-- One row per (dimension, bucket): TOTAL/ALL, STATUS/<status>, SOURCE/<source>.
+-- Only the compaction job (LeadStatsCounterMaintenance) writes these rows.
+CREATE TABLE lead_stats_counters (
+    dimension VARCHAR(20) NOT NULL CHECK (dimension IN ('TOTAL', 'STATUS', 'SOURCE')),
+    bucket VARCHAR(50) NOT NULL,
+    lead_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (dimension, bucket)
+);
+
+-- Signed changes not yet folded into lead_stats_counters. Lead writes only ever insert here, so they
+-- never wait on each other for a counter row and cannot deadlock on counters.
+CREATE TABLE lead_stats_counter_deltas (
+    id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    dimension VARCHAR(20) NOT NULL,
+    bucket VARCHAR(50) NOT NULL,
+    delta BIGINT NOT NULL
+);
+
+-- Single-row switch. The triggers do nothing while it is off; the application turns it on (rebuilding
+-- the counters from leads) or off at startup to match app.leads.stats.use-counters.
+CREATE TABLE lead_stats_counter_state (
+    id SMALLINT PRIMARY KEY CHECK (id = 1),
+    enabled BOOLEAN NOT NULL DEFAULT FALSE,
+    rebuilt_at TIMESTAMP
+);
+
+INSERT INTO lead_stats_counter_state (id) VALUES (1);
+
+-- One delta row per changed (dimension, bucket) per statement, so a 1000-row import adds a handful of
+-- rows rather than touching counters 1000 times.
+CREATE OR REPLACE FUNCTION record_lead_stats_deltas()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF NOT (SELECT enabled FROM lead_stats_counter_state WHERE id = 1) THEN
+        RETURN NULL;
+    END IF;
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO lead_stats_counter_deltas (dimension, bucket, delta)
+        SELECT 'TOTAL', 'ALL', COUNT(*) FROM new_leads HAVING COUNT(*) > 0
+        UNION ALL
+        SELECT 'STATUS', status, COUNT(*) FROM new_leads GROUP BY status
+        UNION ALL
+        SELECT 'SOURCE', source, COUNT(*) FROM new_leads WHERE source IS NOT NULL GROUP BY source;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO lead_stats_counter_deltas (dimension, bucket, delta)
+        SELECT 'TOTAL', 'ALL', -COUNT(*) FROM old_leads HAVING COUNT(*) > 0
+        UNION ALL
+        SELECT 'STATUS', status, -COUNT(*) FROM old_leads GROUP BY status
+        UNION ALL
+        SELECT 'SOURCE', source, -COUNT(*) FROM old_leads WHERE source IS NOT NULL GROUP BY source;
+    ELSE
+        INSERT INTO lead_stats_counter_deltas (dimension, bucket, delta)
+        SELECT dimension, bucket, SUM(delta)
+        FROM (
+            SELECT 'STATUS' AS dimension, o.status AS bucket, -1 AS delta
+            FROM old_leads o JOIN new_leads n ON n.id = o.id WHERE n.status IS DISTINCT FROM o.status
+            UNION ALL
+            SELECT 'STATUS', n.status, 1
+            FROM old_leads o JOIN new_leads n ON n.id = o.id WHERE n.status IS DISTINCT FROM o.status
+            UNION ALL
+            SELECT 'SOURCE', o.source, -1
+            FROM old_leads o JOIN new_leads n ON n.id = o.id WHERE n.source IS DISTINCT FROM o.source AND o.source IS NOT NULL
+            UNION ALL
+            SELECT 'SOURCE', n.source, 1
+            FROM old_leads o JOIN new_leads n ON n.id = o.id WHERE n.source IS DISTINCT FROM o.source AND n.source IS NOT NULL
+        ) changes
+        GROUP BY dimension, bucket
+        HAVING SUM(delta) <> 0;
+    END IF;
+    RETURN NULL;
+END;
+$$ language 'plpgsql';
+
+-- Transition tables cannot be combined with several events or a column list, hence three triggers
+CREATE TRIGGER record_lead_stats_deltas_insert
+    AFTER INSERT ON leads REFERENCING NEW TABLE AS new_leads
+    FOR EACH STATEMENT EXECUTE FUNCTION record_lead_stats_deltas();
+
+CREATE TRIGGER record_lead_stats_deltas_update
+    AFTER UPDATE ON leads REFERENCING OLD TABLE AS old_leads NEW TABLE AS new_leads
+    FOR EACH STATEMENT EXECUTE FUNCTION record_lead_stats_deltas();
+
+CREATE TRIGGER record_lead_stats_deltas_delete
+    AFTER DELETE ON leads REFERENCING OLD TABLE AS old_leads
+    FOR EACH STATEMENT EXECUTE FUNCTION record_lead_stats_deltas();
+
+COMMENT ON TABLE lead_stats_counters IS 'Lead counts by status and source, folded from lead_stats_counter_deltas';
@@ -0,0 +1,5 @@
+-- V5: Index backing keyset (seek) pagination of the lead list
+
+-- Matches ORDER BY created_at DESC, id DESC so every cursor page is a bounded index range scan.
+-- Built without blocking lead writes; Flyway runs CONCURRENTLY statements outside a transaction.
+CREATE INDEX CONCURRENTLY idx_leads_created_id ON leads(created_at DESC, id DESC);
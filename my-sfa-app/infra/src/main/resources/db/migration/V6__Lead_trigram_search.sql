@@ -0,0 +1,16 @@
+-- V6: Trigram indexes for substring lead search
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- GIN trigram indexes serve LOWER(col) LIKE '%term%' (leading wildcard) and similarity ranking.
+-- Expressions match the LOWER(...) predicates emitted by both the JPQL filters and the ranked search query.
+-- Built and dropped concurrently so lead writes are not blocked (see the .conf: no transaction).
+CREATE INDEX CONCURRENTLY idx_leads_company_name_trgm ON leads USING GIN (LOWER(company_name) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY idx_leads_contact_name_trgm ON leads USING GIN (LOWER(contact_name) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY idx_leads_email_trgm ON leads USING GIN (LOWER(email) gin_trgm_ops);
+
+-- Btree LOWER() indexes from V3 cannot serve leading-wildcard LIKE; the trigram indexes replace them
+DROP INDEX CONCURRENTLY IF EXISTS idx_leads_company_name_lower;
+DROP INDEX CONCURRENTLY IF EXISTS idx_leads_contact_name_lower;
+
+ANALYZE leads;
@@ -0,0 +1,24 @@
+-- Sequence-backed ids with Hibernate's pooled optimizer (allocationSize = 50).
+-- IDENTITY generation forces one INSERT round trip per row and disables JDBC batching.
+-- The existing BIGSERIAL sequences are reused: they step by 50 from here on, and each
+-- nextval() hands Hibernate the block (value - 49 .. value]. Raw INSERTs that rely on the
+-- column default take the sequence value itself, which never falls inside a Hibernate block.
+-- Each sequence restarts 50 above the current max id so the first block cannot collide.
+
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+SELECT setval('users_id_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 50);
+
+ALTER SEQUENCE accounts_id_seq INCREMENT BY 50;
+SELECT setval('accounts_id_seq', COALESCE((SELECT MAX(id) FROM accounts), 0) + 50);
+
+ALTER SEQUENCE leads_id_seq INCREMENT BY 50;
+SELECT setval('leads_id_seq', COALESCE((SELECT MAX(id) FROM leads), 0) + 50);
+
+ALTER SEQUENCE contacts_id_seq INCREMENT BY 50;
+SELECT setval('contacts_id_seq', COALESCE((SELECT MAX(id) FROM contacts), 0) + 50);
+
+ALTER SEQUENCE opportunities_id_seq INCREMENT BY 50;
+SELECT setval('opportunities_id_seq', COALESCE((SELECT MAX(id) FROM opportunities), 0) + 50);
+
+ALTER SEQUENCE activities_id_seq INCREMENT BY 50;
+SELECT setval('activities_id_seq', COALESCE((SELECT MAX(id) FROM activities), 0) + 50);
@@ -0,0 +1,5 @@
+-- Row version for leads, incremented by Hibernate (@Version) and by the bulk update statements.
+-- Together with updated_at it validates cached copies of a lead (ETag / Last-Modified).
+-- The constant default fills existing rows without rewriting the table.
+
+ALTER TABLE leads ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,8 @@
+-- V9: Covering index for the pipeline report (GROUP BY owner and stage)
+
+-- Carries amount and probability so the grouped scan never visits the table.
+-- Built without blocking opportunity writes; Flyway runs CONCURRENTLY statements outside a transaction.
+CREATE INDEX CONCURRENTLY idx_opportunities_owner_stage_amounts ON opportunities(owner_id, stage) INCLUDE (amount, probability);
+
+-- Superseded by idx_opportunities_owner_stage_amounts (same key columns)
+DROP INDEX CONCURRENTLY IF EXISTS idx_opportunities_owner_stage;
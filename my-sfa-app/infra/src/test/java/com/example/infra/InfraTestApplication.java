@@ -0,0 +1,15 @@
+package com.example.infra;
+
+import com.example.infra.config.JpaConfig;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Minimal boot configuration for repository slice tests in the infra module
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@Import(JpaConfig.class)
+public class InfraTestApplication {
+}
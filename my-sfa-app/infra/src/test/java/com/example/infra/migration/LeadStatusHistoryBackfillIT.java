@@ -0,0 +1,76 @@
+package com.example.infra.migration;
+
+import com.example.core.domain.Lead;
+import com.example.core.domain.LeadStatusHistory;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * V11 gives every lead that exists at migration time one creation row in its current status
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class LeadStatusHistoryBackfillIT {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Test
+    void shouldBackfillOneCreationRowPerLead() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        migrate(dataSource, "10");
+        // Alongside the V2 sample leads: every status, and a lead without a source
+        LocalDateTime created = LocalDateTime.of(2024, 3, 1, 9, 30);
+        for (Lead.Status status : Lead.Status.values()) {
+            jdbcTemplate.update("INSERT INTO leads (company_name, contact_name, email, status, source, owner_id, created_at) " +
+                            "SELECT ?, 'Backfill Contact', 'backfill@example.com', ?, ?, MIN(id), ? FROM users",
+                    "Backfill " + status, status.name(), status == Lead.Status.LOST ? null : Lead.Source.TRADE_SHOW.name(),
+                    Timestamp.valueOf(created));
+        }
+        migrate(dataSource, "11");
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT l.status, l.source, l.owner_id AS lead_owner, l.created_at, " +
+                "h.owner_id, h.changed_at, h.from_status, h.to_status, h.source AS source_code " +
+                "FROM leads l LEFT JOIN lead_status_history h ON h.lead_id = l.id");
+        assertThat(rows).hasSizeGreaterThan(Lead.Status.values().length);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM lead_status_history", Long.class))
+                .isEqualTo(rows.size());
+        for (Map<String, Object> row : rows) {
+            assertThat(row.get("owner_id")).isEqualTo(row.get("lead_owner"));
+            assertThat(row.get("changed_at")).isEqualTo(row.get("created_at"));
+            assertThat(row.get("from_status")).isNull();
+            assertThat(((Number) row.get("to_status")).shortValue())
+                    .isEqualTo(LeadStatusHistory.code(Lead.Status.valueOf((String) row.get("status"))));
+            if (row.get("source") == null) {
+                assertThat(row.get("source_code")).isNull();
+            } else {
+                assertThat(((Number) row.get("source_code")).shortValue())
+                        .isEqualTo(LeadStatusHistory.code(Lead.Source.valueOf((String) row.get("source"))));
+            }
+        }
+    }
+
+    private void migrate(DriverManagerDataSource dataSource, String target) {
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .target(target)
+                .load()
+                .migrate();
+    }
+}
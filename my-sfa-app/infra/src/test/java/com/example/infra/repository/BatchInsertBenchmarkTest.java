@@ -0,0 +1,120 @@
+package com.example.infra.repository;
+
+import com.example.core.domain.Activity;
+import com.example.core.domain.Lead;
+import com.example.core.domain.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Insert batching for leads and activities. The regular test guards against a mapping that silently
+ * disables JDBC batching (e.g. IDENTITY ids); the throughput run is opt-in: {@code -Dbenchmark=true}.
+ */
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+    "spring.jpa.properties.hibernate.order_inserts=true",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class BatchInsertBenchmarkTest {
+
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = User.builder()
+                .email("bench@example.com")
+                .password("x")
+                .firstName("Bench")
+                .lastName("User")
+                .role(User.Role.SALES_REP)
+                .build();
+        entityManager.persist(owner);
+        entityManager.flush();
+    }
+
+    @Test
+    void shouldBatchLeadAndActivityInserts() {
+        int rows = 500;
+
+        statistics.clear();
+        insert(rows);
+
+        // Unbatched inserts prepare one statement per row; batched ones roughly one per batch,
+        // plus one sequence call per pooled block of ids
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(2L * rows);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4L * rows / BATCH_SIZE + 4);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkBatchInsertThroughput() {
+        int rows = 10_000;
+
+        // Warm up the JIT and connection
+        insert(rows);
+
+        for (int run = 1; run <= 3; run++) {
+            statistics.clear();
+            long start = System.nanoTime();
+            insert(rows);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("run %d: %d leads + %d activities in %.3fs (%.0f rows/s), %d statements prepared%n",
+                    run, rows, rows, seconds, 2 * rows / seconds, statistics.getPrepareStatementCount());
+        }
+    }
+
+    private void insert(int rows) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < rows; i++) {
+            Lead lead = Lead.builder()
+                    .companyName("Company " + i)
+                    .contactName("Contact " + i)
+                    .email("contact" + i + "@example.com")
+                    .source(Lead.Source.TRADE_SHOW)
+                    .owner(owner)
+                    .build();
+            entityManager.persist(lead);
+
+            entityManager.persist(Activity.builder()
+                    .type(Activity.Type.CALL)
+                    .subject("Follow up " + i)
+                    .activityDate(now)
+                    .user(owner)
+                    .lead(lead)
+                    .build());
+
+            if ((i + 1) % BATCH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+                owner = entityManager.getReference(User.class, owner.getId());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        owner = entityManager.getReference(User.class, owner.getId());
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.infra.repository;
+
+import com.example.core.domain.Activity;
+import com.example.core.domain.Lead;
+import com.example.core.domain.User;
+import com.example.infra.repository.projection.LeadListFingerprint;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk lead changes must run as single set-based statements, whatever the number of leads
+ */
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.example.infra.repository.LeadBulkOperationsTest$CapturingInspector"
+})
+class LeadBulkOperationsTest {
+
+    @Autowired
+    private LeadRepository leadRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User owner;
+    private User otherOwner;
+    private List<Long> tradeShowIds;
+
+    @BeforeEach
+    void setUp() {
+        owner = persistUser("owner@example.com");
+        otherOwner = persistUser("other@example.com");
+
+        tradeShowIds = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            Lead lead = persistLead(i, Lead.Status.CONTACTED, Lead.Source.TRADE_SHOW);
+            tradeShowIds.add(lead.getId());
+            entityManager.persist(Activity.builder()
+                    .type(Activity.Type.CALL)
+                    .subject("Call " + i)
+                    .activityDate(LocalDateTime.now())
+                    .user(owner)
+                    .lead(lead)
+                    .build());
+        }
+        for (int i = 0; i < 30; i++) {
+            persistLead(1000 + i, Lead.Status.CONTACTED, Lead.Source.WEBSITE);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        CapturingInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void shouldUpdateFilteredLeadsInOneStatement() {
+        LeadFilter filter = LeadFilter.builder().status(Lead.Status.CONTACTED).source(Lead.Source.TRADE_SHOW).build();
+
+        int updated = leadRepository.bulkUpdate(filter, LeadBulkUpdate.builder().status(Lead.Status.LOST).build());
+
+        assertThat(updated).isEqualTo(120);
+        assertThat(statements("update")).hasSize(1);
+        // The previous statuses of the moved leads, read and locked once for the status history
+        assertThat(statements("select")).singleElement()
+                .satisfies(sql -> assertThat(sql.toLowerCase(Locale.ROOT)).contains("for update"));
+        assertThat(leadRepository.countLeads(LeadFilter.builder().status(Lead.Status.LOST).build())).isEqualTo(120);
+        assertThat(leadRepository.countLeads(LeadFilter.builder().status(Lead.Status.CONTACTED).build())).isEqualTo(30);
+    }
+
+    @Test
+    void shouldReassignOwnerByIdsInOneStatement() {
+        List<Long> ids = tradeShowIds.subList(0, 50);
+
+        int updated = leadRepository.bulkUpdate(ids, LeadBulkUpdate.builder()
+                .ownerId(otherOwner.getId())
+                .source(Lead.Source.REFERRAL)
+                .build());
+
+        assertThat(updated).isEqualTo(50);
+        assertThat(statements("update")).hasSize(1);
+        assertThat(statements("select")).isEmpty();
+        Lead reassigned = leadRepository.findById(ids.get(0)).orElseThrow();
+        assertThat(reassigned.getOwner().getId()).isEqualTo(otherOwner.getId());
+        assertThat(reassigned.getSource()).isEqualTo(Lead.Source.REFERRAL);
+        assertThat(reassigned.getStatus()).isEqualTo(Lead.Status.CONTACTED);
+    }
+
+    @Test
+    void shouldInvalidateVersionsAndFingerprints() {
+        LeadFilter tradeShows = LeadFilter.builder().source(Lead.Source.TRADE_SHOW).build();
+        LeadListFingerprint before = leadRepository.fingerprint(tradeShows);
+        long version = leadRepository.findById(tradeShowIds.get(0)).orElseThrow().getVersion();
+        entityManager.clear();
+
+        leadRepository.bulkUpdate(tradeShowIds.subList(0, 1), LeadBulkUpdate.builder().status(Lead.Status.QUALIFIED).build());
+
+        assertThat(before.count()).isEqualTo(120);
+        assertThat(leadRepository.findById(tradeShowIds.get(0)).orElseThrow().getVersion()).isEqualTo(version + 1);
+        assertThat(leadRepository.fingerprint(tradeShows)).isNotEqualTo(before);
+    }
+
+    @Test
+    void shouldDeleteFilteredLeadsWithTheirActivities() {
+        int deleted = leadRepository.bulkDelete(LeadFilter.builder().source(Lead.Source.TRADE_SHOW).build());
+
+        assertThat(deleted).isEqualTo(120);
+        assertThat(statements("delete")).hasSize(2);
+        assertThat(leadRepository.count()).isEqualTo(30);
+        assertThat(entityManager.createQuery("SELECT COUNT(a) FROM Activity a", Long.class).getSingleResult()).isZero();
+    }
+
+    private List<String> statements(String verb) {
+        return CapturingInspector.STATEMENTS.stream()
+                .filter(sql -> sql.toLowerCase(Locale.ROOT).startsWith(verb))
+                .toList();
+    }
+
+    private User persistUser(String email) {
+        User user = User.builder()
+                .email(email)
+                .password("x")
+                .firstName("Test")
+                .lastName("User")
+                .role(User.Role.SALES_REP)
+                .build();
+        entityManager.persist(user);
+        return user;
+    }
+
+    private Lead persistLead(int i, Lead.Status status, Lead.Source source) {
+        Lead lead = Lead.builder()
+                .companyName("Company " + i)
+                .contactName("Contact " + i)
+                .email("contact" + i + "@example.com")
+                .status(status)
+                .source(source)
+                .owner(owner)
+                .build();
+        entityManager.persist(lead);
+        return lead;
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.infra.repository;
+
+import com.example.core.domain.Lead;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * PATCH bodies: recognized fields in any case, unknown fields ignored, bad values rejected up front
+ */
+class LeadPatchTest {
+
+    @Test
+    void shouldApplyRecognizedFieldsAndIgnoreUnknownOnes() {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("companyName", "Acme Corp");
+        updates.put("STATUS", "CONTACTED");
+        updates.put("source", "REFERRAL");
+        updates.put("notes", 42);
+        updates.put("tags", List.of("vip"));
+        Lead lead = lead();
+
+        LeadPatch.from(updates).accept(lead);
+
+        assertThat(lead.getCompanyName()).isEqualTo("Acme Corp");
+        assertThat(lead.getStatus()).isEqualTo(Lead.Status.CONTACTED);
+        assertThat(lead.getSource()).isEqualTo(Lead.Source.REFERRAL);
+        assertThat(lead.getContactName()).isEqualTo("Jane Doe");
+    }
+
+    @Test
+    void shouldClearFieldsSentAsNull() {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("phone", null);
+        updates.put("source", null);
+        Lead lead = lead();
+
+        LeadPatch.from(updates).accept(lead);
+
+        assertThat(lead.getPhone()).isNull();
+        assertThat(lead.getSource()).isNull();
+        assertThat(lead.getStatus()).isEqualTo(Lead.Status.NEW);
+    }
+
+    @Test
+    void shouldRejectBadValuesOfRecognizedFields() {
+        assertThatThrownBy(() -> LeadPatch.from(Map.of("email", 42)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("email");
+        assertThatThrownBy(() -> LeadPatch.from(Map.of("status", List.of("NEW"))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LeadPatch.from(Map.of("source", "BILLBOARD")))
+                .isInstanceOf(IllegalArgumentException.class);
+        Map<String, Object> nullStatus = new HashMap<>();
+        nullStatus.put("status", null);
+        assertThatThrownBy(() -> LeadPatch.from(nullStatus))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Lead lead() {
+        return Lead.builder()
+                .companyName("Acme")
+                .contactName("Jane Doe")
+                .email("jane@acme.example.com")
+                .phone("555-0100")
+                .status(Lead.Status.NEW)
+                .source(Lead.Source.WEBSITE)
+                .build();
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.infra.repository;
+
+import com.example.core.domain.Lead;
+import com.example.core.domain.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Single-lead updates write only the changed columns and never over a newer version
+ */
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.example.infra.repository.LeadUpdateTest$CapturingInspector"
+})
+class LeadUpdateTest {
+
+    @Autowired
+    private LeadRepository leadRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Long leadId;
+    private long version;
+
+    @BeforeEach
+    void setUp() {
+        User owner = User.builder()
+                .email("owner@example.com")
+                .password("x")
+                .firstName("Test")
+                .lastName("User")
+                .role(User.Role.SALES_REP)
+                .build();
+        entityManager.persist(owner);
+        Lead lead = Lead.builder()
+                .companyName("Acme")
+                .contactName("Jo")
+                .email("jo@acme.example")
+                .status(Lead.Status.NEW)
+                .source(Lead.Source.WEBSITE)
+                .owner(owner)
+                .build();
+        entityManager.persist(lead);
+        entityManager.flush();
+        entityManager.clear();
+        leadId = lead.getId();
+        version = lead.getVersion();
+        CapturingInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void shouldWriteOnlyTheChangedColumns() {
+        Lead updated = leadRepository.update(leadId, version, lead -> {
+            lead.setStatus(Lead.Status.CONTACTED);
+            lead.setCompanyName("Acme");
+        }).orElseThrow();
+
+        assertThat(updated.getVersion()).isEqualTo(version + 1);
+        assertThat(statements("select")).hasSize(1);
+        assertThat(statements("update")).singleElement().satisfies(sql -> assertThat(sql)
+                .contains("status", "updated_at", "version")
+                .doesNotContain("company_name", "contact_name", "email", "owner_id"));
+    }
+
+    @Test
+    void shouldRejectChangesToAnOlderVersion() {
+        leadRepository.update(leadId, version, lead -> lead.setPhone("555-0100"));
+        entityManager.clear();
+
+        assertThatThrownBy(() -> leadRepository.update(leadId, version, lead -> lead.setPhone("555-0199")))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+
+        entityManager.clear();
+        assertThat(leadRepository.findById(leadId).orElseThrow().getPhone()).isEqualTo("555-0100");
+    }
+
+    @Test
+    void shouldApplyChangesToTheCurrentVersionWithoutPrecondition() {
+        leadRepository.update(leadId, version, lead -> lead.setPhone("555-0100"));
+        entityManager.clear();
+
+        Lead updated = leadRepository.update(leadId, null, lead -> lead.setSource(Lead.Source.REFERRAL)).orElseThrow();
+
+        assertThat(updated.getVersion()).isEqualTo(version + 2);
+        assertThat(updated.getPhone()).isEqualTo("555-0100");
+        assertThat(leadRepository.update(-1L, null, lead -> lead.setPhone("x"))).isEmpty();
+    }
+
+    private List<String> statements(String verb) {
+        return CapturingInspector.STATEMENTS.stream()
+                .filter(sql -> sql.toLowerCase(Locale.ROOT).startsWith(verb))
+                .toList();
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
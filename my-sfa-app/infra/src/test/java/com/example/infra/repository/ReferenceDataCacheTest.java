@@ -0,0 +1,124 @@
+package com.example.infra.repository;
+
+import com.example.core.domain.Account;
+import com.example.core.domain.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Second-level caching of users and accounts with the regions from application.conf.
+ * Every repository call runs in its own session, as it does across requests.
+ */
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+    "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+    "spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+    "spring.jpa.properties.hibernate.javax.cache.provider=com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider",
+    // Every region Hibernate needs must be configured
+    "spring.jpa.properties.hibernate.javax.cache.missing_cache_strategy=fail",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReferenceDataCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = userRepository.save(User.builder()
+                .email("cached@example.com")
+                .password("x")
+                .firstName("Cached")
+                .lastName("User")
+                .role(User.Role.SALES_REP)
+                .build());
+        accountRepository.save(Account.builder()
+                .name("Acme")
+                .industry("Manufacturing")
+                .owner(user)
+                .build());
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        accountRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void shouldAnswerNaturalIdLookupsWithoutQueries() {
+        assertThat(userRepository.findByEmail("cached@example.com")).isPresent();
+        assertThat(accountRepository.findByName("Acme")).isPresent();
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(userRepository.findByEmail("cached@example.com")).get()
+                .extracting(User::getFirstName).isEqualTo("Cached");
+        assertThat(accountRepository.findByName("Acme")).get()
+                .extracting(Account::getIndustry).isEqualTo("Manufacturing");
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+        assertThat(statistics.getNaturalIdCacheHitCount()).isGreaterThanOrEqualTo(2);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void shouldSeeWritesThroughTheCache() {
+        userRepository.findByEmail("cached@example.com");
+
+        User changed = userRepository.findById(user.getId()).orElseThrow();
+        changed.setRole(User.Role.MANAGER);
+        changed.setEmail("renamed@example.com");
+        userRepository.save(changed);
+        assertThat(userRepository.findByEmail("cached@example.com")).isEmpty();
+        assertThat(userRepository.findByEmail("renamed@example.com")).get()
+                .extracting(User::getRole).isEqualTo(User.Role.MANAGER);
+
+        // Bulk JPQL updates evict the region
+        userRepository.updatePassword(user.getId(), "rehashed");
+        assertThat(userRepository.findByEmail("renamed@example.com")).get()
+                .extracting(User::getPassword).isEqualTo("rehashed");
+    }
+
+    @Test
+    void shouldCacheQueriesUntilTheTableChanges() {
+        assertThat(userRepository.findAllActiveUsers()).hasSize(1);
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(userRepository.findAllActiveUsers()).hasSize(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+
+        userRepository.save(User.builder()
+                .email("second@example.com")
+                .password("x")
+                .firstName("Second")
+                .lastName("User")
+                .role(User.Role.SALES_REP)
+                .build());
+        assertThat(userRepository.findAllActiveUsers()).hasSize(2);
+    }
+}
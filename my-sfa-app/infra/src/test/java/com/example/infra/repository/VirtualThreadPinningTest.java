@@ -0,0 +1,178 @@
+package com.example.infra.repository;
+
+import com.example.core.domain.Lead;
+import com.example.core.domain.User;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the lead repository paths used by the web tier on virtual threads and fails when JFR reports
+ * a {@code jdk.VirtualThreadPinned} event, i.e. a virtual thread that blocked while holding a monitor
+ * and so kept its carrier thread. Needs a Java 21 runtime: {@code gradle :infra:test -PjavaRelease=21}.
+ */
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.show-sql=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadPinningTest {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int TASKS = 200;
+
+    @Autowired
+    private LeadRepository leadRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder()
+                .email("pinning@example.com")
+                .password("x")
+                .firstName("Pinning")
+                .lastName("User")
+                .role(User.Role.SALES_REP)
+                .build());
+        List<Lead> leads = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            leads.add(Lead.builder()
+                    .companyName("Company " + i)
+                    .contactName("Contact " + i)
+                    .email("contact" + i + "@example.com")
+                    .source(i % 2 == 0 ? Lead.Source.WEBSITE : Lead.Source.REFERRAL)
+                    .owner(owner)
+                    .build());
+        }
+        leadRepository.saveAll(leads);
+    }
+
+    @AfterEach
+    void tearDown() {
+        leadRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void leadRepositoryPathsShouldNotPinCarrierThreads() throws Exception {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        LeadFilter website = LeadFilter.builder().source(Lead.Source.WEBSITE).build();
+        LeadFilter search = LeadFilter.builder().searchTerm("contact1").build();
+
+        List<Runnable> workload = List.of(
+                () -> leadRepository.findLeadSummaries(website, PageRequest.of(0, 20)),
+                () -> leadRepository.findLeadsAfter(search, null, null, 20),
+                () -> leadRepository.countLeads(search),
+                () -> readOnly.executeWithoutResult(status -> {
+                    try (Stream<?> rows = leadRepository.streamLeadSummaries(website, 50)) {
+                        rows.forEach(row -> { });
+                    }
+                }),
+                () -> leadRepository.bulkUpdate(website, LeadBulkUpdate.builder().status(Lead.Status.CONTACTED).build()));
+
+        List<RecordedEvent> pinned = record(() -> {
+            ExecutorService executor = newVirtualThreadPerTaskExecutor();
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < TASKS; i++) {
+                    futures.add(executor.submit(workload.get(i % workload.size())));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+        });
+
+        assertThat(pinned)
+                .withFailMessage("virtual threads pinned while blocking:%n%s", describe(pinned))
+                .isEmpty();
+    }
+
+    /**
+     * Runs the task with a JFR stream open and returns the pinning events recorded meanwhile.
+     * The stream is only closed after a flush that started once the task had finished.
+     */
+    private static List<RecordedEvent> record(ThrowingRunnable task) throws Exception {
+        List<RecordedEvent> events = new CopyOnWriteArrayList<>();
+        AtomicBoolean finished = new AtomicBoolean();
+        CountDownLatch flushed = new CountDownLatch(2);
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+            recording.onEvent(PINNED_EVENT, events::add);
+            recording.onFlush(() -> {
+                if (finished.get()) {
+                    flushed.countDown();
+                }
+            });
+            recording.startAsync();
+
+            task.run();
+            finished.set(true);
+            assertThat(flushed.await(10, TimeUnit.SECONDS)).as("JFR stream flushed").isTrue();
+        }
+        return events;
+    }
+
+    private static String describe(List<RecordedEvent> events) {
+        return events.stream()
+                .map(event -> event.getStackTrace().getFrames().stream()
+                        .limit(12)
+                        .map(VirtualThreadPinningTest::frame)
+                        .collect(Collectors.joining("\n    at ", "  pinned:\n    at ", "")))
+                .distinct()
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static String frame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+
+    // Java 21 API, looked up reflectively so the module still compiles for Java 17
+    private static ExecutorService newVirtualThreadPerTaskExecutor() throws ReflectiveOperationException {
+        return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.infra.repository.specification;
+
+import com.example.core.domain.Lead;
+import com.example.infra.repository.LeadFilter;
+import com.example.infra.repository.LeadRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that each lead filter combination produces SQL containing exactly the supplied predicates
+ */
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "com.example.infra.repository.specification.LeadSpecificationsSqlTest$CapturingInspector"
+})
+class LeadSpecificationsSqlTest {
+
+    private static final int STATUS = 1;
+    private static final int SOURCE = 1 << 1;
+    private static final int START = 1 << 2;
+    private static final int END = 1 << 3;
+    private static final int SEARCH = 1 << 4;
+
+    @Autowired
+    private LeadRepository leadRepository;
+
+    @BeforeEach
+    void clearCapturedSql() {
+        CapturingInspector.STATEMENTS.clear();
+    }
+
+    static IntStream filterCombinations() {
+        return IntStream.range(0, 1 << 5);
+    }
+
+    @ParameterizedTest(name = "filter mask {0}")
+    @MethodSource("filterCombinations")
+    void shouldEmitOnlySuppliedPredicates(int mask) {
+        LeadFilter filter = LeadFilter.builder()
+                .status(has(mask, STATUS) ? Lead.Status.NEW : null)
+                .source(has(mask, SOURCE) ? Lead.Source.WEBSITE : null)
+                .startDate(has(mask, START) ? LocalDateTime.now().minusDays(7) : null)
+                .endDate(has(mask, END) ? LocalDateTime.now() : null)
+                .searchTerm(has(mask, SEARCH) ? "acme" : null)
+                .build();
+
+        leadRepository.findAll(LeadSpecifications.matching(filter));
+
+        String where = whereClause(lastSelect());
+
+        assertThat(where).doesNotContain("is null");
+        assertThat(where.contains(".status=?")).isEqualTo(has(mask, STATUS));
+        assertThat(where.contains(".source=?")).isEqualTo(has(mask, SOURCE));
+        assertThat(where.contains(".created_at>=?")).isEqualTo(has(mask, START));
+        assertThat(where.contains(".created_at<=?")).isEqualTo(has(mask, END));
+        assertThat(where.contains("lower(")).isEqualTo(has(mask, SEARCH));
+        if (has(mask, SEARCH)) {
+            assertThat(where).contains("company_name", "contact_name", "email");
+        }
+        if (mask == 0) {
+            assertThat(where).isEmpty();
+        }
+    }
+
+    @ParameterizedTest(name = "filter mask {0}")
+    @MethodSource("filterCombinations")
+    void shouldEmitSamePredicatesForKeysetPage(int mask) {
+        LeadFilter filter = LeadFilter.builder()
+                .status(has(mask, STATUS) ? Lead.Status.QUALIFIED : null)
+                .source(has(mask, SOURCE) ? Lead.Source.REFERRAL : null)
+                .startDate(has(mask, START) ? LocalDateTime.now().minusDays(7) : null)
+                .endDate(has(mask, END) ? LocalDateTime.now() : null)
+                .searchTerm(has(mask, SEARCH) ? "acme" : null)
+                .build();
+
+        leadRepository.findLeadsAfter(filter, LocalDateTime.now(), 100L, 20);
+
+        String where = whereClause(lastSelect());
+
+        assertThat(where).doesNotContain("is null");
+        assertThat(where.contains(".status=?")).isEqualTo(has(mask, STATUS));
+        assertThat(where.contains(".source=?")).isEqualTo(has(mask, SOURCE));
+        assertThat(where.contains(".created_at>=?")).isEqualTo(has(mask, START));
+        assertThat(where.contains("lower(")).isEqualTo(has(mask, SEARCH));
+        assertThat(where).contains(".id<?");
+    }
+
+    private static boolean has(int mask, int flag) {
+        return (mask & flag) != 0;
+    }
+
+    private static String lastSelect() {
+        List<String> selects = CapturingInspector.STATEMENTS.stream()
+                .filter(sql -> sql.toLowerCase(Locale.ROOT).startsWith("select"))
+                .toList();
+        assertThat(selects).isNotEmpty();
+        return selects.get(selects.size() - 1).toLowerCase(Locale.ROOT);
+    }
+
+    private static String whereClause(String sql) {
+        int where = sql.indexOf(" where ");
+        if (where < 0) {
+            return "";
+        }
+        int orderBy = sql.indexOf(" order by ", where);
+        return orderBy < 0 ? sql.substring(where) : sql.substring(where, orderBy);
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql.replaceAll("\\s+", " ").trim());
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+// Load generator, run against an application started separately
+tasks.bootJar {
+    enabled = false
+}
+
+dependencies {
+    implementation("com.fasterxml.jackson.core:jackson-databind")
+    implementation("org.hdrhistogram:HdrHistogram:2.2.2")
+}
+
+// ./gradlew :loadtest:loadTest --args="--base-url=http://localhost:8080 --rps=50 --duration=60s"
+// Options and defaults are listed in LoadTestConfig
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Replays the lead API workload against a running application and reports latency percentiles"
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass = "com.example.loadtest.LoadTest"
+}
@@ -0,0 +1,57 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and status codes of one operation. Latency runs from the scheduled arrival, not the
+ * send, so queueing in the generator or the server counts against the endpoint.
+ */
+public class EndpointStats {
+    
+    /** Status recorded for requests that failed without a response */
+    static final int NO_RESPONSE = 0;
+    
+    private final Histogram latencyMicros = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(5), 3);
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LongAdder errors = new LongAdder();
+    
+    public void record(long latencyNanos, int status) {
+        latencyMicros.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), latencyMicros.getHighestTrackableValue()));
+        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+        if (status < 200 || status >= 400) {
+            errors.increment();
+        }
+    }
+    
+    public long count() {
+        return latencyMicros.getTotalCount();
+    }
+    
+    public String reportLine(Operation operation) {
+        Map<Integer, Long> codes = new TreeMap<>();
+        statuses.forEach((status, count) -> codes.put(status, count.sum()));
+        return String.format("%-8s %9d %7d %9.1f %9.1f %9.1f %9.1f  %s",
+                operation, count(), errors.sum(),
+                millis(latencyMicros.getValueAtPercentile(50)),
+                millis(latencyMicros.getValueAtPercentile(95)),
+                millis(latencyMicros.getValueAtPercentile(99)),
+                millis(latencyMicros.getMaxValue()),
+                codes);
+    }
+    
+    static String reportHeader() {
+        return String.format("%-8s %9s %7s %9s %9s %9s %9s  %s",
+                "Endpoint", "Requests", "Errors", "p50 ms", "p95 ms", "p99 ms", "max ms", "Status codes");
+    }
+    
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
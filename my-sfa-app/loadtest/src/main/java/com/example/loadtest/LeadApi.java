@@ -0,0 +1,194 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Requests of the workload against the lead API, and the lead ids seen in responses so
+ * patches hit existing leads
+ */
+public class LeadApi {
+    
+    static final String PASSWORD = "LoadTest123!";
+    
+    private static final String[] COMPANIES = {"Acme", "Globex", "Initech", "Umbrella", "Hooli", "Stark", "Wayne", "Wonka"};
+    private static final String[] STATUSES = {"NEW", "CONTACTED", "QUALIFIED", "LOST", "CONVERTED"};
+    private static final String[] SOURCES = {"WEBSITE", "REFERRAL", "COLD_CALL", "EMAIL", "TRADE_SHOW", "SOCIAL_MEDIA", "OTHER"};
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    
+    private final String baseUrl;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final long[] leadIds = new long[4096];
+    private int leadIdCount;
+    private int nextLeadId;
+    
+    public LeadApi(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+    
+    public HttpClient client() {
+        return client;
+    }
+    
+    /**
+     * Registers the load test users unless they exist and returns a token for each
+     */
+    public List<String> loginUsers(int users) throws IOException, InterruptedException {
+        List<String> tokens = new ArrayList<>(users);
+        for (int i = 1; i <= users; i++) {
+            String email = "loadtest-user" + i + "@example.com";
+            // 400 when the user is already registered by an earlier run
+            send(post("/api/v1/auth/register", Map.of(
+                    "firstName", "Load",
+                    "lastName", "Tester" + i,
+                    "email", email,
+                    "password", PASSWORD,
+                    "confirmPassword", PASSWORD), null));
+            
+            HttpResponse<String> login = send(post("/api/v1/auth/login",
+                    Map.of("email", email, "password", PASSWORD), null));
+            if (login.statusCode() != 200) {
+                throw new IllegalStateException("Login of " + email + " failed with " + login.statusCode() + ": " + login.body());
+            }
+            tokens.add(objectMapper.readTree(login.body()).path("accessToken").asText());
+        }
+        return tokens;
+    }
+    
+    /**
+     * Creates leads so list, search and patch have data, and remembers the ids already listed
+     */
+    public void seedLeads(List<String> tokens, int leads) throws IOException, InterruptedException {
+        for (int i = 0; i < leads; i++) {
+            HttpResponse<String> response = send(request(Operation.CREATE, tokens.get(i % tokens.size())));
+            if (response.statusCode() >= 300) {
+                throw new IllegalStateException("Seeding leads failed with " + response.statusCode() + ": " + response.body());
+            }
+            observe(Operation.CREATE, response);
+        }
+        String token = tokens.get(0);
+        for (int page = 0; page < 5; page++) {
+            observe(Operation.LIST, send(get("/api/v1/leads?page=" + page + "&size=100", token)));
+        }
+    }
+    
+    /**
+     * The next request of the operation, or null for a patch before any lead id is known
+     */
+    public HttpRequest request(Operation operation, String token) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (operation) {
+            case LIST -> get("/api/v1/leads?page=" + random.nextInt(5) + "&size=20&sort=createdAt,desc"
+                    + (random.nextInt(3) == 0 ? "&status=" + pick(STATUSES) : ""), token);
+            case SEARCH -> get("/api/v1/leads/search?size=20&q="
+                    + URLEncoder.encode(pick(COMPANIES).toLowerCase(), StandardCharsets.UTF_8), token);
+            case CREATE -> {
+                int n = random.nextInt(1_000_000);
+                yield post("/api/v1/leads", Map.of(
+                        "companyName", pick(COMPANIES) + " " + n,
+                        "contactName", "Contact " + n,
+                        "email", "contact" + n + "@loadtest.example",
+                        "phone", "555-" + n,
+                        "source", pick(SOURCES)), token);
+            }
+            case PATCH -> {
+                Long id = randomLeadId();
+                yield id == null ? null : HttpRequest.newBuilder(uri("/api/v1/leads/" + id))
+                        .timeout(TIMEOUT)
+                        .header("Authorization", "Bearer " + token)
+                        .header("Content-Type", "application/json")
+                        .method("PATCH", body(Map.of("status", pick(STATUSES))))
+                        .build();
+            }
+            case STATS -> get("/api/v1/leads/stats", token);
+        };
+    }
+    
+    /**
+     * Remembers the lead ids of a successful list or create response
+     */
+    public void observe(Operation operation, HttpResponse<String> response) {
+        if (response.statusCode() != 200 && response.statusCode() != 201) {
+            return;
+        }
+        try {
+            JsonNode body = objectMapper.readTree(response.body());
+            if (operation == Operation.CREATE) {
+                addLeadId(body.path("id"));
+            } else if (operation == Operation.LIST) {
+                body.path("content").forEach(lead -> addLeadId(lead.path("id")));
+            }
+        } catch (IOException e) {
+            // Ids are a convenience for patches, the response itself was successful
+        }
+    }
+    
+    private synchronized void addLeadId(JsonNode id) {
+        if (id.canConvertToLong()) {
+            leadIds[nextLeadId] = id.asLong();
+            nextLeadId = (nextLeadId + 1) % leadIds.length;
+            leadIdCount = Math.min(leadIdCount + 1, leadIds.length);
+        }
+    }
+    
+    private synchronized Long randomLeadId() {
+        return leadIdCount == 0 ? null : leadIds[ThreadLocalRandom.current().nextInt(leadIdCount)];
+    }
+    
+    private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+    
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(uri(path))
+                .timeout(TIMEOUT)
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+    
+    private HttpRequest post(String path, Map<String, String> body, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri(path))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(body(body));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+    
+    private HttpRequest.BodyPublisher body(Map<String, String> body) {
+        try {
+            return HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+    
+    private static String pick(String[] values) {
+        return values[ThreadLocalRandom.current().nextInt(values.length)];
+    }
+}
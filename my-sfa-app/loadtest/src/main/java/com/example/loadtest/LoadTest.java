@@ -0,0 +1,128 @@
+package com.example.loadtest;
+
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for the lead API. Requests arrive at the target rate with exponential
+ * gaps whether or not earlier ones have completed, so a slow server builds a backlog instead of
+ * slowing the generator down. Arrivals beyond {@code max-in-flight} are dropped and reported.
+ * <p>
+ * Start the application first, e.g. on H2 with {@code --spring.profiles.active=test-local} or on the
+ * PostgreSQL container from docker-compose, then run {@code ./gradlew :loadtest:loadTest}.
+ */
+public class LoadTest {
+    
+    private final LoadTestConfig config;
+    private final LeadApi api;
+    private final List<String> tokens;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final Semaphore inFlight;
+    private final LongAdder dropped = new LongAdder();
+    
+    LoadTest(LoadTestConfig config, LeadApi api, List<String> tokens) {
+        this.config = config;
+        this.api = api;
+        this.tokens = tokens;
+        this.operations = config.mix().keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += config.mix().get(operations[i]);
+            cumulativeWeights[i] = total;
+            stats.put(operations[i], new EndpointStats());
+        }
+        this.inFlight = new Semaphore(config.maxInFlight());
+    }
+    
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        LeadApi api = new LeadApi(config.baseUrl());
+        
+        System.out.printf("Logging in %d users and seeding %d leads at %s%n", config.users(), config.seedLeads(), config.baseUrl());
+        List<String> tokens = api.loginUsers(config.users());
+        api.seedLeads(tokens, config.seedLeads());
+        
+        System.out.printf("Running %s at %.1f req/s after %s warmup, mix %s%n",
+                config.duration(), config.rps(), config.warmup(), config.mix());
+        new LoadTest(config, api, tokens).run();
+    }
+    
+    void run() throws InterruptedException {
+        long meanGapNanos = (long) (TimeUnit.SECONDS.toNanos(1) / config.rps());
+        long start = System.nanoTime();
+        long measureFrom = start + config.warmup().toNanos();
+        long end = measureFrom + config.duration().toNanos();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        
+        long arrival = start;
+        while (arrival < end) {
+            long wait = arrival - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            dispatch(nextOperation(random), arrival, arrival >= measureFrom);
+            arrival += (long) (-Math.log(1 - random.nextDouble()) * meanGapNanos);
+        }
+        
+        // Let outstanding requests finish so the slowest ones are not left out of the percentiles
+        if (!inFlight.tryAcquire(config.maxInFlight(), 60, TimeUnit.SECONDS)) {
+            System.out.printf("%d requests still outstanding after 60s%n", config.maxInFlight() - inFlight.availablePermits());
+        }
+        report();
+    }
+    
+    private void dispatch(Operation operation, long scheduledAt, boolean measured) {
+        String token = tokens.get(ThreadLocalRandom.current().nextInt(tokens.size()));
+        HttpRequest request = api.request(operation, token);
+        if (request == null) {
+            return;
+        }
+        if (!inFlight.tryAcquire()) {
+            if (measured) {
+                dropped.increment();
+            }
+            return;
+        }
+        api.client().sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, failure) -> {
+                    long latency = System.nanoTime() - scheduledAt;
+                    inFlight.release();
+                    if (response != null) {
+                        api.observe(operation, response);
+                    }
+                    if (measured) {
+                        stats.get(operation).record(latency, response != null ? response.statusCode() : EndpointStats.NO_RESPONSE);
+                    }
+                });
+    }
+    
+    private Operation nextOperation(ThreadLocalRandom random) {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Weight " + pick + " out of range");
+    }
+    
+    private void report() {
+        long total = stats.values().stream().mapToLong(EndpointStats::count).sum();
+        System.out.println();
+        System.out.println(EndpointStats.reportHeader());
+        stats.forEach((operation, endpoint) -> System.out.println(endpoint.reportLine(operation)));
+        System.out.printf("%nCompleted %d requests, %.1f req/s achieved for %.1f targeted, %d dropped at %d in flight%n",
+                total, total / (config.duration().toMillis() / 1000.0), config.rps(), dropped.sum(), config.maxInFlight());
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Load test options, passed as {@code --name=value} arguments:
+ * <ul>
+ *   <li>{@code base-url} application to load (http://localhost:8080)</li>
+ *   <li>{@code rps} target arrival rate in requests per second (20)</li>
+ *   <li>{@code duration} measured run time, e.g. 60s or 5m (60s)</li>
+ *   <li>{@code warmup} unmeasured run time at the same rate before it (10s)</li>
+ *   <li>{@code users} seeded users the requests are spread over (5)</li>
+ *   <li>{@code seed-leads} leads created before the run so reads have data (200)</li>
+ *   <li>{@code max-in-flight} outstanding requests before new arrivals are dropped (256)</li>
+ *   <li>{@code mix} relative weight of each operation (list=40,search=20,create=15,patch=15,stats=10)</li>
+ * </ul>
+ */
+public record LoadTestConfig(
+        String baseUrl,
+        double rps,
+        Duration duration,
+        Duration warmup,
+        int users,
+        int seedLeads,
+        int maxInFlight,
+        Map<Operation, Integer> mix) {
+    
+    static final String DEFAULT_MIX = "list=40,search=20,create=15,patch=15,stats=10";
+    
+    public static LoadTestConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        
+        LoadTestConfig config = new LoadTestConfig(
+                options.getOrDefault("base-url", "http://localhost:8080").replaceAll("/+$", ""),
+                Double.parseDouble(options.getOrDefault("rps", "20")),
+                duration(options.getOrDefault("duration", "60s")),
+                duration(options.getOrDefault("warmup", "10s")),
+                Integer.parseInt(options.getOrDefault("users", "5")),
+                Integer.parseInt(options.getOrDefault("seed-leads", "200")),
+                Integer.parseInt(options.getOrDefault("max-in-flight", "256")),
+                mix(options.getOrDefault("mix", DEFAULT_MIX)));
+        if (config.rps <= 0 || config.users <= 0 || config.maxInFlight <= 0) {
+            throw new IllegalArgumentException("rps, users and max-in-flight must be positive");
+        }
+        return config;
+    }
+    
+    private static Duration duration(String text) {
+        long amount = Long.parseLong(text.substring(0, text.length() - 1));
+        return switch (text.charAt(text.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            default -> throw new IllegalArgumentException("Duration must end in s or m: " + text);
+        };
+    }
+    
+    private static Map<Operation, Integer> mix(String text) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : text.split(",")) {
+            String[] parts = entry.split("=");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(Operation.valueOf(parts[0].trim().toUpperCase()), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("The mix needs at least one operation with a positive weight");
+        }
+        return mix;
+    }
+}
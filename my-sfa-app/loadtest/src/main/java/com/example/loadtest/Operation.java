@@ -0,0 +1,17 @@
+package com.example.loadtest;
+
+/**
+ * Requests of the workload mix. Each is reported as its own endpoint.
+ */
+public enum Operation {
+    /** GET /api/v1/leads, one of the first pages, a third of them filtered by status */
+    LIST,
+    /** GET /api/v1/leads/search with a term matching the seeded companies */
+    SEARCH,
+    /** POST /api/v1/leads */
+    CREATE,
+    /** PATCH /api/v1/leads/{id} of a known lead to a new status */
+    PATCH,
+    /** GET /api/v1/leads/stats */
+    STATS
+}
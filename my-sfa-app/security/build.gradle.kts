@@ -18,6 +18,12 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-data-jpa") // Add JPA for repository access
     implementation("org.springframework:spring-tx")
     
+    // Login and hashing pool metrics
+    implementation("io.micrometer:micrometer-core")
+    
+    // Authenticated principal cache
+    implementation("com.github.ben-manes.caffeine:caffeine")
+    
     // JWT
     implementation("io.jsonwebtoken:jjwt-api:0.12.3")
     runtimeOnly("io.jsonwebtoken:jjwt-impl:0.12.3")
@@ -0,0 +1,40 @@
+package com.example.security.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Picks the BCrypt cost whose hash time on this machine stays within a latency target.
+ * Each cost step doubles the work, so one measurement at the minimum cost is extrapolated.
+ */
+@Slf4j
+final class BcryptCostCalibrator {
+    
+    static final int MIN_STRENGTH = 10;
+    static final int MAX_STRENGTH = 14;
+    private static final int SAMPLES = 3;
+    
+    private BcryptCostCalibrator() {
+    }
+    
+    static int calibrate(long targetMillis) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(MIN_STRENGTH);
+        encoder.encode("calibration-warmup");
+        
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration-sample");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double millis = best / 1_000_000.0;
+        
+        int strength = MIN_STRENGTH;
+        while (strength < MAX_STRENGTH && millis * 2 <= targetMillis) {
+            millis *= 2;
+            strength++;
+        }
+        log.info("BCrypt cost {} selected (~{} ms per hash, target {} ms)", strength, Math.round(millis), targetMillis);
+        return strength;
+    }
+}
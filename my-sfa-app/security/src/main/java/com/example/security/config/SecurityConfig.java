@@ -8,6 +8,9 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -16,8 +19,10 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.header.writers.ReferrerPolicyHeaderWriter;
 import org.springframework.web.cors.CorsConfiguration;
@@ -25,6 +30,8 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
@@ -38,9 +45,27 @@ public class SecurityConfig {
     @Value("${APP_CORS_ALLOWED_ORIGINS:http://localhost:3000,http://localhost:8080,https://salesforge-ui.onrender.com}")
     private String allowedOrigins;
     
+    // Explicit BCrypt cost; 0 calibrates against the target hash time at startup
+    @Value("${app.auth.bcrypt.strength:0}")
+    private int bcryptStrength;
+    
+    @Value("${app.auth.bcrypt.target-ms:250}")
+    private long bcryptTargetMillis;
+    
+    // Prometheus scrapes without a token only where the endpoint is not publicly reachable
+    @Value("${app.metrics.prometheus-public:false}")
+    private boolean prometheusPublic;
+    
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int strength = bcryptStrength > 0 ? bcryptStrength : BcryptCostCalibrator.calibrate(bcryptTargetMillis);
+        
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", new BCryptPasswordEncoder(strength));
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", encoders);
+        // Hashes stored before the {id} prefix are plain BCrypt; they are re-encoded on next login
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return encoder;
     }
     
     @Bean
@@ -114,6 +139,7 @@ public class SecurityConfig {
                 
                 // Admin endpoints - require ADMIN role
                 .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
+                .requestMatchers("/actuator/prometheus").access(prometheusAccess())
                 .requestMatchers("/actuator/**").hasRole("ADMIN")
                 
                 // Manager endpoints - require MANAGER or ADMIN role
@@ -125,4 +151,11 @@ public class SecurityConfig {
         
         return http.build();
     }
-}
\ No newline at end of file
+    
+    private AuthorizationManager<RequestAuthorizationContext> prometheusAccess() {
+        if (prometheusPublic) {
+            return (authentication, context) -> new AuthorizationDecision(true);
+        }
+        return AuthorityAuthorizationManager.hasRole("ADMIN");
+    }
+}
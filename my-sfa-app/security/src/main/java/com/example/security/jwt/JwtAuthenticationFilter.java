@@ -1,29 +1,56 @@
 package com.example.security.jwt;
 
+import com.example.security.service.UserDetailsServiceImpl;
+import com.example.security.service.UserDetailsServiceImpl.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
+    private static final String CACHED = "cached";
+    private static final String VERIFIED = "verified";
+    private static final String REJECTED = "rejected";
+    private static final String ERROR = "error";
+    
     private final JwtTokenProvider tokenProvider;
-    private final UserDetailsService userDetailsService;
+    private final UserDetailsServiceImpl userDetailsService;
+    private final JwtPrincipalCache principalCache;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> timers = new HashMap<>();
+    
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, UserDetailsServiceImpl userDetailsService,
+                                   JwtPrincipalCache principalCache, MeterRegistry meterRegistry) {
+        this.tokenProvider = tokenProvider;
+        this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
+        this.meterRegistry = meterRegistry;
+        // Time spent authenticating bearer tokens: answered from the principal cache, verified and cached,
+        // refused, or failed with an exception
+        for (String result : new String[] {CACHED, VERIFIED, REJECTED, ERROR}) {
+            timers.put(result, Timer.builder("security.jwt.authentication")
+                    .description("Bearer token authentication in the JWT filter")
+                    .tag("result", result)
+                    .register(meterRegistry));
+        }
+    }
     
     @Override
     protected void doFilterInternal(HttpServletRequest request, 
@@ -32,15 +59,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
             
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
-                
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = 
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+            if (StringUtils.hasText(jwt)) {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                String result = ERROR;
+                try {
+                    UserPrincipal principal = principalCache.get(jwt);
+                    if (principal != null) {
+                        result = CACHED;
+                    } else {
+                        principal = resolvePrincipal(jwt);
+                        result = principal != null ? VERIFIED : REJECTED;
+                    }
+                    
+                    if (principal != null) {
+                        UsernamePasswordAuthenticationToken authentication = 
+                                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+                        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                        
+                        SecurityContextHolder.getContext().setAuthentication(authentication);
+                    }
+                } finally {
+                    sample.stop(timers.get(result));
+                }
             }
         } catch (Exception ex) {
             log.error("Could not set user authentication in security context", ex);
@@ -49,6 +89,34 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    /**
+     * Verify a token that is not in the principal cache against the current user and cache its principal.
+     * Role and active flag always come from the user, never from the token.
+     */
+    private UserPrincipal resolvePrincipal(String jwt) {
+        Claims claims = tokenProvider.parseClaims(jwt);
+        if (claims == null) {
+            return null;
+        }
+        
+        Long userId = tokenProvider.getUserId(claims);
+        // Tokens issued without a user id are looked up by email
+        UserPrincipal principal = userId != null
+                ? userDetailsService.loadUserById(userId)
+                : (UserPrincipal) userDetailsService.loadUserByUsername(claims.getSubject());
+        if (principal == null || !principal.isEnabled()) {
+            log.warn("Rejected JWT for missing or deactivated user {}", claims.getSubject());
+            return null;
+        }
+        if (principal.getTokenVersion() != tokenProvider.getTokenVersion(claims)) {
+            log.warn("Rejected revoked JWT of user {}", claims.getSubject());
+            return null;
+        }
+        
+        principalCache.put(jwt, principal, claims.getExpiration().toInstant());
+        return principal;
+    }
+    
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -56,4 +124,4 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         return null;
     }
-}
\ No newline at end of file
+}
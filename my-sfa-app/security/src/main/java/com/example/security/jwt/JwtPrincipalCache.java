@@ -0,0 +1,92 @@
+package com.example.security.jwt;
+
+import com.example.security.service.UserDetailsServiceImpl.UserPrincipal;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Bounded token-to-principal cache so repeat requests with the same JWT skip signature
+ * verification and user lookup. Entries are keyed by a SHA-256 of the token (raw tokens are
+ * never held as keys).
+ * <p>
+ * Entries live for {@code app.jwt.principal-cache.ttl} at most, not for the token's lifetime: the
+ * token version that revokes a token is checked on every miss, so a role change or deactivation made
+ * through another instance, or directly in the database, is seen within that TTL (plus the users
+ * second-level cache expiry). Changes made through this instance evict the user's entries at once.
+ */
+@Slf4j
+@Component
+public class JwtPrincipalCache {
+    
+    private final Cache<String, CachedPrincipal> principals;
+    
+    public JwtPrincipalCache(@Value("${app.jwt.principal-cache.max-size:10000}") long maxSize,
+                             @Value("${app.jwt.principal-cache.ttl:30s}") Duration ttl) {
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, CachedPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedPrincipal value, long currentTime) {
+                        Duration untilExpiry = Duration.between(Instant.now(), value.expiresAt());
+                        return Math.max(0, (untilExpiry.compareTo(ttl) < 0 ? untilExpiry : ttl).toNanos());
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+    
+    /**
+     * Cached principal for the token, or null on a miss
+     */
+    public UserPrincipal get(String token) {
+        CachedPrincipal cached = principals.getIfPresent(hash(token));
+        return cached != null ? cached.principal() : null;
+    }
+    
+    /**
+     * Cache the principal of a verified token until the TTL passes or the token expires, whichever is first
+     */
+    public void put(String token, UserPrincipal principal, Instant expiresAt) {
+        principals.put(hash(token), new CachedPrincipal(principal, expiresAt));
+    }
+    
+    /**
+     * Drop every cached principal of the user, so this instance checks their tokens again immediately
+     */
+    public void evictUser(Long userId) {
+        principals.asMap().values().removeIf(cached -> userId.equals(cached.principal().getId()));
+        log.info("Evicted cached JWT principals for user {}", userId);
+    }
+    
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    private record CachedPrincipal(UserPrincipal principal, Instant expiresAt) {
+    }
+}
@@ -1,7 +1,9 @@
 package com.example.security.jwt;
 
+import com.example.security.service.UserDetailsServiceImpl.UserPrincipal;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
@@ -17,59 +19,90 @@ import java.util.Date;
 @Component
 public class JwtTokenProvider {
     
+    static final String USER_ID_CLAIM = "uid";
+    static final String TOKEN_VERSION_CLAIM = "tv";
+    
     private final SecretKey jwtSecret;
     private final int jwtExpirationInMs;
+    // Immutable and thread-safe; built once instead of per call
+    private final JwtParser jwtParser;
     
     public JwtTokenProvider(@Value("${app.jwt.secret:mySecretKey123456789012345678901234567890}") String jwtSecret,
                            @Value("${app.jwt.expiration:86400000}") int jwtExpirationInMs) {
         this.jwtSecret = Keys.hmacShaKeyFor(jwtSecret.getBytes());
         this.jwtExpirationInMs = jwtExpirationInMs;
+        this.jwtParser = Jwts.parser()
+                .verifyWith(this.jwtSecret)
+                .build();
     }
     
     public String generateToken(Authentication authentication) {
-        UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
-        
+        return generateToken((UserDetails) authentication.getPrincipal());
+    }
+    
+    public String generateToken(UserDetails userPrincipal) {
         Instant now = Instant.now();
         Instant expiryDate = now.plus(jwtExpirationInMs, ChronoUnit.MILLIS);
         
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .subject(userPrincipal.getUsername())
                 .issuedAt(Date.from(now))
-                .expiration(Date.from(expiryDate))
-                .signWith(jwtSecret)
-                .compact();
-    }
-    
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(jwtSecret)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+                .expiration(Date.from(expiryDate));
         
-        return claims.getSubject();
+        // The filter looks the user up by id (second-level cache) and refuses the token once the
+        // user's token version has moved on, e.g. after a role change or deactivation
+        if (userPrincipal instanceof UserPrincipal principal) {
+            builder.claim(USER_ID_CLAIM, principal.getId());
+            builder.claim(TOKEN_VERSION_CLAIM, principal.getTokenVersion());
+        }
+        
+        return builder.signWith(jwtSecret).compact();
     }
     
-    public boolean validateToken(String authToken) {
+    /**
+     * Verify the token and return its claims, or null if it is invalid or expired
+     */
+    public Claims parseClaims(String token) {
         try {
-            Jwts.parser()
-                .verifyWith(jwtSecret)
-                .build()
-                .parseSignedClaims(authToken);
-            return true;
+            return jwtParser.parseSignedClaims(token).getPayload();
         } catch (MalformedJwtException ex) {
             log.error("Invalid JWT token");
         } catch (ExpiredJwtException ex) {
             log.error("Expired JWT token");
         } catch (UnsupportedJwtException ex) {
             log.error("Unsupported JWT token");
+        } catch (SignatureException ex) {
+            log.error("Invalid JWT signature");
         } catch (IllegalArgumentException ex) {
             log.error("JWT claims string is empty.");
         }
-        return false;
+        return null;
+    }
+    
+    /**
+     * User id claim, or null for tokens issued without one
+     */
+    public Long getUserId(Claims claims) {
+        return claims.get(USER_ID_CLAIM, Long.class);
+    }
+    
+    /**
+     * Token version the token was issued under; tokens issued without one count as version 0
+     */
+    public int getTokenVersion(Claims claims) {
+        Integer version = claims.get(TOKEN_VERSION_CLAIM, Integer.class);
+        return version != null ? version : 0;
+    }
+    
+    public String getUsernameFromToken(String token) {
+        return jwtParser.parseSignedClaims(token).getPayload().getSubject();
+    }
+    
+    public boolean validateToken(String authToken) {
+        return parseClaims(authToken) != null;
     }
     
     public int getJwtExpiration() {
         return jwtExpirationInMs;
     }
-}
\ No newline at end of file
+}
@@ -1,40 +1,69 @@
 package com.example.security.service;
 
 import com.example.core.domain.User;
+import com.example.infra.config.PrimaryReads;
 import com.example.infra.repository.UserRepository;
+import com.example.security.jwt.JwtPrincipalCache;
 import com.example.security.jwt.JwtTokenProvider;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 @Transactional
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
-    private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider jwtTokenProvider;
+    private final JwtPrincipalCache jwtPrincipalCache;
+    private final PasswordHashingService passwordHashingService;
+    private final MeterRegistry meterRegistry;
+    private final Executor loginExecutor;
+    // Hash of a random password, checked for unknown emails; computed once on the hashing pool at startup
+    private final CompletableFuture<String> unknownUserHash;
 
     /**
-     * Register a new user
+     * @param loginExecutor finishes logins once the password is verified, so the hashing pool only hashes
      */
+    public AuthService(UserRepository userRepository,
+                       JwtTokenProvider jwtTokenProvider,
+                       JwtPrincipalCache jwtPrincipalCache,
+                       PasswordHashingService passwordHashingService,
+                       MeterRegistry meterRegistry,
+                       @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor loginExecutor) {
+        this.userRepository = userRepository;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.jwtPrincipalCache = jwtPrincipalCache;
+        this.passwordHashingService = passwordHashingService;
+        this.meterRegistry = meterRegistry;
+        this.loginExecutor = loginExecutor;
+        this.unknownUserHash = passwordHashingService.encode(UUID.randomUUID().toString());
+    }
+
+    /**
+     * Register a new user. Runs without a surrounding transaction so that no connection is held while hashing.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User registerUser(String firstName, String lastName, String email, String password) {
         log.info("Registering new user with email: {}", email);
         
-        // Check if user already exists
-        if (userRepository.findByEmail(email).isPresent()) {
+        // Check if user already exists; on the primary, where a registration moments ago is visible
+        if (PrimaryReads.call(() -> userRepository.findByEmail(email)).isPresent()) {
             throw new IllegalArgumentException("User with email " + email + " already exists");
         }
         
@@ -43,47 +72,83 @@ public class AuthService {
                 .firstName(firstName)
                 .lastName(lastName)
                 .email(email)
-                .password(passwordEncoder.encode(password))
+                .password(encodePassword(password))
                 .role(User.Role.SALES_REP) // Default role
                 .active(true)
                 .build();
         
-        User savedUser = userRepository.save(user);
+        User savedUser;
+        try {
+            savedUser = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent registration of the same email won the race
+            throw new IllegalArgumentException("User with email " + email + " already exists");
+        }
         log.info("Successfully registered user with ID: {}", savedUser.getId());
         
         return savedUser;
     }
 
     /**
-     * Authenticate user and generate JWT token
+     * Log in with a single user lookup. Password verification runs on the hashing pool, the rest
+     * (hash upgrade, token) on the login executor. The returned future fails with
+     * IllegalArgumentException for bad credentials or a deactivated account, and with
+     * RejectedExecutionException when the pool is saturated.
      */
-    public String authenticateUser(String email, String password) {
+    @Transactional(readOnly = true)
+    public CompletableFuture<LoginResult> login(String email, String password) {
         log.info("Authenticating user with email: {}", email);
+        Timer.Sample sample = Timer.start(meterRegistry);
         
+        // On the primary, so a user who just registered or changed their password is found as they are now
+        User user = PrimaryReads.call(() -> userRepository.findByEmail(email)).orElse(null);
+        // Unknown emails still pay for one hash so response time does not reveal which accounts exist
+        CompletableFuture<PasswordHashingService.Verification> verified = user != null
+                ? passwordHashingService.verify(password, user.getPassword())
+                : unknownUserHash.thenCompose(hash -> passwordHashingService.verify(password, hash));
+        
+        return verified
+                .thenApplyAsync(verification -> {
+                    if (user == null || !verification.matches()) {
+                        log.error("Authentication failed for user: {}", email);
+                        throw new IllegalArgumentException("Invalid email or password");
+                    }
+                    if (!user.getActive()) {
+                        throw new IllegalArgumentException("User account is deactivated");
+                    }
+                    if (verification.upgradedHash() != null) {
+                        // Commits in its own write transaction; the lookup's read-only one has ended
+                        userRepository.updatePassword(user.getId(), verification.upgradedHash());
+                        log.info("Upgraded password hash for user: {}", email);
+                    }
+                    
+                    String token = jwtTokenProvider.generateToken(UserDetailsServiceImpl.UserPrincipal.create(user));
+                    log.info("Successfully authenticated user: {}", email);
+                    return new LoginResult(user, token, getTokenExpiration());
+                }, loginExecutor)
+                .whenComplete((result, error) -> sample.stop(meterRegistry.timer("auth.login", "outcome", loginOutcome(error))));
+    }
+
+    private String encodePassword(String rawPassword) {
         try {
-            // Authenticate the user
-            Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(email, password)
-            );
-            
-            // Find user details
-            User user = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
-            
-            if (!user.getActive()) {
-                throw new IllegalArgumentException("User account is deactivated");
+            return passwordHashingService.encode(rawPassword).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
             }
-            
-            // Generate JWT token
-            String token = jwtTokenProvider.generateToken(authentication);
-            log.info("Successfully authenticated user: {}", email);
-            
-            return token;
-            
-        } catch (AuthenticationException e) {
-            log.error("Authentication failed for user: {} - {}", email, e.getMessage());
-            throw new IllegalArgumentException("Invalid email or password");
+            throw e;
+        }
+    }
+
+    private static String loginOutcome(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause == null) {
+            return "success";
+        }
+        if (cause instanceof RejectedExecutionException) {
+            return "rejected";
         }
+        return cause instanceof IllegalArgumentException ? "failure" : "error";
     }
 
     /**
@@ -91,7 +156,62 @@ public class AuthService {
      */
     @Transactional(readOnly = true)
     public Optional<User> findUserByEmail(String email) {
-        return userRepository.findByEmail(email);
+        return PrimaryReads.call(() -> userRepository.findByEmail(email));
+    }
+
+    /**
+     * Deactivate a user and revoke their outstanding tokens
+     */
+    public User deactivateUser(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + userId));
+        
+        user.setActive(false);
+        revokeTokens(user);
+        User savedUser = userRepository.save(user);
+        jwtPrincipalCache.evictUser(userId);
+        
+        log.info("Deactivated user: {}", user.getEmail());
+        return savedUser;
+    }
+
+    /**
+     * Reactivate a user; they can log in again, but tokens from before the deactivation stay revoked
+     */
+    public User activateUser(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + userId));
+        
+        user.setActive(true);
+        revokeTokens(user);
+        User savedUser = userRepository.save(user);
+        
+        log.info("Activated user: {}", user.getEmail());
+        return savedUser;
+    }
+
+    /**
+     * Change a user's role and revoke their outstanding tokens; they log in again to use the new role
+     */
+    public User changeRole(Long userId, User.Role role) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found with ID: " + userId));
+        
+        user.setRole(role);
+        revokeTokens(user);
+        User savedUser = userRepository.save(user);
+        jwtPrincipalCache.evictUser(userId);
+        
+        log.info("Changed role of user {} to {}", user.getEmail(), role);
+        return savedUser;
+    }
+
+    /**
+     * Refuse every token issued so far, on all instances: they carry the old token version. The V14
+     * trigger does the same for role and active changes made directly in the database.
+     */
+    private static void revokeTokens(User user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
     }
 
     /**
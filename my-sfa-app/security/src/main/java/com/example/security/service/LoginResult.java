@@ -0,0 +1,11 @@
+package com.example.security.service;
+
+import com.example.core.domain.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Authenticated user with the issued access token
+ */
+public record LoginResult(User user, String token, LocalDateTime expiresAt) {
+}
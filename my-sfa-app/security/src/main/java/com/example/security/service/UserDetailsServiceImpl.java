@@ -1,6 +1,7 @@
 package com.example.security.service;
 
 import com.example.core.domain.User;
+import com.example.infra.config.PrimaryReads;
 import com.example.infra.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.GrantedAuthority;
@@ -23,25 +24,37 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Override
     @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(email)
+        // Read from the primary: a replica may not have a user registered or changed moments ago
+        User user = PrimaryReads.call(() -> userRepository.findByEmail(email))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
         
         return UserPrincipal.create(user);
     }
     
+    /**
+     * Current principal of the user, from the second-level cache when possible, or null if the user is gone
+     */
+    @Transactional(readOnly = true)
+    public UserPrincipal loadUserById(Long id) {
+        return PrimaryReads.call(() -> userRepository.findById(id)).map(UserPrincipal::create).orElse(null);
+    }
+    
     public static class UserPrincipal implements UserDetails {
         private final Long id;
         private final String email;
         private final String password;
         private final List<GrantedAuthority> authorities;
         private final boolean active;
+        private final int tokenVersion;
         
-        public UserPrincipal(Long id, String email, String password, List<GrantedAuthority> authorities, boolean active) {
+        public UserPrincipal(Long id, String email, String password, List<GrantedAuthority> authorities,
+                             boolean active, int tokenVersion) {
             this.id = id;
             this.email = email;
             this.password = password;
             this.authorities = authorities;
             this.active = active;
+            this.tokenVersion = tokenVersion;
         }
         
         public static UserPrincipal create(User user) {
@@ -54,7 +67,8 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 user.getEmail(),
                 user.getPassword(),
                 authorities,
-                user.getActive()
+                user.getActive(),
+                user.getTokenVersion()
             );
         }
         
@@ -62,6 +76,10 @@ public class UserDetailsServiceImpl implements UserDetailsService {
             return id;
         }
         
+        public int getTokenVersion() {
+            return tokenVersion;
+        }
+        
         @Override
         public String getUsername() {
             return email;
@@ -0,0 +1,87 @@
+package com.example.security.jwt;
+
+import com.example.core.domain.User;
+import com.example.infra.repository.UserRepository;
+import com.example.security.service.UserDetailsServiceImpl;
+import com.example.security.service.UserDetailsServiceImpl.UserPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tokens are checked against the user's current role, active flag and token version, whichever
+ * instance changed them
+ */
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "testSecretThatIsLongEnoughForHmacSha256Signing1234567890";
+
+    private final JwtTokenProvider tokenProvider = new JwtTokenProvider(SECRET, 60_000);
+    private UserRepository userRepository;
+    private JwtAuthenticationFilter filter;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        user = User.builder()
+                .id(7L)
+                .email("ann@example.com")
+                .password("x")
+                .firstName("Ann")
+                .lastName("Tester")
+                .role(User.Role.MANAGER)
+                .build();
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+        // No principal caching, so every request sees the user as another instance left it
+        filter = new JwtAuthenticationFilter(tokenProvider, new UserDetailsServiceImpl(userRepository),
+                new JwtPrincipalCache(100, Duration.ZERO), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldTakeRoleFromUserNotToken() throws Exception {
+        String token = tokenProvider.generateToken(UserPrincipal.create(user));
+        user.setRole(User.Role.SALES_REP);
+
+        assertThat(authenticate(token).getAuthorities()).extracting("authority").containsExactly("ROLE_SALES_REP");
+    }
+
+    @Test
+    void shouldRefuseTokensOfOlderTokenVersionOrInactiveUser() throws Exception {
+        String token = tokenProvider.generateToken(UserPrincipal.create(user));
+        assertThat(authenticate(token)).isNotNull();
+
+        user.setTokenVersion(1);
+        assertThat(authenticate(token)).isNull();
+        assertThat(authenticate(tokenProvider.generateToken(UserPrincipal.create(user)))).isNotNull();
+
+        user.setActive(false);
+        assertThat(authenticate(tokenProvider.generateToken(UserPrincipal.create(user)))).isNull();
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/leads");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.security.jwt;
+
+import com.example.security.service.UserDetailsServiceImpl.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtPrincipalCacheTest {
+
+    private static final String SECRET = "testSecretThatIsLongEnoughForHmacSha256Signing1234567890";
+
+    private JwtTokenProvider tokenProvider;
+    private JwtPrincipalCache cache;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = new JwtTokenProvider(SECRET, 60_000);
+        cache = new JwtPrincipalCache(100, Duration.ofSeconds(30));
+    }
+
+    @Test
+    void shouldCarryUserIdAndTokenVersionClaims() {
+        Claims claims = tokenProvider.parseClaims(tokenFor(42L, 3));
+
+        assertThat(tokenProvider.getUserId(claims)).isEqualTo(42L);
+        assertThat(tokenProvider.getTokenVersion(claims)).isEqualTo(3);
+        assertThat(claims.getSubject()).isEqualTo("user42@example.com");
+        assertThat(claims).doesNotContainKey("role");
+    }
+
+    @Test
+    void shouldRejectTamperedToken() {
+        String token = tokenFor(42L, 0);
+
+        assertThat(tokenProvider.parseClaims(token.substring(0, token.length() - 2) + "xx")).isNull();
+    }
+
+    @Test
+    void shouldEvictAllEntriesOfUser() {
+        String token = tokenFor(7L, 0);
+        String otherToken = tokenFor(8L, 0);
+        Instant expiry = Instant.now().plusSeconds(60);
+        cache.put(token, principal(7L), expiry);
+        cache.put(otherToken, principal(8L), expiry);
+
+        cache.evictUser(7L);
+
+        assertThat(cache.get(token)).isNull();
+        assertThat(cache.get(otherToken)).isNotNull();
+    }
+
+    @Test
+    void shouldNotCacheExpiredEntries() {
+        String token = tokenFor(9L, 0);
+
+        cache.put(token, principal(9L), Instant.now().minusSeconds(1));
+
+        assertThat(cache.get(token)).isNull();
+    }
+
+    @Test
+    void shouldKeepEntriesNoLongerThanTtl() {
+        JwtPrincipalCache shortLived = new JwtPrincipalCache(100, Duration.ZERO);
+        String token = tokenFor(9L, 0);
+
+        shortLived.put(token, principal(9L), Instant.now().plusSeconds(60));
+
+        assertThat(shortLived.get(token)).isNull();
+    }
+
+    private String tokenFor(Long id, int tokenVersion) {
+        UserPrincipal principal = new UserPrincipal(id, "user" + id + "@example.com", "hash",
+                List.of(new SimpleGrantedAuthority("ROLE_SALES_REP")), true, tokenVersion);
+        return tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private static UserPrincipal principal(Long id) {
+        return new UserPrincipal(id, "user" + id + "@example.com", null,
+                List.of(new SimpleGrantedAuthority("ROLE_SALES_REP")), true, 0);
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.security.service;
+
+import com.example.core.domain.User;
+import com.example.infra.repository.UserRepository;
+import com.example.security.jwt.JwtPrincipalCache;
+import com.example.security.jwt.JwtTokenProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Login pipeline: verification on the hashing pool, then the hash upgrade and token on the login executor
+ */
+class AuthServiceTest {
+
+    private static final String SECRET = "testSecretThatIsLongEnoughForHmacSha256Signing1234567890";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> writeThreads = new CopyOnWriteArrayList<>();
+    private UserRepository userRepository;
+    private PasswordHashingService passwordHashingService;
+    private ExecutorService loginExecutor;
+    private JwtPrincipalCache jwtPrincipalCache;
+    private AuthService authService;
+    private String legacyHash;
+
+    @BeforeEach
+    void setUp() {
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt",
+                Map.of("bcrypt", new BCryptPasswordEncoder(5)));
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        legacyHash = new BCryptPasswordEncoder(4).encode("secret123");
+
+        userRepository = mock(UserRepository.class);
+        doAnswer(invocation -> {
+            writeThreads.add(Thread.currentThread().getName());
+            return 1;
+        }).when(userRepository).updatePassword(anyLong(), anyString());
+        passwordHashingService = new PasswordHashingService(encoder, meterRegistry, 1, 4);
+        loginExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "login-test"));
+        jwtPrincipalCache = new JwtPrincipalCache(100, Duration.ofSeconds(30));
+        authService = new AuthService(userRepository, new JwtTokenProvider(SECRET, 60_000),
+                jwtPrincipalCache, passwordHashingService, meterRegistry, loginExecutor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingService.shutdown();
+        loginExecutor.shutdownNow();
+    }
+
+    @Test
+    void shouldIssueTokenAndUpgradeHashOffTheHashingPool() {
+        User user = user(true);
+        when(userRepository.findByEmail("ann@example.com")).thenReturn(Optional.of(user));
+
+        LoginResult result = authService.login("ann@example.com", "secret123").join();
+
+        assertThat(result.user()).isSameAs(user);
+        assertThat(result.token()).isNotBlank();
+        verify(userRepository).updatePassword(eq(7L), startsWith("{bcrypt}$2a$05$"));
+        assertThat(writeThreads).containsExactly("login-test");
+        assertThat(meterRegistry.get("auth.login").tag("outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldFailBadCredentialsAndDeactivatedAccounts() {
+        when(userRepository.findByEmail("ann@example.com")).thenReturn(Optional.of(user(true)));
+        when(userRepository.findByEmail("bob@example.com")).thenReturn(Optional.of(user(false)));
+
+        assertThatThrownBy(() -> authService.login("ann@example.com", "wrong").join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalArgumentException.class)
+                .hasRootCauseMessage("Invalid email or password");
+        assertThatThrownBy(() -> authService.login("nobody@example.com", "secret123").join())
+                .hasRootCauseMessage("Invalid email or password");
+        assertThatThrownBy(() -> authService.login("bob@example.com", "secret123").join())
+                .hasRootCauseMessage("User account is deactivated");
+
+        verify(userRepository, never()).updatePassword(anyLong(), anyString());
+        assertThat(meterRegistry.get("auth.login").tag("outcome", "failure").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldRevokeTokensOnRoleChange() {
+        User user = user(true);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+        when(userRepository.save(user)).thenReturn(user);
+
+        authService.changeRole(7L, User.Role.MANAGER);
+
+        assertThat(user.getRole()).isEqualTo(User.Role.MANAGER);
+        assertThat(user.getTokenVersion()).isEqualTo(1);
+    }
+
+    private User user(boolean active) {
+        return User.builder()
+                .id(7L)
+                .email("ann@example.com")
+                .password(legacyHash)
+                .firstName("Ann")
+                .lastName("Tester")
+                .role(User.Role.SALES_REP)
+                .active(active)
+                .build();
+    }
+}
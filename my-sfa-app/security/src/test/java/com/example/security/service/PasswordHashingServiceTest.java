@@ -0,0 +1,84 @@
+package com.example.security.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PasswordHashingServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHashingService service;
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void shouldRejectImmediatelyWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        service = new PasswordHashingService(blockingEncoder(release), meterRegistry, 1, 1);
+
+        CompletableFuture<PasswordHashingService.Verification> running = service.verify("a", "a");
+        CompletableFuture<PasswordHashingService.Verification> queued = service.verify("b", "b");
+        CompletableFuture<PasswordHashingService.Verification> rejected = service.verify("c", "c");
+
+        assertThat(rejected).isCompletedExceptionally();
+        assertThatThrownBy(rejected::join).isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        assertThat(meterRegistry.get("auth.password.hashing.rejected").counter().count()).isEqualTo(1.0);
+
+        release.countDown();
+        assertThat(running.get().matches()).isTrue();
+        assertThat(queued.get().matches()).isTrue();
+    }
+
+    @Test
+    void shouldUpgradeLegacyBcryptHashOnSuccessfulMatch() {
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt",
+                Map.of("bcrypt", new BCryptPasswordEncoder(5)));
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        service = new PasswordHashingService(encoder, meterRegistry, 1, 4);
+        String legacyHash = new BCryptPasswordEncoder(4).encode("secret123");
+
+        PasswordHashingService.Verification ok = service.verify("secret123", legacyHash).join();
+        PasswordHashingService.Verification wrong = service.verify("wrong", legacyHash).join();
+
+        assertThat(ok.matches()).isTrue();
+        assertThat(ok.upgradedHash()).startsWith("{bcrypt}$2a$05$");
+        assertThat(encoder.matches("secret123", ok.upgradedHash())).isTrue();
+        assertThat(wrong.matches()).isFalse();
+        assertThat(wrong.upgradedHash()).isNull();
+    }
+
+    private static PasswordEncoder blockingEncoder(CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+    }
+}
@@ -4,5 +4,7 @@ include(
     "core",
     "security", 
     "infra",
-    "web"
+    "web",
+    "benchmarks",
+    "loadtest"
 )
\ No newline at end of file
@@ -18,6 +18,14 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-actuator")
     implementation("org.springframework.boot:spring-boot-starter-security")
     implementation("org.springframework.boot:spring-boot-starter-data-jpa")
+    implementation("org.springframework.boot:spring-boot-starter-cache")
+    
+    // Prometheus scrape endpoint and Hibernate session statistics as meters
+    implementation("io.micrometer:micrometer-registry-prometheus")
+    implementation("org.hibernate.orm:hibernate-micrometer")
+    
+    // Lead query result caches
+    implementation("com.github.ben-manes.caffeine:caffeine")
     
     // Vaadin UI framework - commented out as this is primarily a REST API application
     // implementation("com.vaadin:vaadin-spring-boot-starter:24.8.3")
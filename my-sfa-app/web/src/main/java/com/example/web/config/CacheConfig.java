@@ -0,0 +1,47 @@
+package com.example.web.config;
+
+import com.example.web.service.LeadQueryCache;
+import com.example.web.service.ReportCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Query result caches, each with its own Caffeine spec ({@code app.cache.specs.<name>}, same format as
+ * {@code spring.cache.caffeine.spec}). Only the caches declared here exist; {@code @Cacheable} on any other
+ * name fails at the first call. Statistics are recorded, so Boot publishes {@code cache.gets}, {@code cache.puts},
+ * {@code cache.evictions} and {@code cache.size} for every cache.
+ */
+@Slf4j
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(Environment environment) {
+        Map<String, String> specs = new LinkedHashMap<>(LeadQueryCache.DEFAULT_SPECS);
+        specs.putAll(ReportCache.DEFAULT_SPECS);
+
+        List<CaffeineCache> caches = new ArrayList<>();
+        for (Map.Entry<String, String> cache : specs.entrySet()) {
+            String spec = environment.getProperty("app.cache.specs." + cache.getKey(), cache.getValue());
+            log.info("Cache {}: {}", cache.getKey(), spec);
+            caches.add(new CaffeineCache(cache.getKey(), Caffeine.from(spec).recordStats().build()));
+        }
+
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(caches);
+        return cacheManager;
+    }
+}
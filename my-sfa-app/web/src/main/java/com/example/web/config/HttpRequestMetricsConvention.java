@@ -0,0 +1,48 @@
+package com.example.web.config;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Adds the controller method and the filter shape to the {@code http.server.requests} timers.
+ * The filter shape names the list filters present on the request (e.g. {@code status+search}),
+ * never their values, so a lead endpoint has at most one series per filter combination.
+ */
+@Component
+public class HttpRequestMetricsConvention extends DefaultServerRequestObservationConvention {
+
+    private static final List<String> FILTER_PARAMETERS = List.of("status", "source", "search", "q", "startDate", "endDate", "after");
+    private static final String NONE = "none";
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context)
+                .and(handler(context.getCarrier()), filter(context.getCarrier()));
+    }
+
+    private static KeyValue handler(HttpServletRequest request) {
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod method) {
+            return KeyValue.of("handler", method.getBeanType().getSimpleName() + "." + method.getMethod().getName());
+        }
+        return KeyValue.of("handler", NONE);
+    }
+
+    private static KeyValue filter(HttpServletRequest request) {
+        StringJoiner shape = new StringJoiner("+");
+        for (String parameter : FILTER_PARAMETERS) {
+            if (request.getParameter(parameter) != null) {
+                shape.add(parameter);
+            }
+        }
+        return KeyValue.of("filter", shape.length() > 0 ? shape.toString() : NONE);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.web.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps the number of API requests in flight at the size of the JDBC pool.
+ * With virtual threads Tomcat no longer limits concurrency through its worker pool, so without this
+ * every request would queue inside Hikari and fail only after the connection timeout. Waiting on a
+ * semaphore parks a virtual thread cheaply; requests that cannot get a permit in time answer 503.
+ * Streaming responses keep their permit until the async dispatch completes.
+ */
+public class JdbcConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMillis;
+    private final Counter rejected;
+
+    public JdbcConcurrencyLimitFilter(int limit, Duration acquireTimeout, MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(limit, true);
+        this.acquireTimeoutMillis = acquireTimeout.toMillis();
+
+        Gauge.builder("http.server.requests.limiter.in-flight", permits, p -> limit - p.availablePermits())
+                .description("API requests holding a JDBC concurrency permit")
+                .register(meterRegistry);
+        Gauge.builder("http.server.requests.limiter.waiting", permits, Semaphore::getQueueLength)
+                .description("API requests waiting for a JDBC concurrency permit")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("http.server.requests.limiter.rejected")
+                .description("API requests answered 503 because no permit became available in time")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!acquire()) {
+            rejected.increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Server is busy. Please retry shortly.\"}");
+            return;
+        }
+
+        Permit permit = new Permit();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(permit);
+            } else {
+                permit.release();
+            }
+        }
+    }
+
+    private boolean acquire() {
+        try {
+            return permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Releases the permit exactly once; async completion may report both an error and completion.
+     */
+    private class Permit implements AsyncListener {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.web.config;
+
+import com.example.infra.config.PrimaryReads;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions ({@code @Transactional(readOnly = true)}, which includes the Spring Data
+ * repository finders) to a replica and everything else to the primary.
+ * <p>
+ * Connections are fetched lazily, after the transaction has marked them read-only, so the choice is made
+ * per transaction. Replicas are used round-robin; a replica whose lag exceeds the limit, whose lag check
+ * fails or that refuses a connection is skipped until the next successful check. Without a usable replica,
+ * reads go to the primary.
+ * <p>
+ * A replica may be up to the max lag behind, so a read can miss a write committed just before it. Two
+ * things keep reads that must see such writes on the primary: after a read-write transaction commits on
+ * this instance, read-only transactions stay on the primary for the read-your-writes window; and code
+ * that needs the latest rows whoever wrote them asks for the primary with {@link PrimaryReads}. Writes
+ * made outside a transaction (auto-commit) and writes by other instances do not open the window.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    /**
+     * Seconds since the last replayed transaction, or 0 when the replica has replayed everything it received
+     * (an idle primary would otherwise look like lag). Also 0 on a server that is not a standby.
+     */
+    public static final String POSTGRES_LAG_QUERY =
+        "SELECT COALESCE(CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+            + " ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END, 0)";
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final double maxLagSeconds;
+    private final long readYourWritesNanos;
+    // Commit time (System.nanoTime) of this instance's last read-write transaction
+    private volatile long lastWriteNanos;
+    private final String lagQuery;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryReads;
+    private final ScheduledExecutorService lagChecker;
+
+    /**
+     * @param readYourWritesWindow how long read-only transactions stay on the primary after a write;
+     *                             at least {@code maxLag} to be sure the write is seen, zero to disable
+     */
+    public ReadWriteRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicaPools,
+                                      Duration maxLag, Duration readYourWritesWindow, Duration lagCheckInterval,
+                                      String lagQuery, MeterRegistry meterRegistry) {
+        super(primary);
+        this.primary = primary;
+        // Read-write connections come through here, so their commits can open the read-your-writes window
+        setTargetDataSource(new WriteTracker());
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.readYourWritesNanos = readYourWritesWindow.toNanos();
+        this.lastWriteNanos = System.nanoTime() - readYourWritesNanos;
+        this.lagQuery = lagQuery;
+        this.replicas = replicaPools.stream().map(pool -> new Replica(pool, meterRegistry)).toList();
+        this.primaryReads = readCounter(meterRegistry, primary.getPoolName());
+        setReadOnlyDataSource(new ReplicaSelector());
+
+        checkReplicas();
+        this.lagChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = lagCheckInterval.toMillis();
+        lagChecker.scheduleWithFixedDelay(this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Measure the lag of every replica and update which ones may serve reads.
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.pool.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(lagQuery)) {
+                double lag = rs.next() ? rs.getDouble(1) : 0;
+                replica.lagSeconds = lag;
+                if (lag <= maxLagSeconds) {
+                    replica.markAvailable();
+                } else {
+                    replica.markUnavailable(String.format("lag %.1fs exceeds %.1fs", lag, maxLagSeconds));
+                }
+            } catch (SQLException | RuntimeException e) {
+                replica.lagSeconds = Double.NaN;
+                replica.markUnavailable("lag check failed: " + e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        lagChecker.shutdownNow();
+        replicas.forEach(replica -> replica.pool.close());
+        primary.close();
+    }
+
+    private static Counter readCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("db.routing.read.connections")
+            .description("Read-only connections handed out, by the pool that served them")
+            .tag("target", target)
+            .register(meterRegistry);
+    }
+
+    private boolean recentlyWritten() {
+        return System.nanoTime() - lastWriteNanos < readYourWritesNanos;
+    }
+
+    /**
+     * Target of read-write connections: the primary, noting when their transactions commit
+     */
+    private class WriteTracker extends DelegatingDataSource {
+
+        WriteTracker() {
+            super(primary);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            trackCommit();
+            return super.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            trackCommit();
+            return super.getConnection(username, password);
+        }
+
+        private void trackCommit() {
+            if (readYourWritesNanos > 0 && TransactionSynchronizationManager.isActualTransactionActive()
+                    && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        lastWriteNanos = System.nanoTime();
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Target of read-only connections: the primary when asked for or just written to, else the next
+     * usable replica, else the primary.
+     */
+    private class ReplicaSelector extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return connect(DataSource::getConnection);
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return connect(target -> target.getConnection(username, password));
+        }
+
+        private Connection connect(ConnectionOpener opener) throws SQLException {
+            if (PrimaryReads.isRequested() || recentlyWritten()) {
+                primaryReads.increment();
+                return opener.open(primary);
+            }
+            int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((start + i) % replicas.size());
+                if (!replica.available) {
+                    continue;
+                }
+                try {
+                    Connection connection = opener.open(replica.pool);
+                    replica.reads.increment();
+                    return connection;
+                } catch (SQLFeatureNotSupportedException e) {
+                    // The request itself is unsupported (Hikari pools have fixed credentials), not the replica
+                    throw e;
+                } catch (SQLException e) {
+                    replica.markUnavailable("connection failed: " + e.getMessage());
+                }
+            }
+            primaryReads.increment();
+            return opener.open(primary);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionOpener {
+        Connection open(DataSource target) throws SQLException;
+    }
+
+    private static class Replica {
+
+        private final HikariDataSource pool;
+        private final Counter reads;
+        // Until the first check, so that a replica failing it is reported
+        private volatile boolean available = true;
+        private volatile double lagSeconds = Double.NaN;
+
+        Replica(HikariDataSource pool, MeterRegistry meterRegistry) {
+            this.pool = pool;
+            this.reads = readCounter(meterRegistry, pool.getPoolName());
+            Gauge.builder("db.replica.lag", this, replica -> replica.lagSeconds)
+                .description("Replication lag measured by the last check (NaN when it failed)")
+                .baseUnit("seconds")
+                .tag("target", pool.getPoolName())
+                .register(meterRegistry);
+            Gauge.builder("db.replica.available", this, replica -> replica.available ? 1 : 0)
+                .description("Whether the replica currently serves read-only transactions")
+                .tag("target", pool.getPoolName())
+                .register(meterRegistry);
+        }
+
+        void markAvailable() {
+            if (!available) {
+                log.info("Replica {} available for reads (lag {}s)", pool.getPoolName(), lagSeconds);
+            }
+            available = true;
+        }
+
+        void markUnavailable(String reason) {
+            if (available) {
+                log.warn("Replica {} removed from reads, falling back: {}", pool.getPoolName(), reason);
+            }
+            available = false;
+        }
+    }
+}
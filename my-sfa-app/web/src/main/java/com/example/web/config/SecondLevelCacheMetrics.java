@@ -0,0 +1,70 @@
+package com.example.web.config;
+
+import com.example.core.domain.Account;
+import com.example.core.domain.User;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheableDataStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Second-level cache hits and misses from Hibernate statistics, for entity and natural-id lookups of each
+ * cached entity and for the query cache. {@code hibernate.cache.hit.ratio} is NaN until the first lookup.
+ */
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheMetrics implements MeterBinder {
+
+    private static final List<Class<?>> CACHED_ENTITIES = List.of(User.class, Account.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (Class<?> entity : CACHED_ENTITIES) {
+            String name = entity.getName();
+            bind(registry, "entity", entity.getSimpleName(), () -> statistics.getEntityStatistics(name));
+            bind(registry, "natural-id", entity.getSimpleName(), () -> statistics.getNaturalIdStatistics(name));
+        }
+        bind(registry, "query", "all", statistics,
+                Statistics::getQueryCacheHitCount, Statistics::getQueryCacheMissCount);
+    }
+
+    private static void bind(MeterRegistry registry, String cache, String entity,
+                             Supplier<CacheableDataStatistics> statistics) {
+        bind(registry, cache, entity, statistics,
+                s -> s.get().getCacheHitCount(), s -> s.get().getCacheMissCount());
+    }
+
+    private static <T> void bind(MeterRegistry registry, String cache, String entity, T source,
+                                 ToDoubleFunction<T> hits, ToDoubleFunction<T> misses) {
+        FunctionCounter.builder("hibernate.cache.lookups", source, hits)
+                .description("Second-level cache lookups")
+                .tags("cache", cache, "entity", entity, "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("hibernate.cache.lookups", source, misses)
+                .description("Second-level cache lookups")
+                .tags("cache", cache, "entity", entity, "result", "miss")
+                .register(registry);
+        Gauge.builder("hibernate.cache.hit.ratio", source, s -> {
+                    double hit = hits.applyAsDouble(s);
+                    double total = hit + misses.applyAsDouble(s);
+                    return total == 0 ? Double.NaN : hit / total;
+                })
+                .description("Share of second-level cache lookups answered from the cache")
+                .tags("cache", cache, "entity", entity)
+                .register(registry);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.web.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Extra wiring for the {@code virtual-threads} profile. Spring Boot itself moves Tomcat and the
+ * {@code @Async} executor to virtual threads; this adds the concurrency limit that the bounded
+ * Tomcat worker pool used to provide implicitly.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    public FilterRegistrationBean<JdbcConcurrencyLimitFilter> jdbcConcurrencyLimitFilter(
+            DataSource dataSource,
+            MeterRegistry meterRegistry,
+            @Value("${app.virtual-threads.limiter.permits:0}") int permits,
+            @Value("${app.virtual-threads.limiter.acquire-timeout:2s}") Duration acquireTimeout) {
+        int limit = permits > 0 ? permits : maximumPoolSize(dataSource);
+        log.info("Virtual threads enabled: limiting API requests to {} in flight", limit);
+
+        FilterRegistrationBean<JdbcConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new JdbcConcurrencyLimitFilter(limit, acquireTimeout, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        // After Spring Security, so unauthenticated requests are refused without taking a permit
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+
+    private static int maximumPoolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                // Still -1 until the pool starts when left at Hikari's default
+                int size = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+                return size > 0 ? size : DEFAULT_POOL_SIZE;
+            }
+        } catch (SQLException e) {
+            log.warn("Could not read the connection pool size: {}", e.getMessage());
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+}
@@ -12,6 +12,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -20,6 +21,9 @@ import org.springframework.web.bind.annotation.*;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/v1/auth")
@@ -70,6 +74,13 @@ public class AuthController {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
             return ResponseEntity.badRequest().body(error);
+        } catch (RejectedExecutionException e) {
+            log.warn("Registration rejected for email {}: password hashing pool saturated", request.getEmail());
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Server is busy. Please retry shortly.");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(error);
         } catch (Exception e) {
             log.error("Unexpected error during registration for email {}: {}", request.getEmail(), e.getMessage(), e);
             Map<String, String> error = new HashMap<>();
@@ -88,46 +99,48 @@ public class AuthController {
         @ApiResponse(responseCode = "200", description = "Login successful, JWT token returned"),
         @ApiResponse(responseCode = "401", description = "Invalid credentials"),
         @ApiResponse(responseCode = "400", description = "Invalid input format"),
+        @ApiResponse(responseCode = "503", description = "Login capacity exhausted, retry shortly"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
+    public CompletableFuture<ResponseEntity<?>> login(@Valid @RequestBody LoginRequest request) {
         log.info("Login attempt for email: {}", request.getEmail());
         
-        try {
-            // Authenticate and get token
-            String token = authService.authenticateUser(request.getEmail(), request.getPassword());
-            
-            // Get user details
-            User user = authService.findUserByEmail(request.getEmail())
-                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
-            
-            // Get token expiration
-            LocalDateTime expiresAt = authService.getTokenExpiration();
-            
-            // Build response
-            LoginResponse response = LoginResponse.success(
-                token,
-                user.getEmail(),
-                user.getFirstName(),
-                user.getLastName(),
-                user.getRole().toString(),
-                expiresAt
-            );
-            
-            log.info("Successfully authenticated user: {}", request.getEmail());
-            return ResponseEntity.ok(response);
-            
-        } catch (IllegalArgumentException e) {
-            log.error("Login failed for email {}: {}", request.getEmail(), e.getMessage());
-            Map<String, String> error = new HashMap<>();
-            error.put("error", e.getMessage());
+        // Password hashing runs off the request thread; the response completes asynchronously
+        return authService.login(request.getEmail(), request.getPassword())
+                .<ResponseEntity<?>>thenApply(result -> {
+                    User user = result.user();
+                    LoginResponse response = LoginResponse.success(
+                        result.token(),
+                        user.getEmail(),
+                        user.getFirstName(),
+                        user.getLastName(),
+                        user.getRole().toString(),
+                        result.expiresAt()
+                    );
+                    return ResponseEntity.ok(response);
+                })
+                .exceptionally(ex -> loginFailure(request.getEmail(), ex));
+    }
+
+    private ResponseEntity<?> loginFailure(String email, Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        Map<String, String> error = new HashMap<>();
+        
+        if (cause instanceof IllegalArgumentException) {
+            log.error("Login failed for email {}: {}", email, cause.getMessage());
+            error.put("error", cause.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
-        } catch (Exception e) {
-            log.error("Unexpected error during login for email {}: {}", request.getEmail(), e.getMessage(), e);
-            Map<String, String> error = new HashMap<>();
-            error.put("error", "Login failed. Please try again.");
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         }
+        if (cause instanceof RejectedExecutionException) {
+            log.warn("Login rejected for email {}: password hashing pool saturated", email);
+            error.put("error", "Too many login attempts in progress. Please retry shortly.");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(error);
+        }
+        log.error("Unexpected error during login for email {}: {}", email, cause.getMessage(), cause);
+        error.put("error", "Login failed. Please try again.");
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
 
     /**
@@ -2,8 +2,25 @@ package com.example.web.controller;
 
 import com.example.core.domain.Lead;
 import com.example.core.domain.User;
+import com.example.infra.repository.LeadBulkUpdate;
+import com.example.infra.repository.LeadFilter;
+import com.example.infra.repository.LeadPatch;
 import com.example.infra.repository.LeadRepository;
+import com.example.infra.repository.UserRepository;
+import com.example.infra.repository.projection.LeadListFingerprint;
+import com.example.infra.repository.projection.LeadSummary;
 import com.example.security.service.AuthService;
+import com.example.web.dto.LeadBulkUpdateRequest;
+import com.example.web.dto.LeadCursor;
+import com.example.web.dto.LeadFileFormat;
+import com.example.web.dto.LeadStatistics;
+import com.example.web.service.LeadExportService;
+import com.example.web.service.LeadImportJob;
+import com.example.web.service.LeadImportService;
+import com.example.web.service.LeadQueryCache;
+import com.example.web.service.LeadQueryService;
+import com.example.web.service.LeadSearchService;
+import com.example.web.service.LeadStatsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -11,23 +28,38 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageImpl;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 
 @RestController
 @RequestMapping("/api/v1/leads")
@@ -37,76 +69,68 @@ import java.time.LocalDateTime;
 public class LeadController {
     
     private final LeadRepository leadRepository;
+    private final UserRepository userRepository;
     private final AuthService authService;
+    private final LeadStatsService leadStatsService;
+    private final LeadSearchService leadSearchService;
+    private final LeadExportService leadExportService;
+    private final LeadImportService leadImportService;
+    private final LeadQueryService leadQueryService;
+    private final LeadQueryCache leadQueryCache;
+    
+    private static final DateTimeFormatter EXPORT_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    
+    // Clients may keep a copy but must revalidate it (If-None-Match) before every use;
+    // without an explicit Cache-Control Spring Security sends no-store and nothing is kept
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
     
     @GetMapping
     @Operation(summary = "Get all leads", 
                description = "Retrieves a paginated list of all leads with advanced filtering and search capabilities")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved leads"),
+        @ApiResponse(responseCode = "304", description = "Offset page unchanged since the ETag in If-None-Match"),
         @ApiResponse(responseCode = "403", description = "Access denied - insufficient permissions")
     })
     @PreAuthorize("hasRole('SALES_REP') or hasRole('MANAGER') or hasRole('ADMIN')")
     public ResponseEntity<?> getAllLeads(
+            WebRequest webRequest,
             @Parameter(description = "Pagination parameters") Pageable pageable,
             @Parameter(description = "Filter by status") @RequestParam(required = false) Lead.Status status,
             @Parameter(description = "Filter by source") @RequestParam(required = false) Lead.Source source,
             @Parameter(description = "Search term for company name, contact name, or email") @RequestParam(required = false) String search,
             @Parameter(description = "Start date for filtering (ISO format: 2025-08-01T00:00:00)") @RequestParam(required = false) String startDate,
-            @Parameter(description = "End date for filtering (ISO format: 2025-08-31T23:59:59)") @RequestParam(required = false) String endDate) {
+            @Parameter(description = "End date for filtering (ISO format: 2025-08-31T23:59:59)") @RequestParam(required = false) String endDate,
+            @Parameter(description = "Cursor mode: opaque token from a previous nextCursor (empty for the first page). Newest first, page size from 'size'") @RequestParam(required = false) String after,
+            @Parameter(description = "Cursor mode only: also compute totalElements (costs a COUNT query)") @RequestParam(defaultValue = "false") boolean includeTotal) {
         
-        log.info("Fetching leads with filters - status: {}, source: {}, search: '{}', startDate: {}, endDate: {}", 
-                status, source, search, startDate, endDate);
+        log.info("Fetching leads with filters - status: {}, source: {}, search: '{}', startDate: {}, endDate: {}, cursor: {}", 
+                status, source, search, startDate, endDate, after != null);
         
         try {
-            LocalDateTime startDateTime = null;
-            LocalDateTime endDateTime = null;
-            
-            // Parse date parameters if provided
-            if (startDate != null && !startDate.trim().isEmpty()) {
-                try {
-                    startDateTime = LocalDateTime.parse(startDate);
-                } catch (Exception e) {
-                    log.warn("Invalid start date format: {}", startDate);
-                    Map<String, String> error = new HashMap<>();
-                    error.put("error", "Invalid start date format. Use ISO format: 2025-08-01T00:00:00");
-                    return ResponseEntity.badRequest().body(error);
-                }
+            LeadFilter filter;
+            try {
+                filter = leadFilter(status, source, search, startDate, endDate);
+            } catch (IllegalArgumentException e) {
+                Map<String, String> error = new HashMap<>();
+                error.put("error", e.getMessage());
+                return ResponseEntity.badRequest().body(error);
             }
             
-            if (endDate != null && !endDate.trim().isEmpty()) {
-                try {
-                    endDateTime = LocalDateTime.parse(endDate);
-                } catch (Exception e) {
-                    log.warn("Invalid end date format: {}", endDate);
-                    Map<String, String> error = new HashMap<>();
-                    error.put("error", "Invalid end date format. Use ISO format: 2025-08-31T23:59:59");
-                    return ResponseEntity.badRequest().body(error);
-                }
+            if (after != null) {
+                return getLeadsByCursor(filter, after, pageable.getPageSize(), includeTotal);
             }
             
-            // Validate date range
-            if (startDateTime != null && endDateTime != null && startDateTime.isAfter(endDateTime)) {
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "Start date cannot be after end date");
-                return ResponseEntity.badRequest().body(error);
+            // The fingerprint query replaces the page's count query, so revalidation costs nothing extra.
+            // Cursor pages deliberately skip that count and are not conditional.
+            LeadListFingerprint fingerprint = leadQueryService.fingerprint(filter);
+            if (webRequest.checkNotModified(listEtag(fingerprint))) {
+                log.debug("Lead page unchanged, fingerprint {}", fingerprint);
+                return notModified();
             }
             
-            Page<Lead> leads;
-            
-            // Use advanced filtering if any filter is applied
-            if (status != null || source != null || search != null || startDateTime != null || endDateTime != null) {
-                leads = leadRepository.findLeadsWithFilters(
-                    status, 
-                    source, 
-                    startDateTime, 
-                    endDateTime, 
-                    search, 
-                    pageable
-                );
-            } else {
-                leads = leadRepository.findAll(pageable);
-            }
+            // Only the supplied filters become predicates; no filters pages through all leads
+            Page<LeadSummary> leads = leadQueryService.findPage(filter, pageable, fingerprint.count());
             
             log.info("Successfully retrieved {} leads out of {} total", leads.getNumberOfElements(), leads.getTotalElements());
             
@@ -124,7 +148,7 @@ public class LeadController {
             response.put("last", leads.isLast());
             response.put("empty", leads.isEmpty());
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().cacheControl(REVALIDATE).body(response);
             
         } catch (Exception e) {
             log.error("Error retrieving leads: {}", e.getMessage(), e);
@@ -134,16 +158,254 @@ public class LeadController {
         }
     }
     
+    /**
+     * Strong validator of a single lead: its row version
+     */
+    private static String etag(Lead lead) {
+        return "\"" + lead.getVersion() + "\"";
+    }
+    
+    /**
+     * Validator of a list page, per URL. There is no Last-Modified: deleting a lead lowers the
+     * count but not the latest updatedAt, so If-Modified-Since alone would miss it.
+     */
+    private static String listEtag(LeadListFingerprint fingerprint) {
+        return "\"" + fingerprint.count() + "-" + fingerprint.lastUpdatedAt() + "\"";
+    }
+    
+    private static long lastModified(LocalDateTime updatedAt) {
+        // -1 leaves Last-Modified out
+        return updatedAt != null ? updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+    }
+    
+    /**
+     * Body-less 304; checkNotModified has already set ETag / Last-Modified on the response
+     */
+    private static ResponseEntity<?> notModified() {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDATE).build();
+    }
+    
+    /**
+     * Version named by an If-Match header, or null when there is none or it is "*" (any current version).
+     * Only our own strong ETags can match, so anything else is rejected.
+     *
+     * @throws IllegalArgumentException if the header is not a single lead ETag
+     */
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new IllegalArgumentException("Not a strong ETag: " + ifMatch);
+        }
+        return Long.parseLong(tag.substring(1, tag.length() - 1));
+    }
+    
+    private static ResponseEntity<?> invalidIfMatch(String ifMatch) {
+        log.warn("Invalid If-Match header: {}", ifMatch);
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Invalid If-Match header. Use the ETag of a previous response for this lead");
+        return ResponseEntity.badRequest().body(error);
+    }
+    
+    private static ResponseEntity<?> conflict(Long id, String ifMatch) {
+        log.warn("Conflicting update of lead {} (If-Match: {})", id, ifMatch);
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Lead was changed by someone else. Reload it and apply your changes again");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+    
+    /**
+     * Keyset page of leads ordered by createdAt DESC, id DESC.
+     * Fetches one extra row to detect whether a next page exists and skips the count unless asked.
+     */
+    private ResponseEntity<?> getLeadsByCursor(LeadFilter filter, String after, int size, boolean includeTotal) {
+        LeadCursor cursor = null;
+        if (!after.isBlank()) {
+            try {
+                cursor = LeadCursor.decode(after);
+            } catch (IllegalArgumentException e) {
+                log.warn("Invalid lead cursor: {}", after);
+                Map<String, String> error = new HashMap<>();
+                error.put("error", "Invalid cursor. Use the nextCursor value from a previous response");
+                return ResponseEntity.badRequest().body(error);
+            }
+        }
+        
+        List<LeadSummary> rows = leadRepository.findLeadsAfter(
+            filter,
+            cursor != null ? cursor.getCreatedAt() : null,
+            cursor != null ? cursor.getId() : null,
+            size + 1
+        );
+        
+        boolean hasNext = rows.size() > size;
+        List<LeadSummary> content = hasNext ? rows.subList(0, size) : rows;
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("content", content);
+        response.put("size", size);
+        response.put("numberOfElements", content.size());
+        response.put("hasNext", hasNext);
+        response.put("nextCursor", hasNext ? LeadCursor.of(content.get(content.size() - 1)).encode() : null);
+        response.put("first", cursor == null);
+        response.put("empty", content.isEmpty());
+        if (includeTotal) {
+            response.put("totalElements", leadRepository.countLeads(filter));
+        }
+        
+        log.info("Successfully retrieved {} leads by cursor, hasNext: {}", content.size(), hasNext);
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/export")
+    @Operation(summary = "Export leads", 
+               description = "Streams every lead matching the filters as NDJSON (one JSON object per line) or CSV, ordered by id")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export stream started"),
+        @ApiResponse(responseCode = "400", description = "Invalid filter parameters"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Access denied")
+    })
+    @PreAuthorize("hasRole('SALES_REP') or hasRole('MANAGER') or hasRole('ADMIN')")
+    public ResponseEntity<?> exportLeads(
+            @Parameter(description = "Output format: ndjson or csv") @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = "Filter by status") @RequestParam(required = false) Lead.Status status,
+            @Parameter(description = "Filter by source") @RequestParam(required = false) Lead.Source source,
+            @Parameter(description = "Search term for company name, contact name, or email") @RequestParam(required = false) String search,
+            @Parameter(description = "Start date for filtering (ISO format: 2025-08-01T00:00:00)") @RequestParam(required = false) String startDate,
+            @Parameter(description = "End date for filtering (ISO format: 2025-08-31T23:59:59)") @RequestParam(required = false) String endDate) {
+        
+        log.info("Exporting leads as {} - status: {}, source: {}, search: '{}', startDate: {}, endDate: {}", 
+                format, status, source, search, startDate, endDate);
+        
+        LeadFileFormat exportFormat;
+        try {
+            exportFormat = LeadFileFormat.fromName(format);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Invalid format. Use ndjson or csv");
+            return ResponseEntity.badRequest().body(error);
+        }
+        
+        LeadFilter filter;
+        try {
+            filter = leadFilter(status, source, search, startDate, endDate);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+        
+        // Rows are written as they are read; the body runs on the MVC async executor
+        StreamingResponseBody body = out -> leadExportService.export(filter, exportFormat, out);
+        String filename = "leads-" + LocalDateTime.now().format(EXPORT_TIMESTAMP) + "." + exportFormat.getExtension();
+        
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+            .body(body);
+    }
+    
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Import leads", 
+               description = "Queues a bulk import of a CSV (with header row) or NDJSON file. Imported leads are owned by the caller. Poll the returned job for progress and per-row errors; any instance can answer. The file is processed by the instance that received it: if that instance stops, the job is reported as failed and the file must be submitted again")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "202", description = "Import queued"),
+        @ApiResponse(responseCode = "400", description = "Empty file or unknown format"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized"),
+        @ApiResponse(responseCode = "403", description = "Access denied"),
+        @ApiResponse(responseCode = "503", description = "Too many imports in progress")
+    })
+    @PreAuthorize("hasRole('SALES_REP') or hasRole('MANAGER') or hasRole('ADMIN')")
+    public ResponseEntity<?> importLeads(
+            @Parameter(description = "CSV or NDJSON file") @RequestParam("file") MultipartFile file,
+            @Parameter(description = "csv or ndjson; inferred from the file extension when omitted") @RequestParam(required = false) String format) {
+        
+        log.info("Lead import upload: {} ({} bytes)", file.getOriginalFilename(), file.getSize());
+        
+        if (file.isEmpty()) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Uploaded file is empty");
+            return ResponseEntity.badRequest().body(error);
+        }
+        
+        LeadFileFormat importFormat;
+        try {
+            importFormat = format != null ? LeadFileFormat.fromName(format) : LeadFileFormat.fromFilename(file.getOriginalFilename());
+        } catch (IllegalArgumentException e) {
+            importFormat = null;
+        }
+        if (importFormat == null) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Unknown file format. Use a .csv or .ndjson file, or pass format=csv|ndjson");
+            return ResponseEntity.badRequest().body(error);
+        }
+        
+        try {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            User owner = authService.findUserByEmail(auth.getName())
+                    .orElseThrow(() -> new IllegalArgumentException("User not found"));
+            
+            LeadImportJob job = leadImportService.submit(file, importFormat, owner);
+            
+            return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/leads/import/" + job.getId()))
+                .body(job.toStatus());
+            
+        } catch (TaskRejectedException e) {
+            log.warn("Lead import rejected, queue full");
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Too many imports in progress. Please retry shortly");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body(error);
+        } catch (Exception e) {
+            log.error("Error queueing lead import: {}", e.getMessage(), e);
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to start import: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
+    @GetMapping("/import/{jobId}")
+    @Operation(summary = "Get lead import progress", 
+               description = "Returns the state, row counters and the first rejected rows of an import job. Progress from other instances is updated after every batch; finished jobs are kept for an hour")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Job status returned"),
+        @ApiResponse(responseCode = "404", description = "Unknown or expired job")
+    })
+    @PreAuthorize("hasRole('SALES_REP') or hasRole('MANAGER') or hasRole('ADMIN')")
+    public ResponseEntity<?> getImportStatus(@PathVariable String jobId) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        boolean isManager = auth.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_MANAGER") || a.getAuthority().equals("ROLE_ADMIN"));
+        
+        // Sales reps only see their own jobs
+        Optional<LeadImportJob> job = leadImportService.findJob(jobId)
+                .filter(j -> isManager || j.getSubmittedBy().equals(auth.getName()));
+        
+        if (job.isEmpty()) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Import job not found");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        }
+        return ResponseEntity.ok(job.get().toStatus());
+    }
+    
     @GetMapping("/{id}")
     @Operation(summary = "Get lead by ID", 
                description = "Retrieves a specific lead by its unique identifier")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Lead found and returned"),
+        @ApiResponse(responseCode = "304", description = "Lead unchanged since If-None-Match / If-Modified-Since"),
         @ApiResponse(responseCode = "404", description = "Lead not found"),
         @ApiResponse(responseCode = "403", description = "Access denied - insufficient permissions")
     })
     @PreAuthorize("hasRole('SALES_REP') or hasRole('MANAGER') or hasRole('ADMIN')")
     public ResponseEntity<?> getLeadById(
+            WebRequest webRequest,
             @Parameter(description = "Lead ID", required = true) @PathVariable Long id) {
         
         log.info("Fetching lead with ID: {}", id);
@@ -152,8 +414,12 @@ public class LeadController {
             Optional<Lead> lead = leadRepository.findById(id);
             
             if (lead.isPresent()) {
+                if (webRequest.checkNotModified(etag(lead.get()), lastModified(lead.get().getUpdatedAt()))) {
+                    log.debug("Lead {} unchanged, version {}", id, lead.get().getVersion());
+                    return notModified();
+                }
                 log.info("Successfully found lead with ID: {}", id);
-                return ResponseEntity.ok(lead.get());
+                return ResponseEntity.ok().cacheControl(REVALIDATE).body(lead.get());
             } else {
                 log.warn("Lead not found with ID: {}", id);
                 Map<String, String> error = new HashMap<>();
@@ -214,6 +480,7 @@ public class LeadController {
             lead.setOwner(currentUser);
             
             Lead savedLead = leadRepository.save(lead);
+            leadQueryCache.leadsChanged(List.of(savedLead.getStatus()));
             log.info("Successfully created lead with ID: {}", savedLead.getId());
             return ResponseEntity.status(HttpStatus.CREATED).body(savedLead);
             
@@ -232,26 +499,28 @@ public class LeadController {
     
     @PutMapping("/{id}")
     @Operation(summary = "Update an existing lead", 
-               description = "Updates all fields of an existing lead")
+               description = "Updates all fields of an existing lead. Send the lead's ETag in If-Match to reject the update if someone else changed it first")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Lead successfully updated"),
         @ApiResponse(responseCode = "404", description = "Lead not found"),
         @ApiResponse(responseCode = "400", description = "Invalid input data"),
+        @ApiResponse(responseCode = "409", description = "Lead changed since the version in If-Match, or concurrently"),
         @ApiResponse(responseCode = "403", description = "Access denied - insufficient permissions")
     })
     @PreAuthorize("hasRole('SALES_REP') or hasRole('MANAGER') or hasRole('ADMIN')")
     public ResponseEntity<?> updateLead(
             @Parameter(description = "Lead ID", required = true) @PathVariable Long id, 
+            @Parameter(description = "ETag of the version being replaced") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Parameter(description = "Updated lead data", required = true) @Valid @RequestBody Lead lead) {
         
         log.info("Updating lead with ID: {}", id);
         
         try {
-            if (!leadRepository.existsById(id)) {
-                log.warn("Lead not found for update with ID: {}", id);
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "Lead not found with ID: " + id);
-                return ResponseEntity.notFound().build();
+            Long expectedVersion;
+            try {
+                expectedVersion = expectedVersion(ifMatch);
+            } catch (IllegalArgumentException e) {
+                return invalidIfMatch(ifMatch);
             }
             
             // Validate required fields
@@ -267,11 +536,32 @@ public class LeadController {
                 return ResponseEntity.badRequest().body(error);
             }
             
-            lead.setId(id);
-            Lead updatedLead = leadRepository.save(lead);
+            // Copied onto the loaded lead, so only the fields that differ are written
+            Set<Lead.Status> statuses = EnumSet.noneOf(Lead.Status.class);
+            Optional<Lead> updatedLead = leadRepository.update(id, expectedVersion, existing -> {
+                statuses.add(existing.getStatus());
+                existing.setCompanyName(lead.getCompanyName());
+                existing.setContactName(lead.getContactName());
+                existing.setEmail(lead.getEmail());
+                existing.setPhone(lead.getPhone());
+                existing.setStatus(lead.getStatus());
+                existing.setSource(lead.getSource());
+                existing.setAccount(lead.getAccount());
+                if (lead.getOwner() != null) {
+                    existing.setOwner(lead.getOwner());
+                }
+                statuses.add(existing.getStatus());
+            });
+            if (updatedLead.isEmpty()) {
+                log.warn("Lead not found for update with ID: {}", id);
+                return ResponseEntity.notFound().build();
+            }
+            leadQueryCache.leadsChanged(statuses);
             log.info("Successfully updated lead with ID: {}", id);
-            return ResponseEntity.ok(updatedLead);
+            return ResponseEntity.ok().eTag(etag(updatedLead.get())).body(updatedLead.get());
             
+        } catch (OptimisticLockingFailureException e) {
+            return conflict(id, ifMatch);
         } catch (ConstraintViolationException e) {
             log.error("Validation error updating lead {}: {}", id, e.getMessage());
             Map<String, String> error = new HashMap<>();
@@ -287,61 +577,50 @@ public class LeadController {
     
     @PatchMapping("/{id}")
     @Operation(summary = "Partially update a lead", 
-               description = "Updates specific fields of an existing lead")
+               description = "Updates specific fields of an existing lead, writing only the columns that change. Send the lead's ETag in If-Match to reject the update if someone else changed it first")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Lead successfully updated"),
         @ApiResponse(responseCode = "404", description = "Lead not found"),
         @ApiResponse(responseCode = "400", description = "Invalid input data"),
+        @ApiResponse(responseCode = "409", description = "Lead changed since the version in If-Match, or concurrently"),
         @ApiResponse(responseCode = "403", description = "Access denied - insufficient permissions")
     })
     @PreAuthorize("hasRole('SALES_REP') or hasRole('MANAGER') or hasRole('ADMIN')")
     public ResponseEntity<?> partialUpdateLead(
             @Parameter(description = "Lead ID", required = true) @PathVariable Long id,
+            @Parameter(description = "ETag of the version being edited") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Parameter(description = "Partial lead data", required = true) @RequestBody Map<String, Object> updates) {
         
         log.info("Partially updating lead with ID: {}", id);
         
+        Long expectedVersion;
         try {
-            Optional<Lead> optionalLead = leadRepository.findById(id);
-            if (!optionalLead.isPresent()) {
+            expectedVersion = expectedVersion(ifMatch);
+        } catch (IllegalArgumentException e) {
+            return invalidIfMatch(ifMatch);
+        }
+        
+        try {
+            LeadPatch patch = LeadPatch.from(updates);
+            
+            Set<Lead.Status> statuses = EnumSet.noneOf(Lead.Status.class);
+            Optional<Lead> updatedLead = leadRepository.update(id, expectedVersion, lead -> {
+                statuses.add(lead.getStatus());
+                patch.accept(lead);
+                statuses.add(lead.getStatus());
+            });
+            if (updatedLead.isEmpty()) {
                 log.warn("Lead not found for partial update with ID: {}", id);
-                Map<String, String> error = new HashMap<>();
-                error.put("error", "Lead not found with ID: " + id);
                 return ResponseEntity.notFound().build();
             }
-            
-            Lead existingLead = optionalLead.get();
-            
-            // Apply updates
-            updates.forEach((key, value) -> {
-                switch (key.toLowerCase()) {
-                    case "companyname":
-                        existingLead.setCompanyName((String) value);
-                        break;
-                    case "contactname":
-                        existingLead.setContactName((String) value);
-                        break;
-                    case "email":
-                        existingLead.setEmail((String) value);
-                        break;
-                    case "phone":
-                        existingLead.setPhone((String) value);
-                        break;
-                    case "status":
-                        existingLead.setStatus(Lead.Status.valueOf((String) value));
-                        break;
-                    case "source":
-                        existingLead.setSource(Lead.Source.valueOf((String) value));
-                        break;
-                }
-            });
-            
-            Lead updatedLead = leadRepository.save(existingLead);
+            leadQueryCache.leadsChanged(statuses);
             log.info("Successfully partially updated lead with ID: {}", id);
-            return ResponseEntity.ok(updatedLead);
+            return ResponseEntity.ok().eTag(etag(updatedLead.get())).body(updatedLead.get());
             
+        } catch (OptimisticLockingFailureException e) {
+            return conflict(id, ifMatch);
         } catch (IllegalArgumentException e) {
-            log.error("Invalid enum value in partial update for lead {}: {}", id, e.getMessage());
+            log.error("Invalid value in partial update for lead {}: {}", id, e.getMessage());
             Map<String, String> error = new HashMap<>();
             error.put("error", "Invalid value provided: " + e.getMessage());
             return ResponseEntity.badRequest().body(error);
@@ -374,6 +653,7 @@ public class LeadController {
             }
             
             leadRepository.deleteById(id);
+            leadQueryCache.allLeadsChanged();
             log.info("Successfully deleted lead with ID: {}", id);
             return ResponseEntity.noContent().build();
             
@@ -385,6 +665,180 @@ public class LeadController {
         }
     }
     
+    @PatchMapping("/bulk")
+    @Operation(summary = "Bulk update leads", 
+               description = "Sets status, source and/or owner on the given lead ids, or on every lead matching the filter, in a single statement. Reassigning owners requires MANAGER or ADMIN")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Leads updated, returns the affected row count"),
+        @ApiResponse(responseCode = "400", description = "Invalid target or no changes given"),
+        @ApiResponse(responseCode = "403", description = "Access denied - insufficient permissions")
+    })
+    @PreAuthorize("hasRole('SALES_REP') or hasRole('MANAGER') or hasRole('ADMIN')")
+    public ResponseEntity<?> bulkUpdateLeads(
+            @Parameter(description = "Target leads and changes", required = true) @Valid @RequestBody LeadBulkUpdateRequest request) {
+        
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        log.info("Bulk updating leads - ids: {}, filter: {}, status: {}, source: {}, ownerId: {}",
+                byIds ? request.getIds().size() : null, request.getFilter(), request.getStatus(), request.getSource(), request.getOwnerId());
+        
+        Map<String, String> error = new HashMap<>();
+        LeadBulkUpdate changes = LeadBulkUpdate.builder()
+            .status(request.getStatus())
+            .source(request.getSource())
+            .ownerId(request.getOwnerId())
+            .build();
+        LeadFilter filter = toLeadFilter(request.getFilter());
+        
+        if (changes.isEmpty()) {
+            error.put("error", "Nothing to update. Provide status, source or ownerId");
+            return ResponseEntity.badRequest().body(error);
+        }
+        if (byIds == (filter != null)) {
+            error.put("error", "Provide either ids or filter, not both");
+            return ResponseEntity.badRequest().body(error);
+        }
+        if (filter != null && filter.isEmpty()) {
+            error.put("error", "Filter must contain at least one criterion");
+            return ResponseEntity.badRequest().body(error);
+        }
+        
+        if (changes.getOwnerId() != null) {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            boolean isManager = auth.getAuthorities().stream()
+                    .anyMatch(a -> a.getAuthority().equals("ROLE_MANAGER") || a.getAuthority().equals("ROLE_ADMIN"));
+            if (!isManager) {
+                error.put("error", "Only managers can reassign lead owners");
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+            }
+            if (!userRepository.existsById(changes.getOwnerId())) {
+                error.put("error", "Owner not found with ID: " + changes.getOwnerId());
+                return ResponseEntity.badRequest().body(error);
+            }
+        }
+        
+        try {
+            int updated = byIds
+                ? leadRepository.bulkUpdate(request.getIds(), changes)
+                : leadRepository.bulkUpdate(filter, changes);
+            if (filter != null && filter.getStatus() != null) {
+                leadQueryCache.leadsChanged(changes.getStatus() != null
+                    ? List.of(filter.getStatus(), changes.getStatus())
+                    : List.of(filter.getStatus()));
+            } else {
+                leadQueryCache.allLeadsChanged();
+            }
+            
+            log.info("Bulk updated {} leads", updated);
+            Map<String, Object> response = new HashMap<>();
+            response.put("updated", updated);
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            log.error("Error bulk updating leads: {}", e.getMessage(), e);
+            error.put("error", "Failed to update leads");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
+    @DeleteMapping("/bulk")
+    @Operation(summary = "Bulk delete leads", 
+               description = "Permanently removes every lead matching the filter, with its activities. At least one filter is required")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Leads deleted, returns the affected row count"),
+        @ApiResponse(responseCode = "400", description = "No filter or invalid filter"),
+        @ApiResponse(responseCode = "403", description = "Access denied - insufficient permissions")
+    })
+    @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
+    public ResponseEntity<?> bulkDeleteLeads(
+            @Parameter(description = "Filter by status") @RequestParam(required = false) Lead.Status status,
+            @Parameter(description = "Filter by source") @RequestParam(required = false) Lead.Source source,
+            @Parameter(description = "Search term for company name, contact name, or email") @RequestParam(required = false) String search,
+            @Parameter(description = "Start date for filtering (ISO format: 2025-08-01T00:00:00)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @Parameter(description = "End date for filtering (ISO format: 2025-08-31T23:59:59)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        
+        LeadFilter filter = LeadFilter.builder()
+            .status(status)
+            .source(source)
+            .searchTerm(search)
+            .startDate(startDate)
+            .endDate(endDate)
+            .build();
+        
+        log.info("Bulk deleting leads matching {}", filter);
+        
+        if (filter.isEmpty()) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "At least one filter is required for bulk delete");
+            return ResponseEntity.badRequest().body(error);
+        }
+        
+        try {
+            int deleted = leadRepository.bulkDelete(filter);
+            if (status != null) {
+                leadQueryCache.leadsChanged(List.of(status));
+            } else {
+                leadQueryCache.allLeadsChanged();
+            }
+            
+            log.info("Bulk deleted {} leads", deleted);
+            Map<String, Object> response = new HashMap<>();
+            response.put("deleted", deleted);
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            log.error("Error bulk deleting leads: {}", e.getMessage(), e);
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to delete leads");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
+    /**
+     * Filter from the list and export query parameters; blank dates are ignored
+     *
+     * @throws IllegalArgumentException with the message for the client if a date is malformed or the range reversed
+     */
+    private static LeadFilter leadFilter(Lead.Status status, Lead.Source source, String search,
+                                         String startDate, String endDate) {
+        LocalDateTime startDateTime = parseDate(startDate, "Invalid start date format. Use ISO format: 2025-08-01T00:00:00");
+        LocalDateTime endDateTime = parseDate(endDate, "Invalid end date format. Use ISO format: 2025-08-31T23:59:59");
+        if (startDateTime != null && endDateTime != null && startDateTime.isAfter(endDateTime)) {
+            throw new IllegalArgumentException("Start date cannot be after end date");
+        }
+        return LeadFilter.builder()
+            .status(status)
+            .source(source)
+            .startDate(startDateTime)
+            .endDate(endDateTime)
+            .searchTerm(search)
+            .build();
+    }
+    
+    private static LocalDateTime parseDate(String value, String error) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            log.warn("Invalid date filter: {}", value);
+            throw new IllegalArgumentException(error);
+        }
+    }
+    
+    private static LeadFilter toLeadFilter(LeadBulkUpdateRequest.Filter filter) {
+        if (filter == null) {
+            return null;
+        }
+        return LeadFilter.builder()
+            .status(filter.getStatus())
+            .source(filter.getSource())
+            .searchTerm(filter.getSearch())
+            .startDate(filter.getStartDate())
+            .endDate(filter.getEndDate())
+            .build();
+    }
+    
     @GetMapping("/status/{status}")
     @Operation(summary = "Get leads by status", 
                description = "Retrieves all leads with a specific status")
@@ -400,7 +854,7 @@ public class LeadController {
         log.info("Fetching leads with status: {}", status);
         
         try {
-            List<Lead> leads = leadRepository.findByStatus(status);
+            List<LeadSummary> leads = leadRepository.findSummariesByStatus(status);
             log.info("Successfully retrieved {} leads with status: {}", leads.size(), status);
             return ResponseEntity.ok(leads);
         } catch (Exception e) {
@@ -433,13 +887,14 @@ public class LeadController {
         log.info("Searching leads with term: '{}'", q);
         
         try {
-            Page<Lead> leads = leadRepository.searchLeads(q.trim(), pageable);
+            Page<LeadSummary> leads = leadSearchService.search(q.trim(), pageable);
             log.info("Search returned {} results for term: '{}'", leads.getTotalElements(), q);
             
             Map<String, Object> response = new HashMap<>();
             response.put("content", leads.getContent());
             response.put("searchTerm", q);
             response.put("totalResults", leads.getTotalElements());
+            response.put("ranked", leadSearchService.isTrigramEnabled());
             response.put("pageable", Map.of(
                 "pageNumber", leads.getNumber(),
                 "pageSize", leads.getSize()
@@ -470,7 +925,7 @@ public class LeadController {
         log.info("Fetching leads with source: {}", source);
         
         try {
-            Page<Lead> leads = leadRepository.findBySourceWithPagination(source, pageable);
+            Page<LeadSummary> leads = leadRepository.findSummariesBySource(source, pageable);
             log.info("Successfully retrieved {} leads with source: {}", leads.getTotalElements(), source);
             return ResponseEntity.ok(leads);
         } catch (Exception e) {
@@ -493,39 +948,10 @@ public class LeadController {
         log.info("Fetching lead statistics");
         
         try {
-            Map<String, Object> stats = new HashMap<>();
-            
-            // Count by status
-            Map<String, Long> statusCounts = new HashMap<>();
-            for (Lead.Status status : Lead.Status.values()) {
-                List<Lead> leads = leadRepository.findByStatus(status);
-                statusCounts.put(status.name(), (long) leads.size());
-            }
-            
-            // Count by source
-            Map<String, Long> sourceCounts = new HashMap<>();
-            for (Lead.Source source : Lead.Source.values()) {
-                List<Lead> leads = leadRepository.findBySource(source);
-                sourceCounts.put(source.name(), (long) leads.size());
-            }
-            
-            // Total counts
-            long totalLeads = leadRepository.count();
-            
-            // Recent activity (last 30 days)
-            LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-            List<Lead> recentLeads = leadRepository.findByCreatedAtBetween(
-                thirtyDaysAgo, LocalDateTime.now()
-            );
-            
-            stats.put("totalLeads", totalLeads);
-            stats.put("statusBreakdown", statusCounts);
-            stats.put("sourceBreakdown", sourceCounts);
-            stats.put("recentLeads", recentLeads.size());
-            stats.put("generatedAt", LocalDateTime.now());
+            LeadStatistics stats = leadStatsService.getStatistics();
             
             log.info("Successfully retrieved lead statistics - total: {}, recent: {}", 
-                    totalLeads, recentLeads.size());
+                    stats.getTotalLeads(), stats.getRecentLeads());
             return ResponseEntity.ok(stats);
         } catch (Exception e) {
             log.error("Error retrieving lead statistics: {}", e.getMessage(), e);
@@ -547,12 +973,7 @@ public class LeadController {
         log.info("Fetching lead counts by status");
         
         try {
-            Map<String, Long> counts = new HashMap<>();
-            
-            for (Lead.Status status : Lead.Status.values()) {
-                List<Lead> leads = leadRepository.findByStatus(status);
-                counts.put(status.name(), (long) leads.size());
-            }
+            Map<String, Long> counts = leadStatsService.getStatusCounts();
             
             log.info("Successfully retrieved lead counts: {}", counts);
             return ResponseEntity.ok(counts);
@@ -0,0 +1,253 @@
+package com.example.web.controller;
+
+import com.example.web.dto.ActiveLeadReport;
+import com.example.web.dto.ActivityReport;
+import com.example.web.dto.ConversionReport;
+import com.example.web.dto.ForecastReport;
+import com.example.web.dto.PipelineReport;
+import com.example.web.service.ActiveLeadReportService;
+import com.example.web.service.ActivityReportService;
+import com.example.web.service.ConversionReportService;
+import com.example.web.service.ForecastReportService;
+import com.example.web.service.PipelineReportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.IsoFields;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/reports")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Reports", description = "Sales reports and analytics for managers")
+public class ReportController {
+
+    private final PipelineReportService pipelineReportService;
+    private final ForecastReportService forecastReportService;
+    private final ConversionReportService conversionReportService;
+    private final ActivityReportService activityReportService;
+    private final ActiveLeadReportService activeLeadReportService;
+
+    @GetMapping("/pipeline")
+    @Operation(summary = "Get the sales pipeline",
+               description = "Opportunity count, amount and probability-weighted amount by stage and by owner")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved the pipeline report"),
+        @ApiResponse(responseCode = "403", description = "Access denied - insufficient permissions")
+    })
+    @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
+    public ResponseEntity<?> getPipeline() {
+        log.info("Fetching pipeline report");
+        
+        try {
+            PipelineReport report = pipelineReportService.getPipeline();
+            log.info("Successfully retrieved pipeline report - opportunities: {}, owners: {}",
+                    report.getTotalCount(), report.getOwners().size());
+            return ResponseEntity.ok(report);
+        } catch (Exception e) {
+            log.error("Error retrieving pipeline report: {}", e.getMessage(), e);
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to retrieve pipeline report");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
+    @GetMapping("/forecast")
+    @Operation(summary = "Get the revenue forecast",
+               description = "Probability-weighted amounts by close month or quarter, forecast category and owner. " +
+                             "Defaults to the current quarter and the three after it")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved the forecast report"),
+        @ApiResponse(responseCode = "400", description = "Invalid period or date range"),
+        @ApiResponse(responseCode = "403", description = "Access denied - insufficient permissions")
+    })
+    @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
+    public ResponseEntity<?> getForecast(
+            @Parameter(description = "Bucket size: month or quarter") @RequestParam(defaultValue = "quarter") String period,
+            @Parameter(description = "First close date (ISO format: 2025-07-01), widened to the start of its bucket") @RequestParam(required = false) String from,
+            @Parameter(description = "Last close date (ISO format: 2025-12-31), widened to the end of its bucket") @RequestParam(required = false) String to,
+            @Parameter(description = "Restrict the forecast to one owner") @RequestParam(required = false) Long ownerId) {
+        
+        log.info("Fetching forecast report - period: {}, from: {}, to: {}, ownerId: {}", period, from, to, ownerId);
+        
+        ForecastReportService.Period bucketPeriod;
+        LocalDate fromDate;
+        LocalDate toDate;
+        try {
+            bucketPeriod = ForecastReportService.Period.valueOf(period.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Invalid period. Use month or quarter");
+            return ResponseEntity.badRequest().body(error);
+        }
+        try {
+            LocalDate today = LocalDate.now();
+            fromDate = from != null && !from.isBlank() ? LocalDate.parse(from)
+                    : today.withDayOfMonth(1).withMonth((today.get(IsoFields.QUARTER_OF_YEAR) - 1) * 3 + 1);
+            toDate = to != null && !to.isBlank() ? LocalDate.parse(to) : fromDate.plusMonths(12).minusDays(1);
+        } catch (DateTimeParseException e) {
+            log.warn("Invalid forecast date range: {} - {}", from, to);
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Invalid date format. Use ISO format: 2025-07-01");
+            return ResponseEntity.badRequest().body(error);
+        }
+        
+        try {
+            ForecastReport report = forecastReportService.getForecast(bucketPeriod, fromDate, toDate, ownerId);
+            log.info("Successfully retrieved forecast report - buckets: {}, best case: {}",
+                    report.getBuckets().size(), report.getTotals().getBestCase());
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (Exception e) {
+            log.error("Error retrieving forecast report: {}", e.getMessage(), e);
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to retrieve forecast report");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
+    @GetMapping("/conversion")
+    @Operation(summary = "Get the lead conversion funnel",
+               description = "NEW to CONTACTED to QUALIFIED to CONVERTED rates and median time in each status for the leads " +
+                             "created in the range, overall, per source and per owner. Defaults to the last 90 days. " +
+                             "Status history is written asynchronously, so the latest changes may be missing for a few seconds")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved the conversion report"),
+        @ApiResponse(responseCode = "400", description = "Invalid date range"),
+        @ApiResponse(responseCode = "403", description = "Access denied - insufficient permissions")
+    })
+    @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
+    public ResponseEntity<?> getConversion(
+            @Parameter(description = "First creation date (ISO format: 2025-07-01)") @RequestParam(required = false) String from,
+            @Parameter(description = "Last creation date (ISO format: 2025-09-30)") @RequestParam(required = false) String to) {
+        
+        log.info("Fetching conversion report - from: {}, to: {}", from, to);
+        
+        LocalDate fromDate;
+        LocalDate toDate;
+        try {
+            toDate = to != null && !to.isBlank() ? LocalDate.parse(to) : LocalDate.now();
+            fromDate = from != null && !from.isBlank() ? LocalDate.parse(from) : toDate.minusDays(90);
+        } catch (DateTimeParseException e) {
+            log.warn("Invalid conversion date range: {} - {}", from, to);
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Invalid date format. Use ISO format: 2025-07-01");
+            return ResponseEntity.badRequest().body(error);
+        }
+        
+        try {
+            ConversionReport report = conversionReportService.getConversion(fromDate, toDate);
+            log.info("Successfully retrieved conversion report - leads: {}, conversion rate: {}",
+                    report.getOverall().getLeads(), report.getOverall().getConversionRate());
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (Exception e) {
+            log.error("Error retrieving conversion report: {}", e.getMessage(), e);
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to retrieve conversion report");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
+    @GetMapping("/activities")
+    @Operation(summary = "Get the activity summary",
+               description = "Activity counts by day, week or month, type, status and user, read from daily rollups. " +
+                             "Defaults to the last 30 days by day")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved the activity report"),
+        @ApiResponse(responseCode = "400", description = "Invalid granularity or date range"),
+        @ApiResponse(responseCode = "403", description = "Access denied - insufficient permissions")
+    })
+    @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
+    public ResponseEntity<?> getActivities(
+            @Parameter(description = "Bucket size: day, week or month") @RequestParam(defaultValue = "day") String granularity,
+            @Parameter(description = "First activity date (ISO format: 2025-08-01), widened to the start of its bucket") @RequestParam(required = false) String from,
+            @Parameter(description = "Last activity date (ISO format: 2025-08-31), widened to the end of its bucket") @RequestParam(required = false) String to,
+            @Parameter(description = "Restrict the report to one user") @RequestParam(required = false) Long userId) {
+        
+        log.info("Fetching activity report - granularity: {}, from: {}, to: {}, userId: {}", granularity, from, to, userId);
+        
+        ActivityReportService.Granularity bucketSize;
+        LocalDate fromDate;
+        LocalDate toDate;
+        try {
+            bucketSize = ActivityReportService.Granularity.valueOf(granularity.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Invalid granularity. Use day, week or month");
+            return ResponseEntity.badRequest().body(error);
+        }
+        try {
+            toDate = to != null && !to.isBlank() ? LocalDate.parse(to) : LocalDate.now();
+            fromDate = from != null && !from.isBlank() ? LocalDate.parse(from) : toDate.minusDays(29);
+        } catch (DateTimeParseException e) {
+            log.warn("Invalid activity report date range: {} - {}", from, to);
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Invalid date format. Use ISO format: 2025-08-01");
+            return ResponseEntity.badRequest().body(error);
+        }
+        
+        try {
+            ActivityReport report = activityReportService.getActivities(bucketSize, fromDate, toDate, userId);
+            log.info("Successfully retrieved activity report - buckets: {}, activities: {}",
+                    report.getBuckets().size(), report.getTotals().getTotal());
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        } catch (Exception e) {
+            log.error("Error retrieving activity report: {}", e.getMessage(), e);
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to retrieve activity report");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+    
+    @GetMapping("/active-leads")
+    @Operation(summary = "Get active leads by owner",
+               description = "Counts of leads that are neither lost nor converted by owner, status and source, read from " +
+                             "a periodically refreshed materialized view. dataAsOf and stale tell how current it is")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved the active lead report"),
+        @ApiResponse(responseCode = "403", description = "Access denied - insufficient permissions")
+    })
+    @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
+    public ResponseEntity<?> getActiveLeads(
+            @Parameter(description = "Restrict the report to one owner") @RequestParam(required = false) Long ownerId) {
+        
+        log.info("Fetching active lead report - ownerId: {}", ownerId);
+        
+        try {
+            ActiveLeadReport report = activeLeadReportService.getActiveLeads(ownerId);
+            log.info("Successfully retrieved active lead report - leads: {}, data as of: {}, stale: {}",
+                    report.getTotals().getTotal(), report.getDataAsOf(), report.isStale());
+            return ResponseEntity.ok(report);
+        } catch (Exception e) {
+            log.error("Error retrieving active lead report: {}", e.getMessage(), e);
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to retrieve active lead report");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+}
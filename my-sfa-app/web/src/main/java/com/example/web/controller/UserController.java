@@ -0,0 +1,112 @@
+package com.example.web.controller;
+
+import com.example.core.domain.User;
+import com.example.security.service.AuthService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/users")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "User Management", description = "User administration operations")
+public class UserController {
+
+    private final AuthService authService;
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Deactivate a user", 
+               description = "Soft-deletes a user: the account can no longer log in and its issued tokens are refused on every instance within app.jwt.principal-cache.ttl")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "User deactivated"),
+        @ApiResponse(responseCode = "400", description = "Cannot deactivate your own account"),
+        @ApiResponse(responseCode = "404", description = "User not found"),
+        @ApiResponse(responseCode = "403", description = "Access denied - insufficient permissions")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> deactivateUser(
+            @Parameter(description = "User ID", required = true) @PathVariable Long id) {
+        
+        log.info("Deactivating user with ID: {}", id);
+        
+        String currentEmail = SecurityContextHolder.getContext().getAuthentication().getName();
+        boolean self = authService.findUserByEmail(currentEmail)
+                .map(User::getId)
+                .filter(id::equals)
+                .isPresent();
+        if (self) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "You cannot deactivate your own account");
+            return ResponseEntity.badRequest().body(error);
+        }
+        
+        try {
+            authService.deactivateUser(id);
+            return ResponseEntity.noContent().build();
+            
+        } catch (IllegalArgumentException e) {
+            log.warn("User not found for deactivation with ID: {}", id);
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            log.error("Error deactivating user {}: {}", id, e.getMessage(), e);
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to deactivate user");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
+    @PutMapping("/{id}/role")
+    @Operation(summary = "Change a user's role",
+               description = "Assigns a new role. Tokens issued before the change stop working; the user logs in again to use the new role")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Role changed"),
+        @ApiResponse(responseCode = "400", description = "Cannot change the role of your own account"),
+        @ApiResponse(responseCode = "404", description = "User not found"),
+        @ApiResponse(responseCode = "403", description = "Access denied - insufficient permissions")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> changeRole(
+            @Parameter(description = "User ID", required = true) @PathVariable Long id,
+            @Parameter(description = "New role", required = true) @RequestParam User.Role role) {
+        
+        log.info("Changing role of user with ID {} to {}", id, role);
+        
+        String currentEmail = SecurityContextHolder.getContext().getAuthentication().getName();
+        boolean self = authService.findUserByEmail(currentEmail)
+                .map(User::getId)
+                .filter(id::equals)
+                .isPresent();
+        if (self) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "You cannot change the role of your own account");
+            return ResponseEntity.badRequest().body(error);
+        }
+        
+        try {
+            authService.changeRole(id, role);
+            return ResponseEntity.noContent().build();
+            
+        } catch (IllegalArgumentException e) {
+            log.warn("User not found for role change with ID: {}", id);
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            log.error("Error changing role of user {}: {}", id, e.getMessage(), e);
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Failed to change user role");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActiveLeadReport {
+    
+    /** Owner the report is restricted to, or null for everyone */
+    private Long ownerId;
+    /** Owners with active leads, most leads first */
+    private List<OwnerActiveLeads> owners;
+    private Counts totals;
+    /** The report includes every lead write committed before this time; null if the view was never refreshed */
+    private LocalDateTime dataAsOf;
+    /** True if leads or owners have changed since dataAsOf and a refresh is pending */
+    private boolean stale;
+    private LocalDateTime generatedAt;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OwnerActiveLeads {
+        private Long ownerId;
+        private String ownerName;
+        private String ownerEmail;
+        private Counts counts;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Counts {
+        private long total;
+        /** NEW, CONTACTED and QUALIFIED, zero-filled */
+        private Map<String, Long> byStatus;
+        /** Every lead source, zero-filled; leads without a source are only in the total */
+        private Map<String, Long> bySource;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityReport {
+    
+    /** DAY, WEEK or MONTH */
+    private String granularity;
+    /** First day of the first bucket */
+    private LocalDate from;
+    /** Last day of the last bucket */
+    private LocalDate to;
+    /** User the report is restricted to, or null for everyone */
+    private Long userId;
+    /** Every bucket in the range in date order, including empty ones */
+    private List<Bucket> buckets;
+    /** Users with activities in the range, most active first */
+    private List<UserActivity> users;
+    private Counts totals;
+    private LocalDateTime generatedAt;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+        /** e.g. 2025-08-04, 2025-W32 or 2025-08 */
+        private String label;
+        private LocalDate start;
+        private LocalDate end;
+        private Counts counts;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UserActivity {
+        private Long userId;
+        private String userName;
+        private Counts counts;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Counts {
+        private long total;
+        /** Every activity type, zero-filled */
+        private Map<String, Long> byType;
+        /** Every activity status, zero-filled */
+        private Map<String, Long> byStatus;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversionReport {
+    
+    /** The cohort is every lead created from {@code from} through {@code to} */
+    private LocalDate from;
+    private LocalDate to;
+    private Funnel overall;
+    /** One funnel per lead source the cohort came from, in source order */
+    private List<Funnel> bySource;
+    /** One funnel per owner at creation, largest cohort first */
+    private List<Funnel> byOwner;
+    private LocalDateTime generatedAt;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Funnel {
+        /** Set on source funnels; null there means leads without a source */
+        private String source;
+        /** Set on owner funnels */
+        private Long ownerId;
+        private String ownerName;
+        private long leads;
+        /** Share of the cohort that reached CONVERTED */
+        private BigDecimal conversionRate;
+        /** NEW, CONTACTED, QUALIFIED, CONVERTED */
+        private List<Stage> stages;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Stage {
+        private String status;
+        /** Leads that reached this status or a later one (skipping a status still passes it) */
+        private long reached;
+        /** reached / reached of the previous status (the cohort for NEW), or null if none reached that */
+        private BigDecimal rate;
+        /** Median time spent in this status before the next transition, or null if no lead has left it yet */
+        private Double medianHoursInStatus;
+    }
+}
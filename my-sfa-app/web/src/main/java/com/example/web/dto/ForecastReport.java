@@ -0,0 +1,83 @@
+package com.example.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ForecastReport {
+    
+    /** MONTH or QUARTER */
+    private String period;
+    /** First day of the first bucket */
+    private LocalDate from;
+    /** Last day of the last bucket */
+    private LocalDate to;
+    /** Owner the report is restricted to, or null for everyone */
+    private Long ownerId;
+    /** Every bucket in the range in date order, including empty ones */
+    private List<Bucket> buckets;
+    /** The whole range */
+    private Forecast totals;
+    private LocalDateTime generatedAt;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+        /** e.g. 2025-09 or 2025-Q3 */
+        private String label;
+        private LocalDate start;
+        private LocalDate end;
+        private Forecast forecast;
+        /** Owners with opportunities closing in the bucket, highest best case first */
+        private List<OwnerForecast> owners;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OwnerForecast {
+        private Long ownerId;
+        private String ownerName;
+        private Forecast forecast;
+    }
+    
+    /**
+     * Weighted amounts rolled up the usual way: commit = CLOSED + COMMIT, best case = commit + BEST_CASE,
+     * pipeline = best case + PIPELINE. {@code categories} holds the disjoint per-category totals.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Forecast {
+        private BigDecimal closed;
+        private BigDecimal commit;
+        private BigDecimal bestCase;
+        private BigDecimal pipeline;
+        private List<CategoryTotal> categories;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategoryTotal {
+        private String category;
+        private long count;
+        private BigDecimal amount;
+        private BigDecimal weightedAmount;
+    }
+}
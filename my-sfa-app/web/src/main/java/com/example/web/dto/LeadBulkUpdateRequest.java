@@ -0,0 +1,41 @@
+package com.example.web.dto;
+
+import com.example.core.domain.Lead;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Bulk lead change: target either explicit {@code ids} or every lead matching {@code filter},
+ * and set any of status, source and owner.
+ */
+@Data
+public class LeadBulkUpdateRequest {
+    
+    public static final int MAX_IDS = 10_000;
+    
+    @Size(max = MAX_IDS, message = "At most " + MAX_IDS + " ids per request")
+    private List<Long> ids;
+    
+    private Filter filter;
+    
+    private Lead.Status status;
+    
+    private Lead.Source source;
+    
+    private Long ownerId;
+    
+    /**
+     * Same criteria as the lead list query parameters
+     */
+    @Data
+    public static class Filter {
+        private Lead.Status status;
+        private Lead.Source source;
+        private String search;
+        private LocalDateTime startDate;
+        private LocalDateTime endDate;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.web.dto;
+
+import com.example.infra.repository.projection.LeadSummary;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset pagination position: the (createdAt, id) of the last lead on the previous page.
+ * Clients only ever see the encoded token and pass it back as {@code after}.
+ */
+@Data
+@AllArgsConstructor
+public class LeadCursor {
+    
+    private static final String SEPARATOR = "|";
+    
+    private LocalDateTime createdAt;
+    private Long id;
+    
+    public static LeadCursor of(LeadSummary lead) {
+        return new LeadCursor(lead.createdAt(), lead.id());
+    }
+    
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decode a token produced by {@link #encode()}
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static LeadCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new LeadCursor(
+                LocalDateTime.parse(raw.substring(0, separator)),
+                Long.parseLong(raw.substring(separator + 1))
+            );
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
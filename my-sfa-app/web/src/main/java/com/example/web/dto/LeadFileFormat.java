@@ -0,0 +1,53 @@
+package com.example.web.dto;
+
+import java.util.Locale;
+
+/**
+ * File formats accepted by lead export and import.
+ */
+public enum LeadFileFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    LeadFileFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Parse a user-supplied format name ("csv", "ndjson").
+     *
+     * @throws IllegalArgumentException if the name is not a known format
+     */
+    public static LeadFileFormat fromName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Guess the format from an uploaded file name, or null if the extension is not recognised.
+     */
+    public static LeadFileFormat fromFilename(String filename) {
+        if (filename == null) {
+            return null;
+        }
+        String lower = filename.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".csv")) {
+            return CSV;
+        }
+        if (lower.endsWith(".ndjson") || lower.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Progress snapshot of a bulk lead import job
+ */
+@Data
+@Builder
+public class LeadImportStatus {
+
+    private String jobId;
+    private String state;
+    private String fileName;
+    private LeadFileFormat format;
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsRejected;
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+    private String message;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    /**
+     * A rejected input row; {@code row} is the 1-based data row (CSV record after the header, or NDJSON line)
+     */
+    public record RowError(long row, String message) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeadStatistics {
+    
+    private long totalLeads;
+    private Map<String, Long> statusBreakdown;
+    private Map<String, Long> sourceBreakdown;
+    private long recentLeads;
+    private LocalDateTime generatedAt;
+}
@@ -0,0 +1,50 @@
+package com.example.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PipelineReport {
+    
+    /** Every stage in pipeline order, including empty ones */
+    private List<StageTotal> stages;
+    /** Owners with at least one opportunity, each with their non-empty stages */
+    private List<OwnerPipeline> owners;
+    private long totalCount;
+    private BigDecimal totalAmount;
+    private BigDecimal totalWeightedAmount;
+    private LocalDateTime generatedAt;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StageTotal {
+        private String stage;
+        private long count;
+        private BigDecimal amount;
+        private BigDecimal weightedAmount;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class OwnerPipeline {
+        private Long ownerId;
+        private String ownerName;
+        private long count;
+        private BigDecimal amount;
+        private BigDecimal weightedAmount;
+        private List<StageTotal> stages;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.web.service;
+
+import com.example.core.domain.ActiveLead;
+import com.example.core.domain.Lead;
+import com.example.core.domain.MaterializedViewRefresh;
+import com.example.infra.repository.ActiveLeadRepository;
+import com.example.infra.repository.MaterializedViewChangeRepository;
+import com.example.infra.repository.MaterializedViewRefreshRepository;
+import com.example.infra.repository.projection.ActiveLeadTotal;
+import com.example.web.dto.ActiveLeadReport;
+import com.example.web.dto.ActiveLeadReport.Counts;
+import com.example.web.dto.ActiveLeadReport.OwnerActiveLeads;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Active leads by owner, status and source, read from the {@code v_active_leads} materialized view.
+ * Responses carry the time of the view's last refresh and whether writes since then are still missing from it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class ActiveLeadReportService {
+
+    private static final Set<Lead.Status> ACTIVE_STATUSES =
+            EnumSet.complementOf(EnumSet.of(Lead.Status.LOST, Lead.Status.CONVERTED));
+
+    private final ActiveLeadRepository activeLeadRepository;
+    private final MaterializedViewRefreshRepository refreshRepository;
+    private final MaterializedViewChangeRepository changeRepository;
+
+    /**
+     * @param ownerId restricts the report to one owner, or null for everyone
+     */
+    public ActiveLeadReport getActiveLeads(Long ownerId) {
+        // Read the refresh state first: the rows below are at least as new as it says
+        Optional<MaterializedViewRefresh> refresh = refreshRepository.findById(ActiveLead.VIEW_NAME);
+        boolean stale = refresh.isEmpty() || changeRepository.existsByViewName(ActiveLead.VIEW_NAME);
+        List<ActiveLeadTotal> rows = ownerId == null
+                ? activeLeadRepository.findTotals()
+                : activeLeadRepository.findOwnerTotals(ownerId);
+
+        Map<Long, OwnerTotals> byOwner = new LinkedHashMap<>();
+        CountTotals overall = new CountTotals();
+        for (ActiveLeadTotal row : rows) {
+            byOwner.computeIfAbsent(row.ownerId(), id -> new OwnerTotals(row)).counts.add(row);
+            overall.add(row);
+        }
+
+        List<OwnerActiveLeads> owners = byOwner.values().stream()
+                .sorted(Comparator.comparingLong((OwnerTotals owner) -> owner.counts.total).reversed())
+                .map(owner -> OwnerActiveLeads.builder()
+                        .ownerId(owner.ownerId)
+                        .ownerName(owner.ownerName)
+                        .ownerEmail(owner.ownerEmail)
+                        .counts(owner.counts.toCounts())
+                        .build())
+                .toList();
+
+        log.debug("Active lead report built from {} rows", rows.size());
+        return ActiveLeadReport.builder()
+                .ownerId(ownerId)
+                .owners(owners)
+                .totals(overall.toCounts())
+                .dataAsOf(refresh.map(MaterializedViewRefresh::getRefreshedAt).orElse(null))
+                .stale(stale)
+                .generatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static final class OwnerTotals {
+        private final Long ownerId;
+        private final String ownerName;
+        private final String ownerEmail;
+        private final CountTotals counts = new CountTotals();
+
+        OwnerTotals(ActiveLeadTotal row) {
+            this.ownerId = row.ownerId();
+            this.ownerName = row.ownerName();
+            this.ownerEmail = row.ownerEmail();
+        }
+    }
+
+    private static final class CountTotals {
+        private long total;
+        private final Map<String, Long> byStatus = new LinkedHashMap<>();
+        private final Map<String, Long> bySource = new LinkedHashMap<>();
+
+        CountTotals() {
+            for (Lead.Status status : ACTIVE_STATUSES) {
+                byStatus.put(status.name(), 0L);
+            }
+            for (Lead.Source source : Lead.Source.values()) {
+                bySource.put(source.name(), 0L);
+            }
+        }
+
+        void add(ActiveLeadTotal row) {
+            total += row.count();
+            byStatus.merge(row.status().name(), row.count(), Long::sum);
+            if (row.source() != null) {
+                bySource.merge(row.source().name(), row.count(), Long::sum);
+            }
+        }
+
+        Counts toCounts() {
+            return Counts.builder()
+                    .total(total)
+                    .byStatus(byStatus)
+                    .bySource(bySource)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.web.service;
+
+import com.example.core.domain.Activity;
+import com.example.core.domain.ActivityRollup;
+import com.example.core.domain.User;
+import com.example.infra.repository.ActivityRollupRepository;
+import com.example.infra.repository.UserRepository;
+import com.example.web.dto.ActivityReport;
+import com.example.web.dto.ActivityReport.Bucket;
+import com.example.web.dto.ActivityReport.Counts;
+import com.example.web.dto.ActivityReport.UserActivity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Activity counts by period, type, status and user, read from the daily {@code activity_rollups}
+ * and their pending deltas only. A year is at most one row per day, user, type and status that had
+ * activities, never the activities themselves.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class ActivityReportService {
+
+    /**
+     * Most buckets a report may have
+     */
+    static final int MAX_BUCKETS = 400;
+
+    private final ActivityRollupRepository rollupRepository;
+    private final UserRepository userRepository;
+
+    public enum Granularity {
+        DAY, WEEK, MONTH;
+
+        /**
+         * First day of the bucket containing {@code date}
+         */
+        LocalDate start(LocalDate date) {
+            return switch (this) {
+                case DAY -> date;
+                case WEEK -> date.with(DayOfWeek.MONDAY);
+                case MONTH -> date.withDayOfMonth(1);
+            };
+        }
+
+        LocalDate next(LocalDate start) {
+            return switch (this) {
+                case DAY -> start.plusDays(1);
+                case WEEK -> start.plusWeeks(1);
+                case MONTH -> start.plusMonths(1);
+            };
+        }
+
+        String label(LocalDate start) {
+            return switch (this) {
+                case DAY -> start.toString();
+                case WEEK -> String.format("%d-W%02d",
+                        start.get(IsoFields.WEEK_BASED_YEAR), start.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+                case MONTH -> String.format("%d-%02d", start.getYear(), start.getMonthValue());
+            };
+        }
+    }
+
+    /**
+     * Activities dated in the buckets that contain {@code from} through {@code to}.
+     *
+     * @param userId restricts the report to one user, or null for everyone
+     * @throws IllegalArgumentException if {@code from} is after {@code to} or the range has more than {@value #MAX_BUCKETS} buckets
+     */
+    public ActivityReport getActivities(Granularity granularity, LocalDate from, LocalDate to, Long userId) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from cannot be after to");
+        }
+        LocalDate first = granularity.start(from);
+        LocalDate end = granularity.next(granularity.start(to));
+        if (granularity == Granularity.DAY && ChronoUnit.DAYS.between(first, end) > MAX_BUCKETS
+                || granularity == Granularity.WEEK && ChronoUnit.WEEKS.between(first, end) > MAX_BUCKETS) {
+            throw new IllegalArgumentException("Activity report cannot have more than " + MAX_BUCKETS + " buckets");
+        }
+
+        Map<LocalDate, CountTotals> buckets = new LinkedHashMap<>();
+        for (LocalDate start = first; start.isBefore(end); start = granularity.next(start)) {
+            buckets.put(start, new CountTotals());
+        }
+        Map<Long, CountTotals> byUser = new HashMap<>();
+        CountTotals overall = new CountTotals();
+
+        List<ActivityRollup> rollups = userId == null
+                ? rollupRepository.findInRange(first, end.minusDays(1))
+                : rollupRepository.findInRangeForUser(first, end.minusDays(1), userId);
+        for (ActivityRollup rollup : rollups) {
+            buckets.get(granularity.start(rollup.getActivityDay())).add(rollup);
+            byUser.computeIfAbsent(rollup.getUserId(), id -> new CountTotals()).add(rollup);
+            overall.add(rollup);
+        }
+
+        Map<Long, String> userNames = new HashMap<>();
+        for (User user : userRepository.findAllById(byUser.keySet())) {
+            userNames.put(user.getId(), user.getFirstName() + " " + user.getLastName());
+        }
+
+        List<Bucket> bucketList = new ArrayList<>();
+        buckets.forEach((start, counts) -> bucketList.add(Bucket.builder()
+                .label(granularity.label(start))
+                .start(start)
+                .end(granularity.next(start).minusDays(1))
+                .counts(counts.toCounts())
+                .build()));
+
+        List<UserActivity> users = byUser.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<Long, CountTotals> user) -> user.getValue().total).reversed())
+                .map(user -> UserActivity.builder()
+                        .userId(user.getKey())
+                        .userName(userNames.get(user.getKey()))
+                        .counts(user.getValue().toCounts())
+                        .build())
+                .toList();
+
+        log.debug("Activity report built from {} rollup rows", rollups.size());
+        return ActivityReport.builder()
+                .granularity(granularity.name())
+                .from(first)
+                .to(end.minusDays(1))
+                .userId(userId)
+                .buckets(bucketList)
+                .users(users)
+                .totals(overall.toCounts())
+                .generatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static final class CountTotals {
+        private long total;
+        private final Map<String, Long> byType = new LinkedHashMap<>();
+        private final Map<String, Long> byStatus = new LinkedHashMap<>();
+
+        CountTotals() {
+            for (Activity.Type type : Activity.Type.values()) {
+                byType.put(type.name(), 0L);
+            }
+            for (Activity.Status status : Activity.Status.values()) {
+                byStatus.put(status.name(), 0L);
+            }
+        }
+
+        void add(ActivityRollup rollup) {
+            total += rollup.getActivityCount();
+            byType.merge(rollup.getType().name(), (long) rollup.getActivityCount(), Long::sum);
+            byStatus.merge(rollup.getStatus().name(), (long) rollup.getActivityCount(), Long::sum);
+        }
+
+        Counts toCounts() {
+            return Counts.builder()
+                    .total(total)
+                    .byType(byType)
+                    .byStatus(byStatus)
+                    .build();
+        }
+    }
+}
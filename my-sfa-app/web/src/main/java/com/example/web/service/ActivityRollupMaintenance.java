@@ -0,0 +1,38 @@
+package com.example.web.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Folds the V12 activity rollup deltas into {@code activity_rollups}, so readers only sum a short
+ * tail of pending deltas on top of the rollups.
+ */
+@Component
+public class ActivityRollupMaintenance {
+
+    // Rows are folded in key order, so concurrent compactions on several instances cannot deadlock
+    private static final String COMPACT_SQL =
+            "WITH folded AS (DELETE FROM activity_rollup_deltas RETURNING activity_day, user_id, type, status, delta) " +
+            "INSERT INTO activity_rollups (activity_day, user_id, type, status, activity_count) " +
+            "SELECT activity_day, user_id, type, status, SUM(delta) FROM folded " +
+            "GROUP BY activity_day, user_id, type, status HAVING SUM(delta) <> 0 ORDER BY activity_day, user_id, type, status " +
+            "ON CONFLICT (activity_day, user_id, type, status) " +
+            "DO UPDATE SET activity_count = activity_rollups.activity_count + EXCLUDED.activity_count";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ActivityRollupMaintenance(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Fold pending deltas into the rollups
+     *
+     * @return number of rollup rows changed
+     */
+    @Scheduled(fixedDelayString = "${app.activities.rollups.compact-interval-ms:10000}")
+    public int compact() {
+        return jdbcTemplate.update(COMPACT_SQL);
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.web.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Corrects {@code activity_rollups} rows that drifted from {@code activities}, e.g. after the trigger
+ * was disabled for a data load or a row was edited by hand.
+ * <p>
+ * Actual counts, rollups and pending deltas are read in one repeatable-read snapshot. Each differing row
+ * is then set, net of its pending deltas, with a compare-and-set on the count read from the snapshot.
+ * If the row changed since, a compaction has folded deltas into it, so the row is left for the next run.
+ * Writes only append deltas, so the job is safe to run on every instance at once and alongside them.
+ */
+@Slf4j
+@Component
+public class ActivityRollupReconciler {
+
+    private static final String ACTUAL_SQL =
+            "SELECT CAST(activity_date AS DATE) AS activity_day, user_id, type, status, COUNT(*) AS activity_count " +
+            "FROM activities WHERE activity_date >= ? AND activity_date < ? " +
+            "GROUP BY CAST(activity_date AS DATE), user_id, type, status";
+    private static final String ROLLUP_SQL =
+            "SELECT activity_day, user_id, type, status, activity_count FROM activity_rollups " +
+            "WHERE activity_day >= ? AND activity_day < ?";
+    private static final String PENDING_SQL =
+            "SELECT activity_day, user_id, type, status, SUM(delta) FROM activity_rollup_deltas " +
+            "WHERE activity_day >= ? AND activity_day < ? GROUP BY activity_day, user_id, type, status";
+    private static final String INSERT_SQL =
+            "INSERT INTO activity_rollups (activity_day, user_id, type, status, activity_count) VALUES (?, ?, ?, ?, ?)";
+    private static final String UPDATE_SQL =
+            "UPDATE activity_rollups SET activity_count = ? " +
+            "WHERE activity_day = ? AND user_id = ? AND type = ? AND status = ? AND activity_count = ?";
+    private static final String DELETE_SQL =
+            "DELETE FROM activity_rollups " +
+            "WHERE activity_day = ? AND user_id = ? AND type = ? AND status = ? AND activity_count = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshot;
+    private final Counter corrections;
+    private final int lookbackDays;
+    private final int lookaheadDays;
+
+    public ActivityRollupReconciler(JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.activities.rollups.reconcile-lookback-days:35}") int lookbackDays,
+                                    @Value("${app.activities.rollups.reconcile-lookahead-days:90}") int lookaheadDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshot = new TransactionTemplate(transactionManager);
+        this.snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.corrections = Counter.builder("activity.rollups.corrections")
+                .description("Activity rollup rows corrected by reconciliation")
+                .register(meterRegistry);
+        this.lookbackDays = lookbackDays;
+        this.lookaheadDays = lookaheadDays;
+    }
+
+    /**
+     * Reconcile the recent past and the planned near future, where activities are still being edited
+     */
+    @Scheduled(cron = "${app.activities.rollups.reconcile-cron:0 17 * * * *}")
+    public void reconcileRecent() {
+        LocalDate today = LocalDate.now();
+        reconcile(today.minusDays(lookbackDays), today.plusDays(lookaheadDays));
+    }
+
+    /**
+     * Reconcile the rollups of the days from {@code from} through {@code to}
+     *
+     * @return number of rollup rows corrected
+     */
+    public int reconcile(LocalDate from, LocalDate to) {
+        Map<Key, Integer> actual = new HashMap<>();
+        Map<Key, Integer> rollups = new HashMap<>();
+        Map<Key, Integer> pending = new HashMap<>();
+        snapshot.executeWithoutResult(status -> {
+            jdbcTemplate.query(ACTUAL_SQL, rs -> {
+                actual.put(new Key(rs.getDate(1).toLocalDate(), rs.getLong(2), rs.getString(3), rs.getString(4)), rs.getInt(5));
+            }, Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+            jdbcTemplate.query(ROLLUP_SQL, rs -> {
+                rollups.put(new Key(rs.getDate(1).toLocalDate(), rs.getLong(2), rs.getString(3), rs.getString(4)), rs.getInt(5));
+            }, Date.valueOf(from), Date.valueOf(to.plusDays(1)));
+            jdbcTemplate.query(PENDING_SQL, rs -> {
+                pending.put(new Key(rs.getDate(1).toLocalDate(), rs.getLong(2), rs.getString(3), rs.getString(4)), rs.getInt(5));
+            }, Date.valueOf(from), Date.valueOf(to.plusDays(1)));
+        });
+
+        Set<Key> keys = new HashSet<>(actual.keySet());
+        keys.addAll(rollups.keySet());
+        keys.addAll(pending.keySet());
+        int corrected = 0;
+        int skipped = 0;
+        for (Key key : keys) {
+            // The compaction will add the pending deltas to whatever the row holds
+            int count = actual.getOrDefault(key, 0) - pending.getOrDefault(key, 0);
+            Integer rolledUp = rollups.get(key);
+            if (rolledUp == null ? count == 0 : rolledUp == count && count != 0) {
+                continue;
+            }
+            if (correct(key, count, rolledUp)) {
+                corrected++;
+            } else {
+                skipped++;
+            }
+        }
+
+        corrections.increment(corrected);
+        if (corrected > 0 || skipped > 0) {
+            log.info("Activity rollups {} - {}: {} rows corrected, {} changed concurrently and left for the next run",
+                    from, to, corrected, skipped);
+        }
+        return corrected;
+    }
+
+    /**
+     * @return false if the row no longer holds the snapshot count
+     */
+    private boolean correct(Key key, int count, Integer rolledUp) {
+        Date day = Date.valueOf(key.day());
+        if (rolledUp == null) {
+            try {
+                return jdbcTemplate.update(INSERT_SQL, day, key.userId(), key.type(), key.status(), count) == 1;
+            } catch (DuplicateKeyException e) {
+                return false;
+            }
+        }
+        if (count == 0) {
+            // Includes the zero rows left behind by deletes
+            return jdbcTemplate.update(DELETE_SQL, day, key.userId(), key.type(), key.status(), rolledUp) == 1;
+        }
+        return jdbcTemplate.update(UPDATE_SQL, count, day, key.userId(), key.type(), key.status(), rolledUp) == 1;
+    }
+
+    private record Key(LocalDate day, long userId, String type, String status) {
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.web.service;
+
+import com.example.core.domain.Lead;
+import com.example.core.domain.LeadStatusHistory;
+import com.example.core.domain.User;
+import com.example.infra.repository.UserRepository;
+import com.example.web.dto.ConversionReport;
+import com.example.web.dto.ConversionReport.Funnel;
+import com.example.web.dto.ConversionReport.Stage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Lead conversion funnel over {@code lead_status_history}. The cohort is the leads created in the
+ * range, attributed to the source and owner they were created with. Two set-based queries run per
+ * report: the furthest funnel status of each cohort lead, counted per owner and source (summed in
+ * Java for the per-source, per-owner and overall funnels), and the median time in each status, which
+ * cannot be summed and so is grouped once per breakdown. Both find the cohort through the partial
+ * creation index and read each lead's transitions through the (lead_id, changed_at) index.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class ConversionReportService {
+
+    /**
+     * Funnel statuses in order; their history codes are 1..4
+     */
+    static final List<Lead.Status> FUNNEL = List.of(
+            Lead.Status.NEW, Lead.Status.CONTACTED, Lead.Status.QUALIFIED, Lead.Status.CONVERTED);
+
+    // c is the cohort lead's creation row, h every transition of that lead
+    private static final String COHORT =
+            " FROM lead_status_history c JOIN lead_status_history h ON h.lead_id = c.lead_id" +
+            " WHERE c.from_status IS NULL AND c.changed_at >= ? AND c.changed_at < ?";
+
+    private static final String FURTHEST_SQL =
+            "SELECT owner_id, source, stage, COUNT(*) AS leads FROM (" +
+            " SELECT c.lead_id, c.owner_id, c.source, MAX(CASE WHEN h.to_status <= 4 THEN h.to_status ELSE 0 END) AS stage" +
+            COHORT +
+            " GROUP BY c.lead_id, c.owner_id, c.source) furthest" +
+            " GROUP BY owner_id, source, stage";
+
+    // %1$s selects the group key, %2$s adds it to the GROUP BY
+    private static final String MEDIAN_SQL =
+            "SELECT %1$s AS group_key, s.to_status," +
+            " PERCENTILE_CONT(0.5) WITHIN GROUP (ORDER BY" +
+            " CAST(EXTRACT(EPOCH FROM s.left_at) - EXTRACT(EPOCH FROM s.changed_at) AS DOUBLE PRECISION)) AS median_seconds" +
+            " FROM (" +
+            " SELECT c.owner_id, c.source, h.to_status, h.changed_at," +
+            " LEAD(h.changed_at) OVER (PARTITION BY h.lead_id ORDER BY h.changed_at, h.id) AS left_at" +
+            COHORT + ") s" +
+            " WHERE s.left_at IS NOT NULL AND s.to_status <= 4" +
+            " GROUP BY %2$s s.to_status";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+
+    /**
+     * Funnel of the leads created from {@code from} through {@code to}, both inclusive.
+     *
+     * @throws IllegalArgumentException if {@code from} is after {@code to}
+     */
+    @Cacheable(cacheNames = ReportCache.CONVERSION, key = "{#from, #to}")
+    public ConversionReport getConversion(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from cannot be after to");
+        }
+        Timestamp start = Timestamp.valueOf(from.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(to.plusDays(1).atStartOfDay());
+
+        FunnelCounts overall = new FunnelCounts();
+        Map<Short, FunnelCounts> bySource = new TreeMap<>(Comparator.nullsLast(Comparator.naturalOrder()));
+        Map<Long, FunnelCounts> byOwner = new HashMap<>();
+        jdbcTemplate.query(FURTHEST_SQL, rs -> {
+            long ownerId = rs.getLong("owner_id");
+            Short source = nullableShort(rs, "source");
+            int stage = rs.getInt("stage");
+            long leads = rs.getLong("leads");
+            overall.add(stage, leads);
+            bySource.computeIfAbsent(source, key -> new FunnelCounts()).add(stage, leads);
+            byOwner.computeIfAbsent(ownerId, key -> new FunnelCounts()).add(stage, leads);
+        }, start, end);
+
+        Map<Object, Map<Integer, Double>> overallMedians = medians("NULL", "", start, end);
+        Map<Object, Map<Integer, Double>> sourceMedians = medians("s.source", "s.source,", start, end);
+        Map<Object, Map<Integer, Double>> ownerMedians = medians("s.owner_id", "s.owner_id,", start, end);
+
+        Map<Long, String> ownerNames = new HashMap<>();
+        for (User user : userRepository.findAllById(byOwner.keySet())) {
+            ownerNames.put(user.getId(), user.getFirstName() + " " + user.getLastName());
+        }
+
+        List<Funnel> sources = new ArrayList<>();
+        bySource.forEach((source, counts) -> sources.add(funnel(counts,
+                sourceMedians.getOrDefault(source == null ? null : source.longValue(), Map.of()))
+                .source(source != null ? LeadStatusHistory.source(source).name() : null)
+                .build()));
+
+        List<Funnel> owners = byOwner.entrySet().stream()
+                .sorted(Comparator.comparing((Map.Entry<Long, FunnelCounts> owner) -> owner.getValue().leads()).reversed())
+                .map(owner -> funnel(owner.getValue(), ownerMedians.getOrDefault(owner.getKey(), Map.of()))
+                        .ownerId(owner.getKey())
+                        .ownerName(ownerNames.get(owner.getKey()))
+                        .build())
+                .toList();
+
+        log.debug("Conversion report for {} - {}: {} leads", from, to, overall.leads());
+        return ConversionReport.builder()
+                .from(from)
+                .to(to)
+                .overall(funnel(overall, overallMedians.getOrDefault(null, Map.of())).build())
+                .bySource(sources)
+                .byOwner(owners)
+                .generatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * Median seconds in status by group key (a Long, or null for the overall group) and status code
+     */
+    private Map<Object, Map<Integer, Double>> medians(String groupKey, String groupBy, Timestamp start, Timestamp end) {
+        Map<Object, Map<Integer, Double>> medians = new HashMap<>();
+        jdbcTemplate.query(String.format(MEDIAN_SQL, groupKey, groupBy), rs -> {
+            long key = rs.getLong("group_key");
+            Object group = rs.wasNull() ? null : key;
+            medians.computeIfAbsent(group, k -> new HashMap<>())
+                    .put(rs.getInt("to_status"), rs.getDouble("median_seconds"));
+        }, start, end);
+        return medians;
+    }
+
+    private static Funnel.FunnelBuilder funnel(FunnelCounts counts, Map<Integer, Double> medianSeconds) {
+        List<Stage> stages = new ArrayList<>();
+        long previous = counts.leads();
+        for (Lead.Status status : FUNNEL) {
+            int code = LeadStatusHistory.code(status);
+            long reached = counts.reached(code);
+            Double median = medianSeconds.get(code);
+            stages.add(Stage.builder()
+                    .status(status.name())
+                    .reached(reached)
+                    .rate(rate(reached, previous))
+                    .medianHoursInStatus(median != null ? Math.round(median / 36.0) / 100.0 : null)
+                    .build());
+            previous = reached;
+        }
+        return Funnel.builder()
+                .leads(counts.leads())
+                .conversionRate(rate(counts.reached(LeadStatusHistory.code(Lead.Status.CONVERTED)), counts.leads()))
+                .stages(stages);
+    }
+
+    private static BigDecimal rate(long count, long of) {
+        return of == 0 ? null : BigDecimal.valueOf(count).divide(BigDecimal.valueOf(of), 4, RoundingMode.HALF_UP);
+    }
+
+    private static Short nullableShort(ResultSet rs, String column) throws SQLException {
+        short value = rs.getShort(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    /**
+     * Cohort leads by the furthest funnel status they reached: index 0 for none (e.g. created LOST), else the code
+     */
+    private static final class FunnelCounts {
+        private final long[] byFurthest = new long[FUNNEL.size() + 1];
+
+        void add(int furthest, long leads) {
+            byFurthest[furthest] += leads;
+        }
+
+        long leads() {
+            long total = 0;
+            for (long count : byFurthest) {
+                total += count;
+            }
+            return total;
+        }
+
+        long reached(int code) {
+            long reached = 0;
+            for (int i = code; i < byFurthest.length; i++) {
+                reached += byFurthest[i];
+            }
+            return reached;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.web.service;
+
+import com.example.core.domain.Opportunity.ForecastCategory;
+import com.example.infra.repository.OpportunityRepository;
+import com.example.infra.repository.projection.ForecastTotal;
+import com.example.web.dto.ForecastReport;
+import com.example.web.dto.ForecastReport.Bucket;
+import com.example.web.dto.ForecastReport.CategoryTotal;
+import com.example.web.dto.ForecastReport.Forecast;
+import com.example.web.dto.ForecastReport.OwnerForecast;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.IsoFields;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Revenue forecast by close period, forecast category and owner. One grouped query returns a row per
+ * owner, stage and close month, so the work in Java grows with owners × months, never with opportunities.
+ * Results are cached until an opportunity's stage, amount, probability, owner or close date changes
+ * (see {@link ReportCache}).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class ForecastReportService {
+
+    /**
+     * Longest range accepted, in months
+     */
+    static final int MAX_MONTHS = 60;
+
+    private static final List<ForecastCategory> CATEGORIES = List.of(
+            ForecastCategory.CLOSED, ForecastCategory.COMMIT, ForecastCategory.BEST_CASE, ForecastCategory.PIPELINE);
+
+    private final OpportunityRepository opportunityRepository;
+
+    public enum Period {
+        MONTH, QUARTER;
+
+        /**
+         * First day of the bucket containing {@code date}
+         */
+        LocalDate start(LocalDate date) {
+            LocalDate month = date.withDayOfMonth(1);
+            return this == MONTH ? month : month.withMonth((date.get(IsoFields.QUARTER_OF_YEAR) - 1) * 3 + 1);
+        }
+
+        LocalDate next(LocalDate start) {
+            return this == MONTH ? start.plusMonths(1) : start.plusMonths(3);
+        }
+
+        String label(LocalDate start) {
+            return this == MONTH
+                    ? String.format("%d-%02d", start.getYear(), start.getMonthValue())
+                    : start.getYear() + "-Q" + start.get(IsoFields.QUARTER_OF_YEAR);
+        }
+    }
+
+    /**
+     * Forecast of the opportunities closing in the buckets that contain {@code from} through {@code to}.
+     *
+     * @param ownerId restricts the report to one owner, or null for everyone
+     * @throws IllegalArgumentException if {@code from} is after {@code to} or the range exceeds {@value #MAX_MONTHS} months
+     */
+    @Cacheable(cacheNames = ReportCache.FORECAST, key = "{#period, #from, #to, #ownerId}")
+    public ForecastReport getForecast(Period period, LocalDate from, LocalDate to, Long ownerId) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from cannot be after to");
+        }
+        LocalDate first = period.start(from);
+        LocalDate end = period.next(period.start(to));
+        if (ChronoUnit.MONTHS.between(first, end) > MAX_MONTHS) {
+            throw new IllegalArgumentException("Forecast range cannot exceed " + MAX_MONTHS + " months");
+        }
+
+        Map<LocalDate, BucketTotals> buckets = new LinkedHashMap<>();
+        for (LocalDate start = first; start.isBefore(end); start = period.next(start)) {
+            buckets.put(start, new BucketTotals());
+        }
+        CategoryTotals overall = new CategoryTotals();
+
+        List<ForecastTotal> rows = ownerId == null
+                ? opportunityRepository.findForecastTotals(first, end.minusDays(1))
+                : opportunityRepository.findOwnerForecastTotals(first, end.minusDays(1), ownerId);
+        for (ForecastTotal row : rows) {
+            BucketTotals bucket = buckets.get(period.start(LocalDate.of(row.year(), row.month(), 1)));
+            bucket.totals.add(row);
+            bucket.owners.computeIfAbsent(row.ownerId(), id -> new OwnerTotals(id, row.ownerName())).totals.add(row);
+            overall.add(row);
+        }
+
+        List<Bucket> bucketList = new ArrayList<>();
+        buckets.forEach((start, bucket) -> bucketList.add(Bucket.builder()
+                .label(period.label(start))
+                .start(start)
+                .end(period.next(start).minusDays(1))
+                .forecast(forecast(bucket.totals))
+                .owners(bucket.owners.values().stream()
+                        .map(owner -> OwnerForecast.builder()
+                                .ownerId(owner.ownerId)
+                                .ownerName(owner.ownerName)
+                                .forecast(forecast(owner.totals))
+                                .build())
+                        .sorted(Comparator.comparing((OwnerForecast owner) -> owner.getForecast().getBestCase()).reversed())
+                        .toList())
+                .build()));
+
+        log.debug("Forecast report built from {} owner/stage/month groups", rows.size());
+        return ForecastReport.builder()
+                .period(period.name())
+                .from(first)
+                .to(end.minusDays(1))
+                .ownerId(ownerId)
+                .buckets(bucketList)
+                .totals(forecast(overall))
+                .generatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static Forecast forecast(CategoryTotals totals) {
+        BigDecimal closed = scaled(totals.get(ForecastCategory.CLOSED).weightedAmount);
+        BigDecimal commit = closed.add(scaled(totals.get(ForecastCategory.COMMIT).weightedAmount));
+        BigDecimal bestCase = commit.add(scaled(totals.get(ForecastCategory.BEST_CASE).weightedAmount));
+        BigDecimal pipeline = bestCase.add(scaled(totals.get(ForecastCategory.PIPELINE).weightedAmount));
+        return Forecast.builder()
+                .closed(closed)
+                .commit(commit)
+                .bestCase(bestCase)
+                .pipeline(pipeline)
+                .categories(CATEGORIES.stream()
+                        .map(category -> {
+                            Totals categoryTotals = totals.get(category);
+                            return CategoryTotal.builder()
+                                    .category(category.name())
+                                    .count(categoryTotals.count)
+                                    .amount(categoryTotals.amount)
+                                    .weightedAmount(scaled(categoryTotals.weightedAmount))
+                                    .build();
+                        })
+                        .toList())
+                .build();
+    }
+
+    private static BigDecimal scaled(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static final class Totals {
+        private long count;
+        private BigDecimal amount = BigDecimal.ZERO;
+        private BigDecimal weightedAmount = BigDecimal.ZERO;
+    }
+
+    private static final class CategoryTotals {
+        private final Map<ForecastCategory, Totals> byCategory = new EnumMap<>(ForecastCategory.class);
+
+        CategoryTotals() {
+            CATEGORIES.forEach(category -> byCategory.put(category, new Totals()));
+        }
+
+        void add(ForecastTotal row) {
+            Totals totals = byCategory.get(row.stage().getForecastCategory());
+            if (totals == null) {
+                return;
+            }
+            totals.count += row.count();
+            totals.amount = totals.amount.add(row.amount());
+            totals.weightedAmount = totals.weightedAmount.add(row.weightedAmount());
+        }
+
+        Totals get(ForecastCategory category) {
+            return byCategory.get(category);
+        }
+    }
+
+    private static final class BucketTotals {
+        private final CategoryTotals totals = new CategoryTotals();
+        private final Map<Long, OwnerTotals> owners = new LinkedHashMap<>();
+    }
+
+    private static final class OwnerTotals {
+        private final Long ownerId;
+        private final String ownerName;
+        private final CategoryTotals totals = new CategoryTotals();
+
+        OwnerTotals(Long ownerId, String ownerName) {
+            this.ownerId = ownerId;
+            this.ownerName = ownerName;
+        }
+    }
+}
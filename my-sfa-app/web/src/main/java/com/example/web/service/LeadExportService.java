@@ -0,0 +1,116 @@
+package com.example.web.service;
+
+import com.example.infra.repository.LeadFilter;
+import com.example.infra.repository.LeadRepository;
+import com.example.infra.repository.projection.LeadSummary;
+import com.example.web.dto.LeadFileFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Streams the full filtered lead set as NDJSON or CSV.
+ * Rows are read through a database cursor and written as they arrive, so memory use
+ * does not depend on the size of the export.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LeadExportService {
+
+    static final int FETCH_SIZE = 1000;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER =
+        "id,companyName,contactName,email,phone,status,source,ownerId,ownerName,createdAt,updatedAt";
+
+    private final LeadRepository leadRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Write every lead matching the filter to {@code out}. The read-only transaction keeps the
+     * PostgreSQL cursor open for the duration of the stream.
+     *
+     * @return number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long export(LeadFilter filter, LeadFileFormat format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        AtomicLong written = new AtomicLong();
+
+        if (format == LeadFileFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try (Stream<LeadSummary> rows = leadRepository.streamLeadSummaries(filter, FETCH_SIZE)) {
+            rows.forEach(row -> {
+                try {
+                    if (format == LeadFileFormat.CSV) {
+                        writeCsvRow(writer, row);
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(row));
+                        writer.write('\n');
+                    }
+                    written.incrementAndGet();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Typically the client disconnected mid-download
+            log.warn("Lead export aborted after {} rows: {}", written.get(), e.getCause().getMessage());
+            throw e.getCause();
+        }
+
+        writer.flush();
+        log.info("Exported {} leads as {}", written.get(), format);
+        return written.get();
+    }
+
+    private static void writeCsvRow(Writer writer, LeadSummary row) throws IOException {
+        writer.write(String.valueOf(row.id()));
+        writer.write(',');
+        writer.write(csv(row.companyName()));
+        writer.write(',');
+        writer.write(csv(row.contactName()));
+        writer.write(',');
+        writer.write(csv(row.email()));
+        writer.write(',');
+        writer.write(csv(row.phone()));
+        writer.write(',');
+        writer.write(row.status() != null ? row.status().name() : "");
+        writer.write(',');
+        writer.write(row.source() != null ? row.source().name() : "");
+        writer.write(',');
+        writer.write(row.ownerId() != null ? String.valueOf(row.ownerId()) : "");
+        writer.write(',');
+        writer.write(csv(row.ownerName()));
+        writer.write(',');
+        writer.write(row.createdAt() != null ? row.createdAt().toString() : "");
+        writer.write(',');
+        writer.write(row.updatedAt() != null ? row.updatedAt().toString() : "");
+        writer.write('\n');
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.web.service;
+
+import com.example.core.domain.LeadImport;
+import com.example.core.domain.LeadImport.State;
+import com.example.web.dto.LeadFileFormat;
+import com.example.web.dto.LeadImportStatus;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Mutable state of one import, updated by the worker thread and read by status polls on its instance.
+ * Other instances see the copy persisted as a {@link LeadImport}.
+ */
+@Getter
+public class LeadImportJob {
+
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final String id;
+    private final String fileName;
+    private final LeadFileFormat format;
+    private final String submittedBy;
+    private final LocalDateTime submittedAt;
+
+    private volatile State state = State.QUEUED;
+    private volatile String message;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsImported = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+    private final List<LeadImportStatus.RowError> errors = new ArrayList<>();
+
+    LeadImportJob(String fileName, LeadFileFormat format, String submittedBy) {
+        this.id = UUID.randomUUID().toString();
+        this.fileName = fileName;
+        this.format = format;
+        this.submittedBy = submittedBy;
+        this.submittedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Job as last persisted, with its decoded row errors
+     */
+    LeadImportJob(LeadImport record, List<LeadImportStatus.RowError> errors) {
+        this.id = record.getId();
+        this.fileName = record.getFileName();
+        this.format = LeadFileFormat.valueOf(record.getFormat());
+        this.submittedBy = record.getSubmittedBy();
+        this.submittedAt = record.getSubmittedAt();
+        this.state = record.getState();
+        this.message = record.getMessage();
+        this.startedAt = record.getStartedAt();
+        this.finishedAt = record.getFinishedAt();
+        this.rowsRead.set(record.getRowsRead());
+        this.rowsImported.set(record.getRowsImported());
+        this.rowsRejected.set(record.getRowsRejected());
+        this.errors.addAll(errors);
+    }
+
+    void start() {
+        startedAt = LocalDateTime.now();
+        state = State.RUNNING;
+    }
+
+    void complete() {
+        finishedAt = LocalDateTime.now();
+        state = State.COMPLETED;
+    }
+
+    void fail(String reason) {
+        message = reason;
+        finishedAt = LocalDateTime.now();
+        state = State.FAILED;
+    }
+
+    void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    void imported(int count) {
+        rowsImported.addAndGet(count);
+    }
+
+    void reject(long row, String reason) {
+        rowsRejected.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new LeadImportStatus.RowError(row, reason));
+            }
+        }
+    }
+
+    public boolean isFinished() {
+        return state == State.COMPLETED || state == State.FAILED;
+    }
+
+    List<LeadImportStatus.RowError> reportedErrors() {
+        synchronized (errors) {
+            return List.copyOf(errors);
+        }
+    }
+
+    /**
+     * @param errorsJson {@link #reportedErrors()} as a JSON array
+     */
+    LeadImport toRecord(String errorsJson, LocalDateTime heartbeatAt) {
+        return LeadImport.builder()
+            .id(id)
+            .fileName(fileName)
+            .format(format.name())
+            .submittedBy(submittedBy)
+            .state(state)
+            .message(message)
+            .rowsRead(rowsRead.get())
+            .rowsImported(rowsImported.get())
+            .rowsRejected(rowsRejected.get())
+            .errors(errorsJson)
+            .submittedAt(submittedAt)
+            .startedAt(startedAt)
+            .finishedAt(finishedAt)
+            .heartbeatAt(heartbeatAt)
+            .build();
+    }
+
+    public LeadImportStatus toStatus() {
+        List<LeadImportStatus.RowError> reported = reportedErrors();
+        return LeadImportStatus.builder()
+            .jobId(id)
+            .state(state.name())
+            .fileName(fileName)
+            .format(format)
+            .rowsRead(rowsRead.get())
+            .rowsImported(rowsImported.get())
+            .rowsRejected(rowsRejected.get())
+            .errors(reported)
+            .errorsTruncated(rowsRejected.get() > reported.size())
+            .message(message)
+            .submittedAt(submittedAt)
+            .startedAt(startedAt)
+            .finishedAt(finishedAt)
+            .build();
+    }
+}
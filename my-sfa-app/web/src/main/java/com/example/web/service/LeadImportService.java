@@ -0,0 +1,548 @@
+package com.example.web.service;
+
+import com.example.core.domain.Lead;
+import com.example.core.domain.LeadImport;
+import com.example.core.domain.User;
+import com.example.infra.config.PrimaryReads;
+import com.example.infra.repository.LeadImportRepository;
+import com.example.infra.repository.LeadStatusChange;
+import com.example.web.dto.LeadFileFormat;
+import com.example.web.dto.LeadImportStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk lead import from CSV or NDJSON uploads.
+ * The upload is spooled to a temp file and processed on the lead import executor: rows are parsed and
+ * validated one at a time, and valid rows are inserted with JDBC batches, one transaction per batch.
+ * A batch the database rejects is retried row by row so that only the offending rows are reported.
+ * Each imported lead's creation is recorded in the status history once its batch has committed.
+ * <p>
+ * Job progress is persisted in {@code lead_import_jobs} after every batch, so a status poll answered by
+ * any instance sees it and finished jobs survive restarts. The spooled file only exists on the instance
+ * that accepted the upload: while it runs the job that instance refreshes the job's heartbeat, and a job
+ * whose heartbeat is older than {@code app.leads.import.abandon-after} is reported as failed.
+ */
+@Service
+@Slf4j
+public class LeadImportService {
+
+    private static final Duration JOB_RETENTION = Duration.ofHours(1);
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_PHONE_LENGTH = 50;
+    private static final Set<String> REQUIRED_COLUMNS = Set.of("companyname", "contactname", "email");
+
+    private final String insertSql;
+    private final SessionFactoryImplementor sessionFactory;
+    private final IdentifierGenerator idGenerator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final TaskExecutor importExecutor;
+    private final LeadQueryCache leadQueryCache;
+    private final LeadStatusHistoryWriter statusHistory;
+    private final int batchSize;
+    private final LeadImportRepository jobRepository;
+    private final Duration abandonAfter;
+
+    // Unfinished jobs of this instance, whose heartbeat it keeps up
+    private final Map<String, LeadImportJob> activeJobs = new ConcurrentHashMap<>();
+
+    public LeadImportService(EntityManagerFactory entityManagerFactory,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             Validator validator,
+                             @Qualifier("leadImportExecutor") TaskExecutor importExecutor,
+                             LeadQueryCache leadQueryCache,
+                             LeadStatusHistoryWriter statusHistory,
+                             LeadImportRepository jobRepository,
+                             @Value("${app.leads.import.batch-size:1000}") int batchSize,
+                             @Value("${app.leads.import.abandon-after:5m}") Duration abandonAfter) {
+        // Ids come from Hibernate's own generator for Lead, whose pooled optimizer (V7) hands out a block
+        // of 50 per nextval to imports and entity saves alike. Schemas generated by ddl-auto have no
+        // column defaults, so the id and initial version are always given explicitly
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.idGenerator = (IdentifierGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(Lead.class).getGenerator();
+        this.insertSql = "INSERT INTO leads (id, company_name, contact_name, email, phone, status, source, owner_id, created_at, updated_at, version) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.importExecutor = importExecutor;
+        this.leadQueryCache = leadQueryCache;
+        this.statusHistory = statusHistory;
+        this.batchSize = batchSize;
+        this.jobRepository = jobRepository;
+        this.abandonAfter = abandonAfter;
+    }
+
+    /**
+     * Queue an import of the uploaded file. Imported leads are owned by {@code owner}.
+     *
+     * @throws org.springframework.core.task.TaskRejectedException if the import queue is full
+     */
+    public LeadImportJob submit(MultipartFile file, LeadFileFormat format, User owner) throws IOException {
+        jobRepository.deleteFinishedBefore(LocalDateTime.now().minus(JOB_RETENTION));
+
+        // The multipart temp file is gone once the request completes, so keep our own copy
+        Path spooled = Files.createTempFile("lead-import-", "." + format.getExtension());
+        file.transferTo(spooled);
+
+        LeadImportJob job = new LeadImportJob(file.getOriginalFilename(), format, owner.getEmail());
+        persist(job);
+        activeJobs.put(job.getId(), job);
+
+        try {
+            importExecutor.execute(() -> run(job, spooled, owner.getId()));
+        } catch (RuntimeException e) {
+            activeJobs.remove(job.getId());
+            jobRepository.deleteById(job.getId());
+            Files.deleteIfExists(spooled);
+            throw e;
+        }
+
+        log.info("Queued lead import {} ({}, {} bytes) for {}", job.getId(), format, file.getSize(), owner.getEmail());
+        return job;
+    }
+
+    /**
+     * The job as this instance is running it, or as last persisted by whichever instance ran it
+     */
+    public Optional<LeadImportJob> findJob(String jobId) {
+        LeadImportJob active = activeJobs.get(jobId);
+        if (active != null) {
+            return Optional.of(active);
+        }
+        // Read from the primary: a job submitted moments ago may not have reached a replica
+        return PrimaryReads.call(() -> jobRepository.findById(jobId)).map(this::restore);
+    }
+
+    /**
+     * Keep up the heartbeat of this instance's unfinished jobs, including those still queued
+     */
+    @Scheduled(fixedDelayString = "${app.leads.import.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        if (!activeJobs.isEmpty()) {
+            jobRepository.heartbeat(Set.copyOf(activeJobs.keySet()), LocalDateTime.now());
+        }
+    }
+
+    private LeadImportJob restore(LeadImport record) {
+        LocalDateTime now = LocalDateTime.now();
+        if (!record.isFinished() && record.getHeartbeatAt().isBefore(now.minus(abandonAfter))) {
+            String message = "Import interrupted: the instance running it stopped. Please resubmit the file";
+            if (jobRepository.failAbandoned(record.getId(), record.getHeartbeatAt(), message, now) == 1) {
+                log.warn("Lead import {} abandoned, no heartbeat since {}", record.getId(), record.getHeartbeatAt());
+                record.setState(LeadImport.State.FAILED);
+                record.setMessage(message);
+                record.setFinishedAt(now);
+            }
+        }
+        List<LeadImportStatus.RowError> errors = List.of();
+        if (record.getErrors() != null) {
+            try {
+                errors = objectMapper.readValue(record.getErrors(), new TypeReference<>() {});
+            } catch (JsonProcessingException e) {
+                log.warn("Could not read the row errors of lead import {}: {}", record.getId(), e.getMessage());
+            }
+        }
+        return new LeadImportJob(record, errors);
+    }
+
+    private void persist(LeadImportJob job) {
+        String errors;
+        try {
+            errors = objectMapper.writeValueAsString(job.reportedErrors());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not write the row errors of lead import " + job.getId(), e);
+        }
+        jobRepository.save(job.toRecord(errors, LocalDateTime.now()));
+    }
+
+    /**
+     * Persist the job's progress; a failure only delays what other instances see, so the import goes on
+     */
+    private void saveProgress(LeadImportJob job) {
+        try {
+            persist(job);
+        } catch (RuntimeException e) {
+            log.warn("Could not save the progress of lead import {}: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private void run(LeadImportJob job, Path file, Long ownerId) {
+        job.start();
+        saveProgress(job);
+        try {
+            importRows(job, file, ownerId);
+        } finally {
+            saveProgress(job);
+            activeJobs.remove(job.getId());
+        }
+    }
+
+    private void importRows(LeadImportJob job, Path file, Long ownerId) {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Iterator<ParsedRow> rows = job.getFormat() == LeadFileFormat.CSV ? csvRows(reader) : ndjsonRows(reader);
+            List<PendingRow> batch = new ArrayList<>(batchSize);
+
+            while (rows.hasNext()) {
+                ParsedRow row = rows.next();
+                job.rowRead();
+
+                String error = row.error() != null ? row.error() : validate(row.values());
+                if (error != null) {
+                    job.reject(row.number(), error);
+                    continue;
+                }
+
+                batch.add(new PendingRow(row.number(), toLead(row.values())));
+                if (batch.size() >= batchSize) {
+                    insertBatch(batch, ownerId, job);
+                }
+            }
+            insertBatch(batch, ownerId, job);
+
+            job.complete();
+            log.info("Lead import {} finished: {} read, {} imported, {} rejected",
+                    job.getId(), job.getRowsRead().get(), job.getRowsImported().get(), job.getRowsRejected().get());
+        } catch (UncheckedIOException | IOException | IllegalArgumentException e) {
+            log.warn("Lead import {} failed: {}", job.getId(), e.getMessage());
+            job.fail("Could not read file: " + e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Lead import {} failed: {}", job.getId(), e.getMessage(), e);
+            job.fail("Import failed: " + e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete import spool file {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private void insertBatch(List<PendingRow> batch, Long ownerId, LeadImportJob job) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<LeadStatusChange> created = new ArrayList<>(batch.size());
+
+        // Assigned once, so the row-by-row retry reuses them
+        List<Long> ids = nextIds(batch.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(batch, ids, ownerId, Timestamp.valueOf(now)));
+            for (int i = 0; i < batch.size(); i++) {
+                created.add(creation(ids.get(i), batch.get(i).lead(), ownerId, now));
+            }
+            job.imported(batch.size());
+        } catch (DataAccessException e) {
+            // PostgreSQL aborts the whole transaction on the first bad row; isolate it
+            log.warn("Lead import {} batch of {} failed, retrying row by row: {}",
+                    job.getId(), batch.size(), e.getMostSpecificCause().getMessage());
+            for (int i = 0; i < batch.size(); i++) {
+                PendingRow row = batch.get(i);
+                Long id = ids.get(i);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(row), List.of(id), ownerId, Timestamp.valueOf(now)));
+                    created.add(creation(id, row.lead(), ownerId, now));
+                    job.imported(1);
+                } catch (DataAccessException rowError) {
+                    job.reject(row.number(), "Rejected by database: " + rowError.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+        // Imported leads show up in lists and statistics batch by batch
+        leadQueryCache.leadsChanged(batch.stream().map(row -> row.lead().getStatus()).toList());
+        statusHistory.record(created);
+        batch.clear();
+        saveProgress(job);
+    }
+
+    /**
+     * Lead ids for {@code count} rows; only every 50th id costs a sequence call
+     */
+    private List<Long> nextIds(int count) {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            List<Long> ids = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                ids.add((Long) idGenerator.generate((SharedSessionContractImplementor) session, null));
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * Insert the rows with their ids in one JDBC batch
+     */
+    private void insert(List<PendingRow> rows, List<Long> ids, Long ownerId, Timestamp now) {
+        jdbcTemplate.batchUpdate(insertSql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                bind(ps, ids.get(i), rows.get(i).lead(), ownerId, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    private static LeadStatusChange creation(Long id, Lead lead, Long ownerId, LocalDateTime now) {
+        return new LeadStatusChange(id, null, lead.getStatus(), ownerId, lead.getSource(), now);
+    }
+
+    private static void bind(PreparedStatement ps, Long id, Lead lead, Long ownerId, Timestamp now) throws SQLException {
+        ps.setLong(1, id);
+        ps.setString(2, lead.getCompanyName());
+        ps.setString(3, lead.getContactName());
+        ps.setString(4, lead.getEmail());
+        if (lead.getPhone() != null) {
+            ps.setString(5, lead.getPhone());
+        } else {
+            ps.setNull(5, Types.VARCHAR);
+        }
+        ps.setString(6, lead.getStatus().name());
+        if (lead.getSource() != null) {
+            ps.setString(7, lead.getSource().name());
+        } else {
+            ps.setNull(7, Types.VARCHAR);
+        }
+        ps.setLong(8, ownerId);
+        ps.setTimestamp(9, now);
+        ps.setTimestamp(10, now);
+    }
+
+    /**
+     * Validation error for the row, or null if it can be inserted
+     */
+    private String validate(Map<String, String> values) {
+        String status = values.get("status");
+        if (status != null && !isEnumConstant(Lead.Status.class, status)) {
+            return "Invalid status: " + status;
+        }
+        String source = values.get("source");
+        if (source != null && !isEnumConstant(Lead.Source.class, source)) {
+            return "Invalid source: " + source;
+        }
+        if (values.get("email") == null) {
+            return "email: must not be blank";
+        }
+        if (exceeds(values.get("companyname"), MAX_NAME_LENGTH) || exceeds(values.get("contactname"), MAX_NAME_LENGTH)
+                || exceeds(values.get("email"), MAX_NAME_LENGTH)) {
+            return "Values must be at most " + MAX_NAME_LENGTH + " characters";
+        }
+        if (exceeds(values.get("phone"), MAX_PHONE_LENGTH)) {
+            return "phone: must be at most " + MAX_PHONE_LENGTH + " characters";
+        }
+
+        // Same bean validation constraints as createLead
+        Set<ConstraintViolation<Lead>> violations = validator.validate(toLead(values));
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+        }
+        return null;
+    }
+
+    private static Lead toLead(Map<String, String> values) {
+        Lead lead = Lead.builder()
+            .companyName(values.get("companyname"))
+            .contactName(values.get("contactname"))
+            .email(values.get("email"))
+            .phone(values.get("phone"))
+            .build();
+        if (values.get("status") != null) {
+            lead.setStatus(Lead.Status.valueOf(values.get("status").toUpperCase(Locale.ROOT)));
+        }
+        if (values.get("source") != null) {
+            lead.setSource(Lead.Source.valueOf(values.get("source").toUpperCase(Locale.ROOT)));
+        }
+        return lead;
+    }
+
+    private Iterator<ParsedRow> csvRows(BufferedReader reader) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            throw new IllegalArgumentException("File is empty");
+        }
+        List<String> columns = header.stream().map(LeadImportService::normalizeKey).toList();
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(c -> !columns.contains(c)).sorted().toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Missing CSV columns: " + missing);
+        }
+
+        return new RowIterator() {
+            @Override
+            ParsedRow read(long number) throws IOException {
+                List<String> record = csv.next();
+                while (record != null && record.size() == 1 && record.get(0).isBlank()) {
+                    record = csv.next();
+                }
+                if (record == null) {
+                    return null;
+                }
+                if (record.size() != columns.size()) {
+                    return ParsedRow.error(number, "Expected " + columns.size() + " fields but found " + record.size());
+                }
+                Map<String, String> values = new HashMap<>();
+                for (int i = 0; i < columns.size(); i++) {
+                    putValue(values, columns.get(i), record.get(i));
+                }
+                return new ParsedRow(number, values, null);
+            }
+        };
+    }
+
+    private Iterator<ParsedRow> ndjsonRows(BufferedReader reader) {
+        return new RowIterator() {
+            @Override
+            ParsedRow read(long number) throws IOException {
+                String line = reader.readLine();
+                while (line != null && line.isBlank()) {
+                    line = reader.readLine();
+                }
+                if (line == null) {
+                    return null;
+                }
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(line);
+                } catch (JsonProcessingException e) {
+                    return ParsedRow.error(number, "Malformed JSON: " + e.getOriginalMessage());
+                }
+                if (!node.isObject()) {
+                    return ParsedRow.error(number, "Expected a JSON object");
+                }
+                Map<String, String> values = new HashMap<>();
+                node.fields().forEachRemaining(field ->
+                    putValue(values, normalizeKey(field.getKey()), field.getValue().isNull() ? null : field.getValue().asText()));
+                return new ParsedRow(number, values, null);
+            }
+        };
+    }
+
+    // Accept camelCase and snake_case column names alike: companyName, company_name -> companyname
+    private static String normalizeKey(String key) {
+        return key.replace("_", "").trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static void putValue(Map<String, String> values, String key, String value) {
+        if (value != null && !value.isBlank()) {
+            values.put(key, value.trim());
+        }
+    }
+
+    private static boolean exceeds(String value, int max) {
+        return value != null && value.length() > max;
+    }
+
+    private static <E extends Enum<E>> boolean isEnumConstant(Class<E> type, String value) {
+        try {
+            Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private record ParsedRow(long number, Map<String, String> values, String error) {
+        static ParsedRow error(long number, String error) {
+            return new ParsedRow(number, null, error);
+        }
+    }
+
+    private record PendingRow(long number, Lead lead) {
+    }
+
+    /**
+     * Pull-style iterator over data rows, numbering them from 1
+     */
+    private abstract static class RowIterator implements Iterator<ParsedRow> {
+        private long number;
+        private ParsedRow next;
+        private boolean done;
+
+        abstract ParsedRow read(long number) throws IOException;
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                try {
+                    next = read(number + 1);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (next == null) {
+                    done = true;
+                } else {
+                    number++;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public ParsedRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ParsedRow row = next;
+            next = null;
+            return row;
+        }
+    }
+}
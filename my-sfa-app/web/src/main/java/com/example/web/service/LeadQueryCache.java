@@ -0,0 +1,131 @@
+package com.example.web.service;
+
+import com.example.core.domain.Lead;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Names of the cached lead queries and their invalidation after lead writes.
+ * <p>
+ * List pages and their fingerprints are keyed by {@link LeadQueryKey}, so a write only drops the
+ * entries whose status filter matches a status the written leads had before or have after, plus the
+ * unfiltered ones. Search results and statistics span every status and are dropped on any write.
+ * Caches are per instance: writes on another instance become visible when the entries expire.
+ * <p>
+ * Keys also carry a generation that every write to the leads they cover advances before the entries
+ * are dropped. A query that read the old data and finishes after the invalidation stores its result
+ * under the old generation, where no later lookup goes, instead of reinstating a stale entry. The
+ * services refill misses from the primary, so a lagging replica cannot do the same under the new one.
+ */
+@Slf4j
+// Named explicitly: the @Cacheable keys of the lead services call it as @leadQueryCache
+@Component("leadQueryCache")
+public class LeadQueryCache {
+
+    public static final String PAGES = "lead-pages";
+    public static final String LIST_FINGERPRINTS = "lead-list-fingerprints";
+    public static final String SEARCH = "lead-search";
+    public static final String STATS = "lead-stats";
+
+    /**
+     * Caffeine spec of each cache unless overridden by {@code app.cache.specs.<name>}
+     */
+    public static final Map<String, String> DEFAULT_SPECS = defaultSpecs();
+
+    private static final List<String> STATUS_SCOPED = List.of(PAGES, LIST_FINGERPRINTS);
+    private static final List<String> UNSCOPED = List.of(SEARCH, STATS);
+
+    private final Map<String, Cache<Object, Object>> caches = new LinkedHashMap<>();
+    private final Map<String, Counter> invalidations = new LinkedHashMap<>();
+    // Advanced by writes of leads with the status; unfiltered queries follow every write
+    private final Map<Lead.Status, AtomicLong> statusGenerations = new EnumMap<>(Lead.Status.class);
+    private final AtomicLong generation = new AtomicLong();
+
+    public LeadQueryCache(CacheManager cacheManager, MeterRegistry meterRegistry) {
+        for (String name : DEFAULT_SPECS.keySet()) {
+            caches.put(name, ((CaffeineCache) cacheManager.getCache(name)).getNativeCache());
+            invalidations.put(name, Counter.builder("cache.invalidations")
+                    .description("Entries dropped because leads were written")
+                    .tag("cache", name)
+                    .register(meterRegistry));
+        }
+        for (Lead.Status status : Lead.Status.values()) {
+            statusGenerations.put(status, new AtomicLong());
+        }
+    }
+
+    /**
+     * Key to cache {@code query} under: a {@link LeadQueryKey}, or any other value for a query over all leads
+     */
+    public GenerationKey currentKey(Object query) {
+        Lead.Status status = query instanceof LeadQueryKey key ? key.status() : null;
+        return new GenerationKey(query, status != null ? statusGenerations.get(status).get() : generation.get());
+    }
+
+    /**
+     * Leads with these statuses (before or after the write) were created, changed or deleted
+     */
+    public void leadsChanged(Collection<Lead.Status> statuses) {
+        Set<Lead.Status> affected = Set.copyOf(statuses);
+        // Before dropping entries, so queries from now on use keys no stale result was stored under
+        affected.forEach(status -> statusGenerations.get(status).incrementAndGet());
+        generation.incrementAndGet();
+        for (String name : STATUS_SCOPED) {
+            removeIf(name, key -> {
+                Lead.Status status = ((LeadQueryKey) ((GenerationKey) key).query()).status();
+                return status == null || affected.contains(status);
+            });
+        }
+        UNSCOPED.forEach(name -> removeIf(name, key -> true));
+        log.debug("Lead query caches invalidated for statuses {}", affected);
+    }
+
+    /**
+     * Leads of any status may have been written
+     */
+    public void allLeadsChanged() {
+        leadsChanged(EnumSet.allOf(Lead.Status.class));
+    }
+
+    private void removeIf(String name, Predicate<Object> matches) {
+        Counter counter = invalidations.get(name);
+        caches.get(name).asMap().keySet().removeIf(key -> {
+            boolean remove = matches.test(key);
+            if (remove) {
+                counter.increment();
+            }
+            return remove;
+        });
+    }
+
+    /**
+     * @param query      {@link LeadQueryKey} or other value identifying the query
+     * @param generation generation of the leads the query covers when it started
+     */
+    public record GenerationKey(Object query, long generation) {
+    }
+
+    private static Map<String, String> defaultSpecs() {
+        Map<String, String> specs = new LinkedHashMap<>();
+        specs.put(PAGES, "maximumSize=2000,expireAfterWrite=30s");
+        specs.put(LIST_FINGERPRINTS, "maximumSize=2000,expireAfterWrite=30s");
+        specs.put(SEARCH, "maximumSize=1000,expireAfterWrite=60s");
+        specs.put(STATS, "maximumSize=10,expireAfterWrite=60s");
+        return specs;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.web.service;
+
+import com.example.core.domain.Lead;
+import com.example.infra.repository.LeadFilter;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+/**
+ * Cache key of a lead query: the filter and page in a normalized form, so requests that run the same
+ * query share an entry. Search terms are compared the way the queries compare them (trimmed and
+ * case-insensitive), blank terms count as none, and an unpaged request has page and size -1. A page
+ * built on a known total carries it; otherwise total is -1.
+ */
+public record LeadQueryKey(
+        Lead.Status status,
+        Lead.Source source,
+        String searchTerm,
+        LocalDateTime startDate,
+        LocalDateTime endDate,
+        int page,
+        int size,
+        String sort,
+        long total) {
+
+    /**
+     * Key of a whole result, e.g. a count, independent of paging
+     */
+    public static LeadQueryKey of(LeadFilter filter) {
+        return new LeadQueryKey(filter.getStatus(), filter.getSource(), normalize(filter.getSearchTerm()),
+                filter.getStartDate(), filter.getEndDate(), -1, -1, "", -1);
+    }
+
+    public static LeadQueryKey of(LeadFilter filter, Pageable pageable) {
+        return new LeadQueryKey(filter.getStatus(), filter.getSource(), normalize(filter.getSearchTerm()),
+                filter.getStartDate(), filter.getEndDate(),
+                pageable.isPaged() ? pageable.getPageNumber() : -1,
+                pageable.isPaged() ? pageable.getPageSize() : -1,
+                pageable.getSort().toString(),
+                -1);
+    }
+
+    public static LeadQueryKey ofStatus(Lead.Status status) {
+        return of(LeadFilter.builder().status(status).build());
+    }
+
+    public static LeadQueryKey ofSearch(String term, Pageable pageable) {
+        return of(LeadFilter.builder().searchTerm(term).build(), pageable);
+    }
+
+    public LeadQueryKey withTotal(long total) {
+        return new LeadQueryKey(status, source, searchTerm, startDate, endDate, page, size, sort, total);
+    }
+
+    private static String normalize(String searchTerm) {
+        return searchTerm == null || searchTerm.isBlank() ? null : searchTerm.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.web.service;
+
+import com.example.infra.config.PrimaryReads;
+import com.example.infra.repository.LeadFilter;
+import com.example.infra.repository.LeadRepository;
+import com.example.infra.repository.projection.LeadListFingerprint;
+import com.example.infra.repository.projection.LeadSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Cached lead list queries. Entries are keyed by the normalized filter and page at the current
+ * generation (see {@link LeadQueryCache#currentKey}) and dropped when leads are written.
+ * <p>
+ * Misses read from the primary: a replica may not have the write that advanced the generation yet,
+ * and its result would be cached under the new key until the entry expires.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class LeadQueryService {
+
+    private final LeadRepository leadRepository;
+
+    @Cacheable(cacheNames = LeadQueryCache.LIST_FINGERPRINTS, key = "@leadQueryCache.currentKey(T(com.example.web.service.LeadQueryKey).of(#filter))")
+    public LeadListFingerprint fingerprint(LeadFilter filter) {
+        return PrimaryReads.call(() -> leadRepository.fingerprint(filter));
+    }
+
+    /**
+     * Offset page of the filtered leads; {@code total} comes from the fingerprint of the same filter
+     */
+    @Cacheable(cacheNames = LeadQueryCache.PAGES, key = "@leadQueryCache.currentKey(T(com.example.web.service.LeadQueryKey).of(#filter, #pageable).withTotal(#total))")
+    public Page<LeadSummary> findPage(LeadFilter filter, Pageable pageable, long total) {
+        return PrimaryReads.call(() -> leadRepository.findLeadSummaries(filter, pageable, total));
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.web.service;
+
+import com.example.infra.config.PrimaryReads;
+import com.example.infra.repository.LeadRepository;
+import com.example.infra.repository.projection.LeadSummary;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lead search across company name, contact name and email.
+ * <p>
+ * On PostgreSQL with {@code pg_trgm} installed (V6) the search runs as a native query that
+ * uses the trigram GIN indexes and orders results by relevance. Elsewhere (H2, or schemas
+ * built by Hibernate without Flyway) it falls back to the portable JPQL LIKE query.
+ * {@code app.leads.search.mode} can force {@code trigram} or {@code like}; the default is {@code auto}.
+ * Result pages are cached until the next lead write (see {@link LeadQueryCache}) and searched on the
+ * primary, like the lead list pages (see {@link LeadQueryService}).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class LeadSearchService {
+
+    private final LeadRepository leadRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.leads.search.mode:auto}")
+    private String mode;
+
+    private boolean trigramEnabled;
+
+    @PostConstruct
+    void detectSearchMode() {
+        if ("like".equalsIgnoreCase(mode)) {
+            trigramEnabled = false;
+        } else if ("trigram".equalsIgnoreCase(mode)) {
+            trigramEnabled = true;
+        } else {
+            trigramEnabled = isTrigramInstalled();
+        }
+        log.info("Lead search mode: {}", trigramEnabled ? "trigram (ranked)" : "like (fallback)");
+    }
+
+    @Cacheable(cacheNames = LeadQueryCache.SEARCH, key = "@leadQueryCache.currentKey(T(com.example.web.service.LeadQueryKey).ofSearch(#term, #pageable))")
+    public Page<LeadSummary> search(String term, Pageable pageable) {
+        return PrimaryReads.call(() -> searchSummaries(term, pageable));
+    }
+
+    public boolean isTrigramEnabled() {
+        return trigramEnabled;
+    }
+
+    private Page<LeadSummary> searchSummaries(String term, Pageable pageable) {
+        String normalized = term.toLowerCase(Locale.ROOT);
+        String pattern = "%" + escapeLike(normalized) + "%";
+        if (!trigramEnabled) {
+            return leadRepository.searchSummaries(pattern, pageable);
+        }
+
+        // Relevance defines the order, so any client-supplied sort is dropped
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        Page<Long> rankedIds = leadRepository.searchLeadIdsRanked(normalized, pattern, unsorted);
+        if (rankedIds.isEmpty()) {
+            return new PageImpl<>(List.of(), unsorted, rankedIds.getTotalElements());
+        }
+
+        Map<Long, LeadSummary> rowsById = new HashMap<>();
+        for (LeadSummary row : leadRepository.findSummariesByIdIn(rankedIds.getContent())) {
+            rowsById.put(row.id(), row);
+        }
+        List<LeadSummary> ranked = new ArrayList<>(rankedIds.getNumberOfElements());
+        for (Long id : rankedIds.getContent()) {
+            LeadSummary row = rowsById.get(id);
+            if (row != null) {
+                ranked.add(row);
+            }
+        }
+        return new PageImpl<>(ranked, unsorted, rankedIds.getTotalElements());
+    }
+
+    private boolean isTrigramInstalled() {
+        try {
+            Boolean installed = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'pg_trgm')", Boolean.class);
+            return Boolean.TRUE.equals(installed);
+        } catch (DataAccessException e) {
+            // Not PostgreSQL (e.g. H2 in tests)
+            return false;
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.web.service;
+
+import com.example.core.domain.LeadStatsCounterState;
+import com.example.infra.repository.LeadStatsCounterStateRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the V4 lead statistics counters in step with {@code app.leads.stats.use-counters}.
+ * <p>
+ * At startup the counter triggers are switched on, with the counters rebuilt from {@code leads}, or
+ * switched off so deployments that read aggregates pay nothing per write. While on, pending deltas are
+ * periodically folded into {@code lead_stats_counters}. All instances must share the setting.
+ */
+@Slf4j
+@Component
+public class LeadStatsCounterMaintenance {
+
+    // Rows are folded in key order, so concurrent compactions on several instances cannot deadlock
+    private static final String COMPACT_SQL =
+            "WITH folded AS (DELETE FROM lead_stats_counter_deltas RETURNING dimension, bucket, delta) " +
+            "INSERT INTO lead_stats_counters (dimension, bucket, lead_count) " +
+            "SELECT dimension, bucket, SUM(delta) FROM folded GROUP BY dimension, bucket ORDER BY dimension, bucket " +
+            "ON CONFLICT (dimension, bucket) DO UPDATE SET lead_count = lead_stats_counters.lead_count + EXCLUDED.lead_count";
+
+    private final LeadStatsCounterStateRepository stateRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean useCounters;
+
+    public LeadStatsCounterMaintenance(LeadStatsCounterStateRepository stateRepository,
+                                       JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${app.leads.stats.use-counters:false}") boolean useCounters) {
+        this.stateRepository = stateRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.useCounters = useCounters;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void applySetting() {
+        boolean enabled = stateRepository.findById(LeadStatsCounterState.ID)
+                .map(LeadStatsCounterState::isEnabled)
+                .orElse(false);
+        if (useCounters && !enabled) {
+            enable();
+        } else if (!useCounters && enabled) {
+            disable();
+        }
+    }
+
+    /**
+     * Rebuild the counters from leads and start recording deltas. Lead writes wait for the rebuild, so
+     * none is missed or counted twice.
+     */
+    public void enable() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Boolean enabled = jdbcTemplate.queryForObject(
+                    "SELECT enabled FROM lead_stats_counter_state WHERE id = 1 FOR UPDATE", Boolean.class);
+            if (Boolean.TRUE.equals(enabled)) {
+                return;
+            }
+            jdbcTemplate.execute("LOCK TABLE leads IN SHARE MODE");
+            jdbcTemplate.update("DELETE FROM lead_stats_counter_deltas");
+            jdbcTemplate.update("DELETE FROM lead_stats_counters");
+            jdbcTemplate.update("INSERT INTO lead_stats_counters (dimension, bucket, lead_count) " +
+                    "SELECT 'TOTAL', 'ALL', COUNT(*) FROM leads");
+            jdbcTemplate.update("INSERT INTO lead_stats_counters (dimension, bucket, lead_count) " +
+                    "SELECT 'STATUS', status, COUNT(*) FROM leads GROUP BY status");
+            jdbcTemplate.update("INSERT INTO lead_stats_counters (dimension, bucket, lead_count) " +
+                    "SELECT 'SOURCE', source, COUNT(*) FROM leads WHERE source IS NOT NULL GROUP BY source");
+            jdbcTemplate.update("UPDATE lead_stats_counter_state SET enabled = TRUE, rebuilt_at = CURRENT_TIMESTAMP WHERE id = 1");
+            log.info("Lead statistics counters rebuilt and enabled");
+        });
+    }
+
+    /**
+     * Stop recording deltas and drop the counters, which would otherwise go stale
+     */
+    public void disable() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE lead_stats_counter_state SET enabled = FALSE WHERE id = 1");
+            jdbcTemplate.update("DELETE FROM lead_stats_counter_deltas");
+            jdbcTemplate.update("DELETE FROM lead_stats_counters");
+            log.info("Lead statistics counters disabled");
+        });
+    }
+
+    /**
+     * Fold pending deltas into the counters
+     *
+     * @return number of counter rows changed
+     */
+    @Scheduled(fixedDelayString = "${app.leads.stats.compact-interval-ms:10000}")
+    public int compact() {
+        if (!useCounters) {
+            return 0;
+        }
+        return jdbcTemplate.update(COMPACT_SQL);
+    }
+}
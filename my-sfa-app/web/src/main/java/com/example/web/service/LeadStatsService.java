@@ -0,0 +1,142 @@
+package com.example.web.service;
+
+import com.example.core.domain.Lead;
+import com.example.core.domain.LeadStatsCounter;
+import com.example.infra.config.PrimaryReads;
+import com.example.infra.repository.LeadRepository;
+import com.example.infra.repository.LeadStatsCounterRepository;
+import com.example.web.dto.LeadStatistics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Lead dashboard statistics computed from aggregates instead of loaded entities.
+ * <p>
+ * By default every breakdown comes from a single GROUP BY query. When
+ * {@code app.leads.stats.use-counters} is enabled the status/source/total numbers
+ * are read from the V4 counters and their pending deltas instead (see
+ * {@link LeadStatsCounterMaintenance}), which keeps the cost flat no matter how large
+ * {@code leads} grows.
+ * <p>
+ * Results are cached until the next lead write (see {@link LeadQueryCache}) and computed on the
+ * primary, like the lead list pages (see {@link LeadQueryService}).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class LeadStatsService {
+
+    static final int RECENT_DAYS = 30;
+
+    private final LeadRepository leadRepository;
+    private final LeadStatsCounterRepository counterRepository;
+
+    @Value("${app.leads.stats.use-counters:false}")
+    private boolean useCounters;
+
+    /**
+     * Full statistics: total, status breakdown, source breakdown and leads created in the last 30 days
+     */
+    @Cacheable(cacheNames = LeadQueryCache.STATS, key = "@leadQueryCache.currentKey('statistics')")
+    public LeadStatistics getStatistics() {
+        return PrimaryReads.call(this::computeStatistics);
+    }
+
+    /**
+     * Lead counts per status, zero-filled for statuses with no leads
+     */
+    @Cacheable(cacheNames = LeadQueryCache.STATS, key = "@leadQueryCache.currentKey('status-counts')")
+    public Map<String, Long> getStatusCounts() {
+        return PrimaryReads.call(this::computeStatusCounts);
+    }
+
+    private LeadStatistics computeStatistics() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime since = now.minusDays(RECENT_DAYS);
+
+        Map<String, Long> statusCounts = emptyStatusCounts();
+        Map<String, Long> sourceCounts = emptySourceCounts();
+        long total = 0;
+        long recent = 0;
+
+        if (useCounters) {
+            for (Object[] row : counterRepository.sumCurrentCounts()) {
+                String bucket = (String) row[1];
+                long count = toLong(row[2]);
+                switch (LeadStatsCounter.Dimension.valueOf((String) row[0])) {
+                    case TOTAL -> total = count;
+                    case STATUS -> statusCounts.computeIfPresent(bucket, (k, v) -> count);
+                    case SOURCE -> sourceCounts.computeIfPresent(bucket, (k, v) -> count);
+                }
+            }
+            recent = leadRepository.countCreatedSince(since);
+        } else {
+            for (Object[] row : leadRepository.countGroupedByStatusAndSource(since)) {
+                Lead.Status status = (Lead.Status) row[0];
+                Lead.Source source = (Lead.Source) row[1];
+                long count = toLong(row[2]);
+
+                statusCounts.merge(status.name(), count, Long::sum);
+                if (source != null) {
+                    sourceCounts.merge(source.name(), count, Long::sum);
+                }
+                total += count;
+                recent += toLong(row[3]);
+            }
+        }
+
+        log.debug("Computed lead statistics (counters: {}) - total: {}, recent: {}", useCounters, total, recent);
+
+        return LeadStatistics.builder()
+                .totalLeads(total)
+                .statusBreakdown(statusCounts)
+                .sourceBreakdown(sourceCounts)
+                .recentLeads(recent)
+                .generatedAt(now)
+                .build();
+    }
+
+    private Map<String, Long> computeStatusCounts() {
+        Map<String, Long> counts = emptyStatusCounts();
+
+        if (useCounters) {
+            for (Object[] row : counterRepository.sumCurrentCounts(LeadStatsCounter.Dimension.STATUS.name())) {
+                counts.computeIfPresent((String) row[0], (k, v) -> toLong(row[1]));
+            }
+        } else {
+            for (Object[] row : leadRepository.countGroupedByStatus()) {
+                counts.put(((Lead.Status) row[0]).name(), toLong(row[1]));
+            }
+        }
+        return counts;
+    }
+
+    private static Map<String, Long> emptyStatusCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Lead.Status status : Lead.Status.values()) {
+            counts.put(status.name(), 0L);
+        }
+        return counts;
+    }
+
+    private static Map<String, Long> emptySourceCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Lead.Source source : Lead.Source.values()) {
+            counts.put(source.name(), 0L);
+        }
+        return counts;
+    }
+
+    private static long toLong(Object value) {
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.web.service;
+
+import com.example.core.domain.Lead;
+import com.example.core.domain.LeadStatusHistory;
+import com.example.infra.repository.LeadStatusChange;
+import com.example.infra.repository.LeadStatusChangeEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records lead status transitions in {@code lead_status_history} off the request path.
+ * <p>
+ * Committed changes are queued and a single writer thread inserts whatever has accumulated in one
+ * JDBC batch, so under load many requests share one round trip. Single-lead writes are picked up by
+ * a Hibernate post-commit listener; bulk updates publish a {@link LeadStatusChangeEvent} and imports
+ * call {@link #record(Collection)} after each committed batch. A full queue makes the caller write its
+ * own changes rather than drop them. Queued changes are lost if the process dies before they are written.
+ */
+@Slf4j
+@Component
+public class LeadStatusHistoryWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO lead_status_history " +
+            "(lead_id, owner_id, changed_at, from_status, to_status, source) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<LeadStatusChange> queue;
+    private final int batchSize;
+    private final Counter written;
+    private final Counter dropped;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public LeadStatusHistoryWriter(JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   EntityManagerFactory entityManagerFactory,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.leads.status-history.batch-size:500}") int batchSize,
+                                   @Value("${app.leads.status-history.queue-capacity:100000}") int queueCapacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.written = Counter.builder("lead.status.history.written")
+                .description("Status transitions inserted into lead_status_history")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("lead.status.history.dropped")
+                .description("Status transitions lost after repeated insert failures")
+                .register(meterRegistry);
+        Gauge.builder("lead.status.history.queued", queue, BlockingQueue::size)
+                .description("Status transitions waiting to be written")
+                .register(meterRegistry);
+
+        LeadListener listener = new LeadListener();
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+
+        this.writer = new Thread(this::drain, "lead-status-history");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queue committed status changes for writing
+     */
+    public void record(Collection<LeadStatusChange> changes) {
+        List<LeadStatusChange> overflow = new ArrayList<>();
+        for (LeadStatusChange change : changes) {
+            if (!queue.offer(change)) {
+                overflow.add(change);
+            }
+        }
+        if (!overflow.isEmpty()) {
+            log.warn("Status history queue full, writing {} transitions on the caller's thread", overflow.size());
+            write(overflow);
+        }
+    }
+
+    @TransactionalEventListener
+    public void onBulkStatusChange(LeadStatusChangeEvent event) {
+        record(event.changes());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void drain() {
+        List<LeadStatusChange> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                LeadStatusChange first = running ? queue.poll(1, TimeUnit.SECONDS) : queue.poll();
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                // Stopping: the loop writes out what is still queued
+                running = false;
+            }
+        }
+    }
+
+    private void write(List<LeadStatusChange> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), LeadStatusHistoryWriter::bind));
+                written.increment(batch.size());
+                return;
+            } catch (DataAccessException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    log.error("Dropping {} status transitions after {} failed attempts: {}",
+                            batch.size(), attempt, e.getMostSpecificCause().getMessage());
+                    dropped.increment(batch.size());
+                    return;
+                }
+                log.warn("Writing {} status transitions failed, retrying: {}", batch.size(), e.getMostSpecificCause().getMessage());
+                try {
+                    Thread.sleep(attempt * 1000L);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private static void bind(PreparedStatement ps, LeadStatusChange change) throws SQLException {
+        ps.setLong(1, change.leadId());
+        ps.setLong(2, change.ownerId());
+        ps.setTimestamp(3, Timestamp.valueOf(change.changedAt()));
+        if (change.fromStatus() != null) {
+            ps.setShort(4, LeadStatusHistory.code(change.fromStatus()));
+        } else {
+            ps.setNull(4, Types.SMALLINT);
+        }
+        ps.setShort(5, LeadStatusHistory.code(change.toStatus()));
+        if (change.source() != null) {
+            ps.setShort(6, LeadStatusHistory.code(change.source()));
+        } else {
+            ps.setNull(6, Types.SMALLINT);
+        }
+    }
+
+    private static LocalDateTime changedAt(LocalDateTime audited) {
+        return audited != null ? audited : LocalDateTime.now();
+    }
+
+    private static int propertyIndex(EntityPersister persister, String name) {
+        String[] names = persister.getPropertyNames();
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Lead has no property " + name);
+    }
+
+    private class LeadListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            if (event.getEntity() instanceof Lead lead) {
+                record(List.of(new LeadStatusChange(lead.getId(), null, lead.getStatus(),
+                        lead.getOwner().getId(), lead.getSource(), changedAt(lead.getCreatedAt()))));
+            }
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            // Without the loaded state (an update of a detached lead) the previous status is unknown
+            if (!(event.getEntity() instanceof Lead lead) || event.getOldState() == null) {
+                return;
+            }
+            Lead.Status previous = (Lead.Status) event.getOldState()[propertyIndex(event.getPersister(), "status")];
+            if (previous != lead.getStatus()) {
+                record(List.of(new LeadStatusChange(lead.getId(), previous, lead.getStatus(),
+                        lead.getOwner().getId(), lead.getSource(), changedAt(lead.getUpdatedAt()))));
+            }
+        }
+
+        @Override
+        public void onPostInsertCommitFailed(PostInsertEvent event) {
+        }
+
+        @Override
+        public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return persister.getMappedClass() == Lead.class;
+        }
+    }
+}
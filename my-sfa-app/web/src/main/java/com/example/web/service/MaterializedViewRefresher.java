@@ -0,0 +1,105 @@
+package com.example.web.service;
+
+import com.example.core.domain.ActiveLead;
+import com.example.infra.repository.MaterializedViewChangeRepository;
+import com.example.infra.repository.MaterializedViewRefreshRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Refreshes the materialized reporting views with {@code REFRESH MATERIALIZED VIEW CONCURRENTLY}, so
+ * report reads are never blocked, but only once writes have recorded changes to a view (see V13) or it
+ * has reached {@code max-age}. The refresh deletes the changes in its own transaction, so a write that
+ * commits while it runs keeps its change and is picked up by the next one.
+ * <p>
+ * A refresh is claimed on the {@code materialized_view_refreshes} row first, so with several instances
+ * only one refreshes a view at a time.
+ */
+@Slf4j
+@Component
+public class MaterializedViewRefresher {
+
+    static final List<String> VIEWS = List.of(ActiveLead.VIEW_NAME);
+
+    private final MaterializedViewRefreshRepository refreshRepository;
+    private final MaterializedViewChangeRepository changeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Duration maxAge;
+    private final Duration lease;
+
+    public MaterializedViewRefresher(MaterializedViewRefreshRepository refreshRepository,
+                                     MaterializedViewChangeRepository changeRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     JdbcTemplate jdbcTemplate,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.reporting.views.max-age:15m}") Duration maxAge,
+                                     @Value("${app.reporting.views.refresh-lease:10m}") Duration lease) {
+        this.refreshRepository = refreshRepository;
+        this.changeRepository = changeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.maxAge = maxAge;
+        this.lease = lease;
+    }
+
+    @Scheduled(fixedDelayString = "${app.reporting.views.refresh-interval-ms:60000}",
+               initialDelayString = "${app.reporting.views.refresh-interval-ms:60000}")
+    public void refreshDirtyViews() {
+        for (String view : VIEWS) {
+            try {
+                refreshIfNeeded(view);
+            } catch (Exception e) {
+                log.error("Failed to refresh materialized view {}: {}", view, e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * @return true if this call refreshed the view
+     */
+    public boolean refreshIfNeeded(String view) {
+        LocalDateTime now = LocalDateTime.now();
+        if (refreshRepository.claimRefresh(view, now, now.minus(maxAge), now.minus(lease)) == 0) {
+            return false;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Each statement takes a new snapshot: the refresh sees every write whose change is deleted here
+                changeRepository.consumeChanges(view);
+                jdbcTemplate.execute("REFRESH MATERIALIZED VIEW CONCURRENTLY " + view);
+            });
+        } catch (RuntimeException e) {
+            sample.stop(timer(view, "failure"));
+            refreshRepository.failRefresh(view);
+            throw e;
+        }
+        long durationNanos = sample.stop(timer(view, "success"));
+        refreshRepository.completeRefresh(view, now, Duration.ofNanos(durationNanos).toMillis());
+        log.debug("Refreshed materialized view {} in {} ms", view, Duration.ofNanos(durationNanos).toMillis());
+        return true;
+    }
+
+    private Timer timer(String view, String outcome) {
+        return Timer.builder("reporting.view.refresh")
+                .description("Time taken to refresh a materialized reporting view")
+                .tag("view", view)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.web.service;
+
+import com.example.core.domain.Opportunity;
+import com.example.infra.repository.OpportunityRepository;
+import com.example.infra.repository.projection.PipelineStageTotal;
+import com.example.web.dto.PipelineReport;
+import com.example.web.dto.PipelineReport.OwnerPipeline;
+import com.example.web.dto.PipelineReport.StageTotal;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sales pipeline by stage and owner, built from one grouped query however many owners there are.
+ * Results are cached until an opportunity's stage, amount, probability or owner changes (see {@link ReportCache}).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class PipelineReportService {
+
+    private final OpportunityRepository opportunityRepository;
+
+    @Cacheable(cacheNames = ReportCache.PIPELINE, key = "'pipeline'")
+    public PipelineReport getPipeline() {
+        List<PipelineStageTotal> rows = opportunityRepository.findPipelineTotals();
+
+        Map<Opportunity.Stage, Totals> byStage = new EnumMap<>(Opportunity.Stage.class);
+        for (Opportunity.Stage stage : Opportunity.Stage.values()) {
+            byStage.put(stage, new Totals());
+        }
+        Map<Long, OwnerTotals> byOwner = new LinkedHashMap<>();
+        Totals overall = new Totals();
+
+        for (PipelineStageTotal row : rows) {
+            byStage.get(row.stage()).add(row);
+            OwnerTotals owner = byOwner.computeIfAbsent(row.ownerId(), id -> new OwnerTotals(id, row.ownerName()));
+            owner.totals.add(row);
+            owner.stages.add(stageTotal(row.stage(), new Totals().add(row)));
+            overall.add(row);
+        }
+
+        List<StageTotal> stages = new ArrayList<>();
+        byStage.forEach((stage, totals) -> stages.add(stageTotal(stage, totals)));
+
+        List<OwnerPipeline> owners = byOwner.values().stream()
+                .sorted(Comparator.comparing((OwnerTotals owner) -> owner.totals.weightedAmount).reversed())
+                .map(owner -> OwnerPipeline.builder()
+                        .ownerId(owner.ownerId)
+                        .ownerName(owner.ownerName)
+                        .count(owner.totals.count)
+                        .amount(owner.totals.amount)
+                        .weightedAmount(scaled(owner.totals.weightedAmount))
+                        .stages(owner.stages.stream()
+                                .sorted(Comparator.comparing(stage -> Opportunity.Stage.valueOf(stage.getStage())))
+                                .toList())
+                        .build())
+                .toList();
+
+        log.debug("Pipeline report built from {} owner/stage groups", rows.size());
+        return PipelineReport.builder()
+                .stages(stages)
+                .owners(owners)
+                .totalCount(overall.count)
+                .totalAmount(overall.amount)
+                .totalWeightedAmount(scaled(overall.weightedAmount))
+                .generatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static StageTotal stageTotal(Opportunity.Stage stage, Totals totals) {
+        return StageTotal.builder()
+                .stage(stage.name())
+                .count(totals.count)
+                .amount(totals.amount)
+                .weightedAmount(scaled(totals.weightedAmount))
+                .build();
+    }
+
+    private static BigDecimal scaled(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static final class Totals {
+        private long count;
+        private BigDecimal amount = BigDecimal.ZERO;
+        private BigDecimal weightedAmount = BigDecimal.ZERO;
+
+        Totals add(PipelineStageTotal row) {
+            count += row.count();
+            amount = amount.add(row.amount());
+            weightedAmount = weightedAmount.add(row.weightedAmount());
+            return this;
+        }
+    }
+
+    private static final class OwnerTotals {
+        private final Long ownerId;
+        private final String ownerName;
+        private final Totals totals = new Totals();
+        private final List<StageTotal> stages = new ArrayList<>();
+
+        OwnerTotals(Long ownerId, String ownerName) {
+            this.ownerId = ownerId;
+            this.ownerName = ownerName;
+        }
+    }
+}
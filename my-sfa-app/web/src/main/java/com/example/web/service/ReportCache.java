@@ -0,0 +1,140 @@
+package com.example.web.service;
+
+import com.example.core.domain.Opportunity;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Names of the cached reports and their invalidation after opportunity writes.
+ * The conversion report reads the asynchronously written status history and only expires.
+ * <p>
+ * Opportunities are written through JPA only, so a Hibernate post-commit listener sees every insert,
+ * delete and update. Updates clear a report only when they touch a field it aggregates; unrelated edits
+ * such as a renamed opportunity keep it cached. Writes that bypass Hibernate become visible on expiry.
+ */
+@Slf4j
+@Component
+public class ReportCache {
+
+    public static final String PIPELINE = "pipeline-report";
+    public static final String FORECAST = "forecast-report";
+    public static final String CONVERSION = "conversion-report";
+
+    /**
+     * Caffeine spec of each cache unless overridden by {@code app.cache.specs.<name>}
+     */
+    public static final Map<String, String> DEFAULT_SPECS = Map.of(
+            PIPELINE, "maximumSize=10,expireAfterWrite=5m",
+            FORECAST, "maximumSize=100,expireAfterWrite=5m",
+            CONVERSION, "maximumSize=100,expireAfterWrite=5m");
+
+    /**
+     * Opportunity fields each report aggregates or filters on
+     */
+    private static final Map<String, Set<String>> REPORT_FIELDS = Map.of(
+            PIPELINE, Set.of("stage", "amount", "probability", "owner"),
+            FORECAST, Set.of("stage", "amount", "probability", "owner", "closeDate"));
+
+    private final Map<String, Cache> caches = new LinkedHashMap<>();
+
+    public ReportCache(CacheManager cacheManager, EntityManagerFactory entityManagerFactory) {
+        REPORT_FIELDS.keySet().forEach(name -> caches.put(name, cacheManager.getCache(name)));
+
+        OpportunityListener listener = new OpportunityListener();
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+    }
+
+    /**
+     * Opportunities were created or deleted: every report changes
+     */
+    public void opportunitiesChanged() {
+        caches.values().forEach(Cache::clear);
+        log.debug("Report caches invalidated");
+    }
+
+    private void opportunityUpdated(PostUpdateEvent event) {
+        REPORT_FIELDS.forEach((name, fields) -> {
+            if (touchesAny(event, fields)) {
+                caches.get(name).clear();
+                log.debug("Report cache {} invalidated", name);
+            }
+        });
+    }
+
+    private static boolean touchesAny(PostUpdateEvent event, Set<String> fields) {
+        int[] dirty = event.getDirtyProperties();
+        if (dirty == null) {
+            return true;
+        }
+        String[] names = event.getPersister().getPropertyNames();
+        for (int index : dirty) {
+            if (fields.contains(names[index])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private class OpportunityListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+            PostCommitDeleteEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            if (event.getEntity() instanceof Opportunity) {
+                opportunitiesChanged();
+            }
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            if (event.getEntity() instanceof Opportunity) {
+                opportunityUpdated(event);
+            }
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            if (event.getEntity() instanceof Opportunity) {
+                opportunitiesChanged();
+            }
+        }
+
+        @Override
+        public void onPostInsertCommitFailed(PostInsertEvent event) {
+        }
+
+        @Override
+        public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        }
+
+        @Override
+        public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return persister.getMappedClass() == Opportunity.class;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.web.config;
+
+import io.micrometer.common.KeyValue;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Request timers are tagged with the handler and the names, not values, of the list filters
+ */
+class HttpRequestMetricsConventionTest {
+
+    private final HttpRequestMetricsConvention convention = new HttpRequestMetricsConvention();
+
+    @Test
+    void shouldTagHandlerAndFilterShape() throws NoSuchMethodException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/leads");
+        request.setParameter("search", "acme");
+        request.setParameter("status", "NEW");
+        request.setParameter("page", "2");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                new HandlerMethod(this, getClass().getDeclaredMethod("shouldTagHandlerAndFilterShape")));
+
+        assertThat(convention.getLowCardinalityKeyValues(context(request)))
+                .contains(KeyValue.of("handler", "HttpRequestMetricsConventionTest.shouldTagHandlerAndFilterShape"),
+                        KeyValue.of("filter", "status+search"));
+    }
+
+    @Test
+    void shouldTagUnfilteredRequestsWithoutHandlerAsNone() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/actuator/health");
+
+        assertThat(convention.getLowCardinalityKeyValues(context(request)))
+                .contains(KeyValue.of("handler", "none"), KeyValue.of("filter", "none"));
+    }
+
+    private static ServerRequestObservationContext context(MockHttpServletRequest request) {
+        return new ServerRequestObservationContext(request, new MockHttpServletResponse());
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.web.config;
+
+import com.example.infra.config.PrimaryReads;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing between two H2 databases standing in for a primary and its replica. Each one names itself in
+ * a {@code server} table; the replica reports its lag from a {@code replication} table.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+    private final List<ReadWriteRoutingDataSource> routings = new ArrayList<>();
+    private ReadWriteRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("primary");
+        replica = h2("replica-1");
+        new JdbcTemplate(replica).execute("CREATE TABLE replication (lag_seconds DOUBLE)");
+        new JdbcTemplate(replica).update("INSERT INTO replication VALUES (0)");
+
+        routing = routing(Duration.ZERO);
+        jdbcTemplate = new JdbcTemplate(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(primary).execute("SHUTDOWN");
+        new JdbcTemplate(replica).execute("SHUTDOWN");
+        routings.forEach(ReadWriteRoutingDataSource::close);
+    }
+
+    @Test
+    void shouldSendReadOnlyTransactionsToTheReplica() {
+        assertThat(serverName(readOnly)).isEqualTo("replica-1");
+        assertThat(serverName(readWrite)).isEqualTo("primary");
+        // Outside a transaction, e.g. plain JdbcTemplate calls, stay on the primary
+        assertThat(serverName()).isEqualTo("primary");
+
+        assertThat(reads("replica-1")).isEqualTo(1.0);
+        assertThat(reads("primary")).isZero();
+    }
+
+    @Test
+    void shouldFallBackToThePrimaryWhileTheReplicaLags() {
+        new JdbcTemplate(replica).update("UPDATE replication SET lag_seconds = 30");
+        routing.checkReplicas();
+
+        assertThat(serverName(readOnly)).isEqualTo("primary");
+        assertThat(meterRegistry.get("db.replica.available").tag("target", "replica-1").gauge().value()).isZero();
+        assertThat(meterRegistry.get("db.replica.lag").tag("target", "replica-1").gauge().value()).isEqualTo(30.0);
+
+        new JdbcTemplate(replica).update("UPDATE replication SET lag_seconds = 1");
+        routing.checkReplicas();
+
+        assertThat(serverName(readOnly)).isEqualTo("replica-1");
+        assertThat(reads("primary")).isEqualTo(1.0);
+        assertThat(reads("replica-1")).isEqualTo(1.0);
+    }
+
+    @Test
+    void shouldReadFromThePrimaryWhenAsked() {
+        assertThat(PrimaryReads.call(() -> serverName(readOnly))).isEqualTo("primary");
+        assertThat(serverName(readOnly)).isEqualTo("replica-1");
+    }
+
+    @Test
+    void shouldKeepReadsOnThePrimaryRightAfterAWrite() {
+        routing = routing(Duration.ofHours(1));
+        jdbcTemplate = new JdbcTemplate(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        TransactionTemplate write = new TransactionTemplate(transactionManager);
+        TransactionTemplate read = new TransactionTemplate(transactionManager);
+        read.setReadOnly(true);
+
+        // Auto-commit statements and rolled back transactions do not count as writes
+        serverName();
+        write.executeWithoutResult(status -> status.setRollbackOnly());
+        assertThat(serverName(read)).isEqualTo("replica-1");
+
+        write.executeWithoutResult(status -> jdbcTemplate.update("UPDATE server SET name = name"));
+        assertThat(serverName(read)).isEqualTo("primary");
+    }
+
+    @Test
+    void shouldFallBackToThePrimaryWhenTheLagCheckFails() {
+        new JdbcTemplate(replica).execute("DROP TABLE replication");
+        routing.checkReplicas();
+
+        assertThat(serverName(readOnly)).isEqualTo("primary");
+        assertThat(meterRegistry.get("db.replica.lag").tag("target", "replica-1").gauge().value()).isNaN();
+    }
+
+    private ReadWriteRoutingDataSource routing(Duration readYourWritesWindow) {
+        ReadWriteRoutingDataSource dataSource = new ReadWriteRoutingDataSource(primary, List.of(replica),
+                Duration.ofSeconds(10), readYourWritesWindow, Duration.ofHours(1), "SELECT lag_seconds FROM replication",
+                meterRegistry);
+        routings.add(dataSource);
+        return dataSource;
+    }
+
+    private String serverName() {
+        return jdbcTemplate.queryForObject("SELECT name FROM server", String.class);
+    }
+
+    private String serverName(TransactionTemplate transaction) {
+        return transaction.execute(status -> serverName());
+    }
+
+    private double reads(String target) {
+        return meterRegistry.get("db.routing.read.connections").tag("target", target).counter().count();
+    }
+
+    private static HikariDataSource h2(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPoolName(name);
+        dataSource.setMaximumPoolSize(2);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE server (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO server VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.web.config;
+
+import com.example.infra.config.PrimaryReads;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing as the application uses it: {@code @Transactional} services on the JPA transaction manager.
+ * Hibernate only takes its connection once the transaction has marked it read-only.
+ */
+@SpringJUnitConfig(ReadWriteRoutingJpaTest.Config.class)
+class ReadWriteRoutingJpaTest {
+
+    @Autowired
+    private ServerNames serverNames;
+
+    @Autowired
+    private SimpleMeterRegistry meterRegistry;
+
+    @Test
+    void shouldSendReadOnlyServiceTransactionsToTheReplica() {
+        assertThat(serverNames.readOnly()).isEqualTo("jpa-replica");
+        assertThat(serverNames.readOnly()).isEqualTo("jpa-replica");
+        assertThat(PrimaryReads.call(serverNames::readOnly)).isEqualTo("jpa-primary");
+        assertThat(serverNames.readWrite()).isEqualTo("jpa-primary");
+        // Within the read-your-writes window of the committed write
+        assertThat(serverNames.readOnly()).isEqualTo("jpa-primary");
+
+        assertThat(meterRegistry.get("db.routing.read.connections").tag("target", "jpa-replica").counter().count())
+                .isEqualTo(2.0);
+        assertThat(meterRegistry.get("db.routing.read.connections").tag("target", "jpa-primary").counter().count())
+                .isEqualTo(2.0);
+    }
+
+    static class ServerNames {
+
+        @PersistenceContext
+        private EntityManager entityManager;
+
+        @Transactional(readOnly = true)
+        public String readOnly() {
+            return name();
+        }
+
+        @Transactional
+        public String readWrite() {
+            return name();
+        }
+
+        private String name() {
+            return (String) entityManager.createNativeQuery("SELECT name FROM server").getSingleResult();
+        }
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class Config {
+
+        @Bean
+        SimpleMeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean(destroyMethod = "close")
+        ReadWriteRoutingDataSource dataSource(SimpleMeterRegistry meterRegistry) {
+            HikariDataSource replica = h2("jpa-replica");
+            new JdbcTemplate(replica).execute("CREATE TABLE replication (lag_seconds DOUBLE)");
+            new JdbcTemplate(replica).update("INSERT INTO replication VALUES (0)");
+            return new ReadWriteRoutingDataSource(h2("jpa-primary"), List.of(replica), Duration.ofSeconds(10),
+                    Duration.ofHours(1), Duration.ofHours(1), "SELECT lag_seconds FROM replication", meterRegistry);
+        }
+
+        @Bean
+        LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+            // As Spring Boot configures it: the vendor adapter makes Hibernate hold the connection per transaction
+            LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+            factory.setDataSource(dataSource);
+            factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            factory.setPackagesToScan(ServerNames.class.getPackageName());
+            return factory;
+        }
+
+        @Bean
+        JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+            return new JpaTransactionManager(entityManagerFactory);
+        }
+
+        @Bean
+        ServerNames serverNames() {
+            return new ServerNames();
+        }
+
+        private static HikariDataSource h2(String name) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setJdbcUrl("jdbc:h2:mem:" + name);
+            dataSource.setUsername("sa");
+            dataSource.setPoolName(name);
+            dataSource.setMaximumPoolSize(2);
+            dataSource.setMinimumIdle(1);
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("CREATE TABLE server (name VARCHAR(20))");
+            jdbcTemplate.update("INSERT INTO server VALUES (?)", name);
+            return dataSource;
+        }
+    }
+}
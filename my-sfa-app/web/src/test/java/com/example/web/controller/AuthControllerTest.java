@@ -0,0 +1,67 @@
+package com.example.web.controller;
+
+import com.example.security.service.AuthService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Login failures coming back from the asynchronous pipeline, as HTTP responses
+ */
+class AuthControllerTest {
+
+    private static final String LOGIN = "{\"email\": \"ann@example.com\", \"password\": \"secret123\"}";
+
+    private AuthService authService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        authService = mock(AuthService.class);
+        mockMvc = MockMvcBuilders.standaloneSetup(new AuthController(authService)).build();
+    }
+
+    @Test
+    void shouldAnswer503WithRetryAfterWhenHashingQueueIsFull() throws Exception {
+        when(authService.login("ann@example.com", "secret123"))
+                .thenReturn(CompletableFuture.failedFuture(new RejectedExecutionException("queue full")));
+
+        mockMvc.perform(asyncDispatch(login()))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.error").value("Too many login attempts in progress. Please retry shortly."));
+    }
+
+    @Test
+    void shouldAnswer401ForBadCredentials() throws Exception {
+        when(authService.login("ann@example.com", "secret123"))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalArgumentException("Invalid email or password")));
+
+        mockMvc.perform(asyncDispatch(login()))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().doesNotExist(HttpHeaders.RETRY_AFTER))
+                .andExpect(jsonPath("$.error").value("Invalid email or password"));
+    }
+
+    private MvcResult login() throws Exception {
+        return mockMvc.perform(post("/api/v1/auth/login").contentType(MediaType.APPLICATION_JSON).content(LOGIN))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+}
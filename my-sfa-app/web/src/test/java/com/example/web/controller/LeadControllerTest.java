@@ -0,0 +1,88 @@
+package com.example.web.controller;
+
+import com.example.infra.repository.LeadFilter;
+import com.example.infra.repository.LeadRepository;
+import com.example.infra.repository.UserRepository;
+import com.example.infra.repository.projection.LeadListFingerprint;
+import com.example.security.service.AuthService;
+import com.example.web.service.LeadExportService;
+import com.example.web.service.LeadImportService;
+import com.example.web.service.LeadQueryCache;
+import com.example.web.service.LeadQueryService;
+import com.example.web.service.LeadSearchService;
+import com.example.web.service.LeadStatsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional requests for lead list pages, validated by the list fingerprint
+ */
+class LeadControllerTest {
+
+    private static final LeadListFingerprint FINGERPRINT =
+            new LeadListFingerprint(3, LocalDateTime.parse("2025-08-01T10:15:30"));
+    private static final String ETAG = "\"3-2025-08-01T10:15:30\"";
+
+    private LeadQueryService leadQueryService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        leadQueryService = mock(LeadQueryService.class);
+        when(leadQueryService.fingerprint(any(LeadFilter.class))).thenReturn(FINGERPRINT);
+        when(leadQueryService.findPage(any(LeadFilter.class), any(Pageable.class), anyLong()))
+                .thenReturn(new PageImpl<>(List.of()));
+        LeadController controller = new LeadController(mock(LeadRepository.class), mock(UserRepository.class),
+                mock(AuthService.class), mock(LeadStatsService.class), mock(LeadSearchService.class),
+                mock(LeadExportService.class), mock(LeadImportService.class), leadQueryService,
+                mock(LeadQueryCache.class));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+                .build();
+    }
+
+    @Test
+    void shouldSendListEtagWithPage() throws Exception {
+        mockMvc.perform(get("/api/v1/leads").param("status", "NEW"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"));
+    }
+
+    @Test
+    void shouldAnswer304WithoutLoadingPageWhenEtagMatches() throws Exception {
+        mockMvc.perform(get("/api/v1/leads").param("status", "NEW").header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG))
+                .andExpect(content().string(""));
+
+        verify(leadQueryService, never()).findPage(any(LeadFilter.class), any(Pageable.class), anyLong());
+    }
+
+    @Test
+    void shouldAnswerWithPageWhenEtagIsStale() throws Exception {
+        mockMvc.perform(get("/api/v1/leads").header(HttpHeaders.IF_NONE_MATCH, "\"2-2025-08-01T10:15:30\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, ETAG));
+    }
+}
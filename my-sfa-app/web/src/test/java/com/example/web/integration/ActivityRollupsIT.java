@@ -0,0 +1,121 @@
+package com.example.web.integration;
+
+import com.example.core.domain.Activity;
+import com.example.core.domain.User;
+import com.example.infra.repository.ActivityRepository;
+import com.example.infra.repository.ActivityRollupRepository;
+import com.example.infra.repository.UserRepository;
+import com.example.web.service.ActivityRollupMaintenance;
+import com.example.web.service.ActivityRollupReconciler;
+import com.example.web.support.PostgresJpaTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * V12: the triggers' deltas, folded or not, keep activity_rollups equal to the activities, so reconciliation
+ * finds nothing to correct
+ */
+@Import({SimpleMeterRegistry.class, ActivityRollupReconciler.class, ActivityRollupMaintenance.class})
+class ActivityRollupsIT extends PostgresJpaTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2025, 8, 4);
+
+    @Autowired
+    private ActivityRollupReconciler reconciler;
+
+    @Autowired
+    private ActivityRollupMaintenance maintenance;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private ActivityRollupRepository rollupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User ann;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        ann = user("ann@example.com", "Ann");
+        bob = user("bob@example.com", "Bob");
+    }
+
+    @Test
+    void shouldFollowInsertsMovesAndDeletes() {
+        Activity first = activity(ann, Activity.Status.PLANNED);
+        Activity second = activity(ann, Activity.Status.PLANNED);
+        assertThat(rollups()).containsExactly(ann.getId() + " CALL PLANNED 2");
+
+        first.setStatus(Activity.Status.COMPLETED);
+        first = activityRepository.save(first);
+        second.setUser(bob);
+        second.setActivityDate(MONDAY.plusDays(1).atTime(9, 0));
+        activityRepository.save(second);
+        assertThat(rollups()).containsExactlyInAnyOrder(
+                ann.getId() + " CALL COMPLETED 1",
+                bob.getId() + " CALL PLANNED 1");
+
+        activityRepository.delete(first);
+        assertThat(rollups()).containsExactly(bob.getId() + " CALL PLANNED 1");
+        // Pending deltas count as folded
+        assertThat(reconciler.reconcile(MONDAY.minusDays(1), MONDAY.plusDays(2))).isZero();
+
+        // Only bob's row is non-zero once folded
+        assertThat(maintenance.compact()).isEqualTo(1);
+        assertThat(rollups()).containsExactly(bob.getId() + " CALL PLANNED 1");
+        assertThat(reconciler.reconcile(MONDAY.minusDays(1), MONDAY.plusDays(2))).isZero();
+        assertThat(reconciler.reconcile(MONDAY.minusDays(1), MONDAY.plusDays(2))).isZero();
+    }
+
+    @Test
+    void shouldFollowBulkDeletes() {
+        activity(ann, Activity.Status.PLANNED);
+        activity(bob, Activity.Status.COMPLETED);
+
+        maintenance.compact();
+        activityRepository.deleteAllInBatch();
+
+        assertThat(rollups()).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(delta) FROM activity_rollup_deltas", Long.class)).isEqualTo(-2);
+        maintenance.compact();
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(activity_count) FROM activity_rollups", Long.class)).isZero();
+    }
+
+    private List<String> rollups() {
+        return rollupRepository.findInRange(MONDAY.minusDays(1), MONDAY.plusDays(2)).stream()
+                .map(rollup -> rollup.getUserId() + " " + rollup.getType() + " " + rollup.getStatus() + " " + rollup.getActivityCount())
+                .toList();
+    }
+
+    private User user(String email, String firstName) {
+        return userRepository.save(User.builder()
+                .email(email)
+                .password("x")
+                .firstName(firstName)
+                .lastName("Tester")
+                .role(User.Role.SALES_REP)
+                .build());
+    }
+
+    private Activity activity(User user, Activity.Status status) {
+        return activityRepository.save(Activity.builder()
+                .type(Activity.Type.CALL)
+                .subject("Call with Acme")
+                .status(status)
+                .activityDate(MONDAY.atTime(10, 30))
+                .user(user)
+                .build());
+    }
+}
@@ -12,6 +12,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebM
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -135,6 +136,9 @@ class LeadControllerIT {
                 .andExpect(jsonPath("$.content").isArray())
                 .andExpect(jsonPath("$.content", hasSize(1)))
                 .andExpect(jsonPath("$.content[0].companyName").value("Test Company"))
+                .andExpect(jsonPath("$.content[0].ownerId").value(testUser.getId()))
+                .andExpect(jsonPath("$.content[0].ownerName").value("Test User"))
+                .andExpect(jsonPath("$.content[0].owner").doesNotExist())
                 .andExpect(jsonPath("$.totalElements").value(1));
     }
 
@@ -407,6 +411,75 @@ class LeadControllerIT {
                 .andExpect(jsonPath("$.last").value(false));
     }
 
+    @Test
+    @WithMockUser(roles = "SALES_REP")
+    void shouldPageLeadsByCursor() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            Lead lead = Lead.builder()
+                    .companyName("Cursor Company " + i)
+                    .contactName("Contact " + i)
+                    .email("cursor" + i + "@test.com")
+                    .status(Lead.Status.NEW)
+                    .source(Lead.Source.WEBSITE)
+                    .owner(testUser)
+                    .build();
+            leadRepository.save(lead);
+        }
+
+        String firstPage = mockMvc.perform(get("/api/v1/leads")
+                        .param("after", "")
+                        .param("size", "3")
+                        .param("includeTotal", "true"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(3)))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").value(5))
+                .andReturn().getResponse().getContentAsString();
+
+        String nextCursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/v1/leads")
+                        .param("after", nextCursor)
+                        .param("size", "3"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    @WithMockUser(roles = "SALES_REP")
+    void shouldRejectInvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/v1/leads")
+                        .param("after", "not-a-cursor"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(containsString("Invalid cursor")));
+    }
+
+    @Test
+    @WithMockUser(roles = "SALES_REP")
+    void shouldRejectUnknownExportFormat() throws Exception {
+        mockMvc.perform(get("/api/v1/leads/export")
+                        .param("format", "xlsx"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(containsString("Invalid format")));
+    }
+
+    @Test
+    @WithMockUser(roles = "SALES_REP")
+    void shouldRejectEmptyImportFile() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "leads.csv", "text/csv", new byte[0]);
+
+        mockMvc.perform(multipart("/api/v1/leads/import").file(file))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Uploaded file is empty"));
+    }
+
     @Test
     @WithMockUser(roles = "SALES_REP")
     void shouldGetLeadsByStatusEndpoint() throws Exception {
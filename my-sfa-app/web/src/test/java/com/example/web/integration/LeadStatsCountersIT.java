@@ -0,0 +1,124 @@
+package com.example.web.integration;
+
+import com.example.core.domain.Lead;
+import com.example.core.domain.User;
+import com.example.infra.repository.LeadBulkUpdate;
+import com.example.infra.repository.LeadFilter;
+import com.example.infra.repository.LeadRepository;
+import com.example.infra.repository.LeadStatsCounterRepository;
+import com.example.infra.repository.UserRepository;
+import com.example.web.service.LeadStatsCounterMaintenance;
+import com.example.web.service.LeadStatsService;
+import com.example.web.support.PostgresJpaTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * V4: the statement-level triggers and compaction keep the counters equal to the aggregates
+ */
+@Import({LeadStatsCounterMaintenance.class, LeadStatsService.class})
+@TestPropertySource(properties = "app.leads.stats.use-counters=true")
+class LeadStatsCountersIT extends PostgresJpaTest {
+
+    @Autowired
+    private LeadStatsCounterMaintenance maintenance;
+
+    @Autowired
+    private LeadStatsService counterStats;
+
+    @Autowired
+    private LeadRepository leadRepository;
+
+    @Autowired
+    private LeadStatsCounterRepository counterRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private LeadStatsService aggregateStats;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        // TRUNCATE bypasses the triggers, so rebuild the counters from the emptied tables
+        maintenance.disable();
+        maintenance.enable();
+        aggregateStats = new LeadStatsService(leadRepository, counterRepository);
+        owner = userRepository.save(User.builder()
+                .email("ann@example.com")
+                .password("x")
+                .firstName("Ann")
+                .lastName("Tester")
+                .role(User.Role.SALES_REP)
+                .build());
+    }
+
+    @Test
+    void shouldMatchAggregatesThroughWritesAndCompaction() {
+        List<Lead> leads = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            Lead.Source source = i % 5 == 0 ? null : Lead.Source.values()[i % Lead.Source.values().length];
+            leads.add(lead("Company " + i, Lead.Status.values()[i % Lead.Status.values().length], source));
+        }
+        leads = leadRepository.saveAll(leads);
+        assertMatchesAggregates();
+
+        assertThat(maintenance.compact()).isPositive();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM lead_stats_counter_deltas", Long.class)).isZero();
+        assertMatchesAggregates();
+
+        leadRepository.update(leads.get(0).getId(), null, lead -> {
+            lead.setStatus(Lead.Status.CONVERTED);
+            lead.setSource(Lead.Source.EMAIL);
+        });
+        leadRepository.update(leads.get(1).getId(), null, lead -> lead.setSource(null));
+        leadRepository.bulkUpdate(LeadFilter.builder().status(Lead.Status.NEW).build(),
+                LeadBulkUpdate.builder().status(Lead.Status.CONTACTED).source(Lead.Source.OTHER).build());
+        assertMatchesAggregates();
+
+        leadRepository.deleteById(leads.get(2).getId());
+        leadRepository.bulkDelete(LeadFilter.builder().status(Lead.Status.LOST).build());
+        assertMatchesAggregates();
+
+        maintenance.compact();
+        assertMatchesAggregates();
+    }
+
+    @Test
+    void shouldRecordNothingWhileDisabled() {
+        maintenance.disable();
+        leadRepository.save(lead("Acme", Lead.Status.NEW, Lead.Source.WEBSITE));
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM lead_stats_counter_deltas", Long.class)).isZero();
+
+        maintenance.enable();
+        assertMatchesAggregates();
+    }
+
+    private void assertMatchesAggregates() {
+        assertThat(counterStats.getStatistics())
+                .usingRecursiveComparison()
+                .ignoringFields("generatedAt")
+                .isEqualTo(aggregateStats.getStatistics());
+        assertThat(counterStats.getStatusCounts()).isEqualTo(aggregateStats.getStatusCounts());
+    }
+
+    private Lead lead(String company, Lead.Status status, Lead.Source source) {
+        return Lead.builder()
+                .companyName(company)
+                .contactName("Contact")
+                .email("contact@example.com")
+                .status(status)
+                .source(source)
+                .owner(owner)
+                .build();
+    }
+}
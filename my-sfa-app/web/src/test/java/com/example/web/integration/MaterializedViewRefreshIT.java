@@ -0,0 +1,139 @@
+package com.example.web.integration;
+
+import com.example.core.domain.ActiveLead;
+import com.example.core.domain.Lead;
+import com.example.core.domain.User;
+import com.example.infra.repository.LeadRepository;
+import com.example.infra.repository.UserRepository;
+import com.example.web.dto.ActiveLeadReport;
+import com.example.web.service.ActiveLeadReportService;
+import com.example.web.service.MaterializedViewRefresher;
+import com.example.web.support.PostgresJpaTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * V13: lead and owner writes record changes to v_active_leads, and the refresher brings it up to date
+ */
+@Import({SimpleMeterRegistry.class, MaterializedViewRefresher.class, ActiveLeadReportService.class})
+class MaterializedViewRefreshIT extends PostgresJpaTest {
+
+    @Autowired
+    private MaterializedViewRefresher refresher;
+
+    @Autowired
+    private ActiveLeadReportService activeLeadReportService;
+
+    @Autowired
+    private LeadRepository leadRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private User ann;
+
+    @BeforeEach
+    void setUp() {
+        // The truncation marked the view dirty
+        assertThat(refresher.refreshIfNeeded(ActiveLead.VIEW_NAME)).isTrue();
+        ann = userRepository.save(User.builder()
+                .email("ann@example.com")
+                .password("x")
+                .firstName("Ann")
+                .lastName("Tester")
+                .role(User.Role.SALES_REP)
+                .build());
+    }
+
+    @Test
+    void shouldRefreshOnlyAfterWritesMarkTheViewDirty() {
+        long refreshes = refreshCount();
+        ActiveLeadReport empty = activeLeadReportService.getActiveLeads(null);
+        assertThat(empty.getTotals().getTotal()).isZero();
+        assertThat(empty.isStale()).isFalse();
+        assertThat(refresher.refreshIfNeeded(ActiveLead.VIEW_NAME)).isFalse();
+
+        Lead lead = leadRepository.save(lead("Acme"));
+        ActiveLeadReport beforeRefresh = activeLeadReportService.getActiveLeads(null);
+        assertThat(beforeRefresh.getTotals().getTotal()).isZero();
+        assertThat(beforeRefresh.isStale()).isTrue();
+
+        assertThat(refresher.refreshIfNeeded(ActiveLead.VIEW_NAME)).isTrue();
+        ActiveLeadReport refreshed = activeLeadReportService.getActiveLeads(null);
+        assertThat(refreshed.getTotals().getTotal()).isEqualTo(1);
+        assertThat(refreshed.isStale()).isFalse();
+        assertThat(refreshed.getDataAsOf()).isAfter(empty.getDataAsOf());
+        assertThat(refreshed.getOwners()).singleElement()
+                .satisfies(owner -> assertThat(owner.getOwnerId()).isEqualTo(ann.getId()));
+
+        lead.setStatus(Lead.Status.LOST);
+        leadRepository.save(lead);
+        assertThat(refresher.refreshIfNeeded(ActiveLead.VIEW_NAME)).isTrue();
+        assertThat(activeLeadReportService.getActiveLeads(null).getTotals().getTotal()).isZero();
+
+        assertThat(refreshCount()).isEqualTo(refreshes + 2);
+    }
+
+    @Test
+    void shouldRefreshOwnerNamesAfterUserUpdate() {
+        leadRepository.save(lead("Acme"));
+        refresher.refreshIfNeeded(ActiveLead.VIEW_NAME);
+
+        ann.setLastName("Renamed");
+        userRepository.save(ann);
+        assertThat(activeLeadReportService.getActiveLeads(null).isStale()).isTrue();
+
+        assertThat(refresher.refreshIfNeeded(ActiveLead.VIEW_NAME)).isTrue();
+        assertThat(activeLeadReportService.getActiveLeads(ann.getId()).getOwners()).singleElement()
+                .satisfies(owner -> assertThat(owner.getOwnerName()).isEqualTo("Ann Renamed"));
+    }
+
+    @Test
+    void shouldKeepTheChangeOfAWriteCommittedDuringARefresh() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("INSERT INTO leads (company_name, contact_name, email, status, source, owner_id) " +
+                        "VALUES ('Acme', 'Contact', 'contact@acme.example.com', 'NEW', 'WEBSITE', " + ann.getId() + ")");
+            }
+            // The user insert in setUp is not a source change, so only the write still open is pending
+            assertThat(refresher.refreshIfNeeded(ActiveLead.VIEW_NAME)).isFalse();
+            connection.commit();
+        }
+
+        assertThat(activeLeadReportService.getActiveLeads(null).isStale()).isTrue();
+        assertThat(refresher.refreshIfNeeded(ActiveLead.VIEW_NAME)).isTrue();
+        assertThat(activeLeadReportService.getActiveLeads(null).getTotals().getTotal()).isEqualTo(1);
+    }
+
+    private long refreshCount() {
+        return meterRegistry.get("reporting.view.refresh")
+                .tag("view", ActiveLead.VIEW_NAME).tag("outcome", "success").timer().count();
+    }
+
+    private Lead lead(String company) {
+        return Lead.builder()
+                .companyName(company)
+                .contactName("Contact")
+                .email("contact@" + company.toLowerCase() + ".example.com")
+                .source(Lead.Source.WEBSITE)
+                .owner(ann)
+                .build();
+    }
+}
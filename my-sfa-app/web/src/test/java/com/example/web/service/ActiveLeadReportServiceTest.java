@@ -0,0 +1,119 @@
+package com.example.web.service;
+
+import com.example.core.domain.ActiveLead;
+import com.example.core.domain.Lead;
+import com.example.core.domain.MaterializedViewChange;
+import com.example.core.domain.MaterializedViewRefresh;
+import com.example.infra.repository.ActiveLeadRepository;
+import com.example.infra.repository.MaterializedViewChangeRepository;
+import com.example.infra.repository.MaterializedViewRefreshRepository;
+import com.example.web.dto.ActiveLeadReport;
+import com.example.web.support.ServiceJpaTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Active lead report read from the materialized view, with its refresh state, and refresh claims
+ */
+@Import(ActiveLeadReportService.class)
+class ActiveLeadReportServiceTest extends ServiceJpaTest {
+
+    private static final LocalDateTime REFRESHED_AT = LocalDateTime.of(2025, 8, 4, 9, 0);
+
+    @Autowired
+    private ActiveLeadReportService activeLeadReportService;
+
+    @Autowired
+    private ActiveLeadRepository activeLeadRepository;
+
+    @Autowired
+    private MaterializedViewRefreshRepository refreshRepository;
+
+    @Autowired
+    private MaterializedViewChangeRepository changeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        refreshRepository.save(MaterializedViewRefresh.builder()
+                .viewName(ActiveLead.VIEW_NAME)
+                .refreshedAt(REFRESHED_AT)
+                .build());
+        activeLead(1L, 10L, "Ann", Lead.Status.NEW, Lead.Source.WEBSITE);
+        activeLead(2L, 10L, "Ann", Lead.Status.QUALIFIED, Lead.Source.WEBSITE);
+        activeLead(3L, 10L, "Ann", Lead.Status.QUALIFIED, null);
+        activeLead(4L, 20L, "Bob", Lead.Status.CONTACTED, Lead.Source.REFERRAL);
+    }
+
+    @Test
+    void shouldCountByOwnerStatusAndSourceWithRefreshState() {
+        ActiveLeadReport report = activeLeadReportService.getActiveLeads(null);
+
+        assertThat(report.getOwners()).extracting(ActiveLeadReport.OwnerActiveLeads::getOwnerName)
+                .containsExactly("Ann Tester", "Bob Tester");
+        assertThat(report.getOwners().get(0).getCounts().getByStatus())
+                .containsExactly(entry("NEW", 1L), entry("CONTACTED", 0L),
+                        entry("QUALIFIED", 2L));
+        assertThat(report.getTotals().getTotal()).isEqualTo(4);
+        assertThat(report.getTotals().getBySource())
+                .containsEntry("WEBSITE", 2L).containsEntry("REFERRAL", 1L).containsEntry("OTHER", 0L);
+        assertThat(report.getDataAsOf()).isEqualTo(REFRESHED_AT);
+        assertThat(report.isStale()).isFalse();
+
+        assertThat(activeLeadReportService.getActiveLeads(20L).getTotals().getTotal()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldClaimRefreshOnlyWhenDirtyOrTooOldAndNotAlreadyClaimed() {
+        LocalDateTime now = REFRESHED_AT.plusMinutes(5);
+        LocalDateTime staleBefore = now.minusMinutes(15);
+        LocalDateTime leaseExpiredBefore = now.minusMinutes(10);
+        assertThat(refreshRepository.claimRefresh(ActiveLead.VIEW_NAME, now, staleBefore, leaseExpiredBefore)).isZero();
+
+        changeRepository.save(MaterializedViewChange.builder().viewName(ActiveLead.VIEW_NAME).build());
+        assertThat(activeLeadReportService.getActiveLeads(null).isStale()).isTrue();
+
+        assertThat(refreshRepository.claimRefresh(ActiveLead.VIEW_NAME, now, staleBefore, leaseExpiredBefore)).isEqualTo(1);
+        assertThat(refreshRepository.claimRefresh(ActiveLead.VIEW_NAME, now, now, leaseExpiredBefore)).isZero();
+
+        // Changes are consumed only by the refresh itself, not by claiming it
+        assertThat(activeLeadReportService.getActiveLeads(null).isStale()).isTrue();
+        transactionTemplate.executeWithoutResult(status -> changeRepository.consumeChanges(ActiveLead.VIEW_NAME));
+        refreshRepository.completeRefresh(ActiveLead.VIEW_NAME, now, 120);
+        ActiveLeadReport report = activeLeadReportService.getActiveLeads(null);
+        assertThat(report.getDataAsOf()).isEqualTo(now);
+        assertThat(report.isStale()).isFalse();
+        assertThat(refreshRepository.claimRefresh(ActiveLead.VIEW_NAME, now, now.plusSeconds(1), leaseExpiredBefore))
+                .isEqualTo(1);
+    }
+
+    private void activeLead(Long id, Long ownerId, String ownerFirstName, Lead.Status status, Lead.Source source) {
+        activeLeadRepository.save(ActiveLead.builder()
+                .id(id)
+                .ownerId(ownerId)
+                .companyName("Company " + id)
+                .contactName("Contact " + id)
+                .email("lead" + id + "@example.com")
+                .status(status)
+                .source(source)
+                .createdAt(REFRESHED_AT.minusDays(id))
+                .ownerFirstName(ownerFirstName)
+                .ownerLastName("Tester")
+                .ownerEmail(ownerFirstName.toLowerCase() + "@example.com")
+                .build());
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.web.service;
+
+import com.example.core.domain.Activity;
+import com.example.core.domain.User;
+import com.example.infra.repository.ActivityRepository;
+import com.example.infra.repository.ActivityRollupRepository;
+import com.example.web.dto.ActivityReport;
+import com.example.web.support.ServiceJpaTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Activity report read from the daily rollups, which reconciliation brings back in line with activities
+ */
+@Import({SimpleMeterRegistry.class, ActivityRollupReconciler.class, ActivityReportService.class})
+class ActivityReportServiceTest extends ServiceJpaTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2025, 8, 4);
+
+    @Autowired
+    private ActivityReportService activityReportService;
+
+    @Autowired
+    private ActivityRollupReconciler reconciler;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private ActivityRollupRepository rollupRepository;
+
+    private User ann;
+    private User bob;
+
+    @BeforeEach
+    void setUp() {
+        ann = user("ann@example.com", "Ann");
+        bob = user("bob@example.com", "Bob");
+        activity(ann, Activity.Type.CALL, Activity.Status.COMPLETED, MONDAY);
+        activity(ann, Activity.Type.CALL, Activity.Status.COMPLETED, MONDAY);
+        activity(ann, Activity.Type.EMAIL, Activity.Status.PLANNED, MONDAY.plusDays(2));
+        activity(bob, Activity.Type.MEETING, Activity.Status.COMPLETED, MONDAY.plusDays(7));
+        reconciler.reconcile(MONDAY.minusDays(7), MONDAY.plusDays(14));
+    }
+
+    @Test
+    void shouldCountByWeekTypeStatusAndUser() {
+        ActivityReport report = activityReportService.getActivities(
+                ActivityReportService.Granularity.WEEK, MONDAY.plusDays(3), MONDAY.plusDays(8), null);
+
+        assertThat(report.getFrom()).isEqualTo(MONDAY);
+        assertThat(report.getTo()).isEqualTo(MONDAY.plusDays(13));
+        assertThat(report.getBuckets()).extracting(ActivityReport.Bucket::getLabel)
+                .containsExactly("2025-W32", "2025-W33");
+        assertThat(report.getBuckets().get(0).getCounts().getTotal()).isEqualTo(3);
+        assertThat(report.getBuckets().get(0).getCounts().getByType())
+                .containsEntry("CALL", 2L).containsEntry("EMAIL", 1L).containsEntry("NOTE", 0L);
+        assertThat(report.getTotals().getByStatus())
+                .containsEntry("COMPLETED", 3L).containsEntry("PLANNED", 1L).containsEntry("CANCELLED", 0L);
+        assertThat(report.getUsers()).extracting(ActivityReport.UserActivity::getUserName)
+                .containsExactly("Ann Tester", "Bob Tester");
+
+        ActivityReport bobOnly = activityReportService.getActivities(
+                ActivityReportService.Granularity.DAY, MONDAY, MONDAY.plusDays(13), bob.getId());
+        assertThat(bobOnly.getBuckets()).hasSize(14);
+        assertThat(bobOnly.getTotals().getTotal()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCorrectDriftedRollups() {
+        assertThat(reconciler.reconcile(MONDAY.minusDays(7), MONDAY.plusDays(14))).isZero();
+
+        jdbcTemplate.update("UPDATE activity_rollups SET activity_count = 7 WHERE user_id = ? AND type = 'CALL'", ann.getId());
+        jdbcTemplate.update("INSERT INTO activity_rollups (activity_day, user_id, type, status, activity_count) " +
+                "VALUES (?, ?, 'NOTE', 'PLANNED', 0)", MONDAY, bob.getId());
+        jdbcTemplate.update("DELETE FROM activity_rollups WHERE user_id = ? AND type = 'MEETING'", bob.getId());
+
+        assertThat(reconciler.reconcile(MONDAY.minusDays(7), MONDAY.plusDays(14))).isEqualTo(3);
+        assertThat(rollupRepository.findAll()).hasSize(3);
+        assertThat(activityReportService.getActivities(
+                ActivityReportService.Granularity.MONTH, MONDAY, MONDAY, ann.getId()).getTotals().getByType())
+                .containsEntry("CALL", 2L);
+    }
+
+    @Test
+    void shouldCountPendingDeltas() {
+        // A new activity whose delta the PostgreSQL trigger would have recorded and not yet folded
+        activity(ann, Activity.Type.CALL, Activity.Status.COMPLETED, MONDAY);
+        jdbcTemplate.update("INSERT INTO activity_rollup_deltas (activity_day, user_id, type, status, delta) " +
+                "VALUES (?, ?, 'CALL', 'COMPLETED', 1)", MONDAY, ann.getId());
+
+        assertThat(activityReportService.getActivities(
+                ActivityReportService.Granularity.DAY, MONDAY, MONDAY, ann.getId()).getTotals().getTotal()).isEqualTo(3);
+        assertThat(reconciler.reconcile(MONDAY.minusDays(7), MONDAY.plusDays(14))).isZero();
+    }
+
+    private void activity(User user, Activity.Type type, Activity.Status status, LocalDate day) {
+        activityRepository.save(Activity.builder()
+                .type(type)
+                .subject(type + " with Acme")
+                .status(status)
+                .activityDate(day.atTime(10, 30))
+                .user(user)
+                .build());
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.web.service;
+
+import com.example.core.domain.Lead;
+import com.example.core.domain.LeadStatusHistory;
+import com.example.core.domain.User;
+import com.example.infra.repository.LeadBulkUpdate;
+import com.example.web.config.CacheConfig;
+import com.example.web.dto.ConversionReport;
+import com.example.web.support.ServiceJpaTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Status transitions from entity and bulk writes reach the history table in the background,
+ * and the funnel is computed from it
+ */
+@Import({CacheConfig.class, SimpleMeterRegistry.class, LeadStatusHistoryWriter.class, ConversionReportService.class})
+class ConversionReportServiceTest extends ServiceJpaTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 8, 1);
+
+    @Autowired
+    private ConversionReportService conversionReportService;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = user("ann@example.com", "Ann");
+    }
+
+    @Test
+    void shouldRecordCreationsUpdatesAndBulkChanges() {
+        Lead first = leadRepository.save(lead("Acme", owner));
+        Lead second = leadRepository.save(lead("Globex", owner));
+        leadRepository.update(first.getId(), null, lead -> lead.setStatus(Lead.Status.CONTACTED));
+        leadRepository.update(first.getId(), null, lead -> lead.setCompanyName("Acme Corp"));
+        leadRepository.bulkUpdate(List.of(first.getId(), second.getId()),
+                LeadBulkUpdate.builder().status(Lead.Status.CONTACTED).build());
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(jdbcTemplate.queryForList(
+                        "SELECT lead_id, from_status, to_status FROM lead_status_history ORDER BY id"))
+                        .extracting(row -> row.get("LEAD_ID") + ":" + row.get("FROM_STATUS") + "->" + row.get("TO_STATUS"))
+                        .containsExactlyInAnyOrder(
+                                first.getId() + ":null->1",
+                                second.getId() + ":null->1",
+                                first.getId() + ":1->2",
+                                second.getId() + ":1->2"));
+    }
+
+    @Test
+    void shouldComputeFunnelRatesAndMedianTimeInStatus() {
+        // Website: NEW 2h -> CONTACTED 4h -> QUALIFIED -> CONVERTED; NEW 6h -> CONTACTED 10h -> LOST
+        history(1, null, Lead.Status.NEW, Lead.Source.WEBSITE, 0);
+        history(1, Lead.Status.NEW, Lead.Status.CONTACTED, Lead.Source.WEBSITE, 2);
+        history(1, Lead.Status.CONTACTED, Lead.Status.QUALIFIED, Lead.Source.WEBSITE, 6);
+        history(1, Lead.Status.QUALIFIED, Lead.Status.CONVERTED, Lead.Source.WEBSITE, 30);
+        history(2, null, Lead.Status.NEW, Lead.Source.WEBSITE, 0);
+        history(2, Lead.Status.NEW, Lead.Status.CONTACTED, Lead.Source.WEBSITE, 6);
+        history(2, Lead.Status.CONTACTED, Lead.Status.LOST, Lead.Source.WEBSITE, 16);
+        // Referral: created straight into QUALIFIED, still open
+        history(3, null, Lead.Status.QUALIFIED, Lead.Source.REFERRAL, 0);
+        // Created the day after the range
+        history(4, null, Lead.Status.NEW, Lead.Source.WEBSITE, 24);
+
+        ConversionReport report = conversionReportService.getConversion(DAY, DAY);
+
+        ConversionReport.Funnel overall = report.getOverall();
+        assertThat(overall.getLeads()).isEqualTo(3);
+        assertThat(overall.getStages()).extracting(ConversionReport.Stage::getReached).containsExactly(3L, 3L, 2L, 1L);
+        assertThat(overall.getConversionRate()).isEqualByComparingTo("0.3333");
+        assertThat(overall.getStages().get(0).getMedianHoursInStatus()).isEqualTo(4.0);
+        assertThat(overall.getStages().get(3).getMedianHoursInStatus()).isNull();
+
+        assertThat(report.getBySource()).extracting(ConversionReport.Funnel::getSource).containsExactly("WEBSITE", "REFERRAL");
+        ConversionReport.Funnel website = report.getBySource().get(0);
+        assertThat(website.getStages()).extracting(ConversionReport.Stage::getRate)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(BigDecimal.ONE, BigDecimal.ONE, new BigDecimal("0.5"), BigDecimal.ONE);
+        assertThat(website.getStages().get(1).getMedianHoursInStatus()).isEqualTo(7.0);
+        assertThat(report.getByOwner()).singleElement()
+                .satisfies(funnel -> assertThat(funnel.getOwnerName()).isEqualTo("Ann Tester"));
+    }
+
+    private void history(long leadId, Lead.Status from, Lead.Status to, Lead.Source source, int hours) {
+        LocalDateTime changedAt = DAY.atTime(8, 0).plusHours(hours);
+        jdbcTemplate.update("INSERT INTO lead_status_history (lead_id, owner_id, changed_at, from_status, to_status, source) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)",
+                leadId, owner.getId(), Timestamp.valueOf(changedAt),
+                from != null ? LeadStatusHistory.code(from) : null, LeadStatusHistory.code(to), LeadStatusHistory.code(source));
+    }
+}
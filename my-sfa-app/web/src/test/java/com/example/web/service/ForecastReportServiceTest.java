@@ -0,0 +1,93 @@
+package com.example.web.service;
+
+import com.example.core.domain.Account;
+import com.example.core.domain.Opportunity;
+import com.example.core.domain.User;
+import com.example.web.config.CacheConfig;
+import com.example.web.dto.ForecastReport;
+import com.example.web.service.ForecastReportService.Period;
+import com.example.web.support.ServiceJpaTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Forecast buckets and categories from the grouped query, cached until a committed write moves an opportunity
+ */
+@Import({CacheConfig.class, ReportCache.class, ForecastReportService.class})
+class ForecastReportServiceTest extends ServiceJpaTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 7, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 12, 31);
+
+    @Autowired
+    private ForecastReportService forecastReportService;
+
+    private Opportunity negotiation;
+
+    @BeforeEach
+    void setUp() {
+        User ann = user("ann@example.com", "Ann");
+        User bob = user("bob@example.com", "Bob");
+        Account account = account("Acme", ann);
+
+        opportunity("Won", account, ann, Opportunity.Stage.CLOSED_WON, "500.00", 100, "2025-07-15");
+        negotiation = opportunity("Renewal", account, ann, Opportunity.Stage.NEGOTIATION_REVIEW, "1000.00", 80, "2025-08-20");
+        opportunity("Upsell", account, bob, Opportunity.Stage.PROPOSAL, "400.00", 50, "2025-09-30");
+        opportunity("Pilot", account, bob, Opportunity.Stage.PROSPECTING, "1000.00", 10, "2025-11-01");
+        opportunity("Lost", account, bob, Opportunity.Stage.CLOSED_LOST, "9000.00", 0, "2025-08-01");
+        opportunity("Next year", account, ann, Opportunity.Stage.PROPOSAL, "300.00", 50, "2026-01-05");
+    }
+
+    @Test
+    void shouldBucketWeightedAmountsByQuarterCategoryAndOwner() {
+        ForecastReport report = forecastReportService.getForecast(Period.QUARTER, FROM, TO, null);
+
+        assertThat(report.getBuckets()).extracting(ForecastReport.Bucket::getLabel).containsExactly("2025-Q3", "2025-Q4");
+        ForecastReport.Bucket q3 = report.getBuckets().get(0);
+        assertThat(q3.getForecast().getClosed()).isEqualByComparingTo("500");
+        assertThat(q3.getForecast().getCommit()).isEqualByComparingTo("1300");
+        assertThat(q3.getForecast().getBestCase()).isEqualByComparingTo("1500");
+        assertThat(q3.getForecast().getPipeline()).isEqualByComparingTo("1500");
+        assertThat(q3.getOwners()).extracting(ForecastReport.OwnerForecast::getOwnerName)
+                .containsExactly("Ann Tester", "Bob Tester");
+        assertThat(report.getBuckets().get(1).getForecast().getPipeline()).isEqualByComparingTo("100");
+        assertThat(report.getTotals().getCategories()).extracting(ForecastReport.CategoryTotal::getCount)
+                .containsExactly(1L, 1L, 1L, 1L);
+
+        ForecastReport bobByMonth = forecastReportService.getForecast(Period.MONTH, FROM, TO, bobId());
+        assertThat(bobByMonth.getBuckets()).hasSize(6);
+        assertThat(bobByMonth.getTotals().getPipeline()).isEqualByComparingTo("300");
+    }
+
+    @Test
+    void shouldStayCachedUntilCloseDateMoves() {
+        ForecastReport first = forecastReportService.getForecast(Period.QUARTER, FROM, TO, null);
+
+        negotiation.setName("Renewal 2025");
+        negotiation = opportunityRepository.save(negotiation);
+        assertThat(forecastReportService.getForecast(Period.QUARTER, FROM, TO, null)).isSameAs(first);
+
+        negotiation.setCloseDate(LocalDate.of(2025, 10, 10));
+        negotiation = opportunityRepository.save(negotiation);
+        ForecastReport afterMove = forecastReportService.getForecast(Period.QUARTER, FROM, TO, null);
+        assertThat(afterMove).isNotSameAs(first);
+        assertThat(afterMove.getBuckets().get(1).getForecast().getCommit()).isEqualByComparingTo("800");
+    }
+
+    @Test
+    void shouldRejectOversizedRange() {
+        assertThatThrownBy(() -> forecastReportService.getForecast(Period.MONTH, FROM, FROM.plusYears(10), null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Long bobId() {
+        return userRepository.findByEmail("bob@example.com").orElseThrow().getId();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.web.service;
+
+import com.example.core.domain.Lead;
+import com.example.core.domain.User;
+import com.example.infra.repository.LeadFilter;
+import com.example.web.dto.LeadFileFormat;
+import com.example.web.support.ServiceJpaTest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exported bodies: one JSON object per line, or CSV whose quoting survives commas, quotes and line breaks
+ */
+@Import(LeadExportService.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class LeadExportServiceTest extends ServiceJpaTest {
+
+    @Autowired
+    private LeadExportService leadExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Lead acme;
+    private Lead globex;
+
+    @BeforeEach
+    void setUp() {
+        User owner = user("ann@example.com", "Ann");
+        acme = lead("Acme, Inc", owner);
+        acme.setContactName("Jane \"JD\" Doe");
+        acme.setEmail("jane@acme.example.com");
+        acme.setPhone(null);
+        acme = leadRepository.save(acme);
+        globex = lead("Globex", owner);
+        globex.setContactName("Line one\nLine two");
+        globex.setSource(Lead.Source.REFERRAL);
+        globex = leadRepository.save(globex);
+        Lead lost = lead("Initech", owner);
+        lost.setStatus(Lead.Status.LOST);
+        leadRepository.save(lost);
+    }
+
+    @Test
+    void shouldWriteOneJsonObjectPerLead() throws Exception {
+        String body = export(LeadFileFormat.NDJSON);
+
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            rows.add(objectMapper.readTree(line));
+        }
+        assertThat(body).endsWith("\n");
+        assertThat(rows).extracting(row -> row.get("id").asLong()).containsExactly(acme.getId(), globex.getId());
+        assertThat(rows.get(0).get("companyName").asText()).isEqualTo("Acme, Inc");
+        assertThat(rows.get(0).get("contactName").asText()).isEqualTo("Jane \"JD\" Doe");
+        assertThat(rows.get(0).get("phone").isNull()).isTrue();
+        assertThat(rows.get(1).get("contactName").asText()).isEqualTo("Line one\nLine two");
+        assertThat(rows.get(1).get("source").asText()).isEqualTo("REFERRAL");
+        assertThat(rows.get(1).get("ownerName").asText()).isEqualTo("Ann Tester");
+    }
+
+    @Test
+    void shouldQuoteCsvValuesWithCommasQuotesAndLineBreaks() throws Exception {
+        String body = export(LeadFileFormat.CSV);
+
+        assertThat(body).startsWith("id,companyName,contactName,email,phone,status,source,ownerId,ownerName,createdAt,updatedAt\n");
+        assertThat(body).contains(acme.getId() + ",\"Acme, Inc\",\"Jane \"\"JD\"\" Doe\",jane@acme.example.com,,NEW,WEBSITE,");
+        assertThat(body).contains(globex.getId() + ",Globex,\"Line one\nLine two\",");
+
+        // Read back as the import reads CSV
+        CsvRecordReader csv = new CsvRecordReader(new StringReader(body));
+        List<List<String>> records = new ArrayList<>();
+        for (List<String> record = csv.next(); record != null; record = csv.next()) {
+            records.add(record);
+        }
+        assertThat(records).hasSize(3);
+        assertThat(records.get(1)).hasSize(11);
+        assertThat(records.get(1).subList(1, 5)).containsExactly("Acme, Inc", "Jane \"JD\" Doe", "jane@acme.example.com", "");
+        assertThat(records.get(2).get(2)).isEqualTo("Line one\nLine two");
+    }
+
+    private String export(LeadFileFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = leadExportService.export(LeadFilter.builder().status(Lead.Status.NEW).build(), format, out);
+        assertThat(written).isEqualTo(2);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
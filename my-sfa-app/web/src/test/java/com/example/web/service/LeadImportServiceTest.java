@@ -0,0 +1,187 @@
+package com.example.web.service;
+
+import com.example.core.domain.Lead;
+import com.example.core.domain.LeadImport;
+import com.example.core.domain.User;
+import com.example.infra.repository.LeadImportRepository;
+import com.example.web.config.CacheConfig;
+import com.example.web.dto.LeadFileFormat;
+import com.example.web.dto.LeadImportStatus;
+import com.example.web.support.ServiceJpaTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CSV and NDJSON imports run in small batches: invalid rows are reported and skipped, and a batch the
+ * database rejects is retried row by row so its good rows are still imported
+ */
+@Import({CacheConfig.class, SimpleMeterRegistry.class, ObjectMapper.class, LocalValidatorFactoryBean.class,
+        LeadQueryCache.class, LeadStatusHistoryWriter.class, LeadImportService.class,
+        LeadImportServiceTest.SynchronousImports.class})
+@TestPropertySource(properties = "app.leads.import.batch-size=3")
+class LeadImportServiceTest extends ServiceJpaTest {
+
+    @Autowired
+    private LeadImportService leadImportService;
+
+    @Autowired
+    private LeadImportRepository leadImportRepository;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = user("ann@example.com", "Ann");
+        // A database-only rule the row validation cannot see
+        jdbcTemplate.execute("ALTER TABLE leads ADD CONSTRAINT leads_company_not_blocked CHECK (company_name <> 'Blocked Inc')");
+    }
+
+    @AfterEach
+    void dropConstraint() {
+        jdbcTemplate.execute("ALTER TABLE leads DROP CONSTRAINT leads_company_not_blocked");
+    }
+
+    @Test
+    void shouldImportCsvAndReportRejectedRows() throws Exception {
+        String csv = """
+                company_name,contactName,email,phone,status,source
+                "Acme, Inc",Jane Doe,jane@acme.example.com,555-0100,contacted,referral
+                Globex,John Roe,john@globex.example.com,,,
+                Initech,Bill Lumbergh,bill@initech.example.com,,PENDING,
+                Umbrella,Alice,alice@umbrella.example.com
+                "Hooli ""Nucleus""\",Gavin Belson,gavin@hooli.example.com,,,
+                """;
+
+        LeadImportStatus status = importFile("leads.csv", LeadFileFormat.CSV, csv);
+
+        assertThat(status.getState()).isEqualTo("COMPLETED");
+        assertThat(status.getRowsRead()).isEqualTo(5);
+        assertThat(status.getRowsImported()).isEqualTo(3);
+        assertThat(status.getErrors()).containsExactly(
+                new LeadImportStatus.RowError(3, "Invalid status: PENDING"),
+                new LeadImportStatus.RowError(4, "Expected 6 fields but found 3"));
+
+        Lead acme = leadRepository.findAll().stream()
+                .filter(lead -> lead.getCompanyName().equals("Acme, Inc"))
+                .findFirst().orElseThrow();
+        assertThat(acme.getStatus()).isEqualTo(Lead.Status.CONTACTED);
+        assertThat(acme.getSource()).isEqualTo(Lead.Source.REFERRAL);
+        assertThat(acme.getOwner().getId()).isEqualTo(owner.getId());
+        assertThat(companies()).containsExactlyInAnyOrder("Acme, Inc", "Globex", "Hooli \"Nucleus\"");
+    }
+
+    @Test
+    void shouldImportNdjsonAndReportRejectedRows() throws Exception {
+        String ndjson = """
+                {"companyName": "Acme", "contactName": "Jane Doe", "email": "jane@acme.example.com", "status": "QUALIFIED"}
+                {"company_name": "Globex", "contact_name": "John Roe", "email": "john@globex.example.com", "phone": null}
+                {"companyName": "Initech", "contactName": "Bill Lumbergh"
+                ["Umbrella"]
+                {"companyName": "Hooli", "contactName": "Gavin Belson", "email": ""}
+                """;
+
+        LeadImportStatus status = importFile("leads.ndjson", LeadFileFormat.NDJSON, ndjson);
+
+        assertThat(status.getState()).isEqualTo("COMPLETED");
+        assertThat(status.getRowsRead()).isEqualTo(5);
+        assertThat(status.getRowsImported()).isEqualTo(2);
+        assertThat(status.getErrors()).extracting(LeadImportStatus.RowError::row).containsExactly(3L, 4L, 5L);
+        assertThat(status.getErrors().get(2).message()).isEqualTo("email: must not be blank");
+        assertThat(companies()).containsExactlyInAnyOrder("Acme", "Globex");
+    }
+
+    @Test
+    void shouldRetryFailedBatchRowByRowWithoutLosingGoodRows() throws Exception {
+        String csv = """
+                companyName,contactName,email
+                Acme,Jane Doe,jane@acme.example.com
+                Blocked Inc,John Roe,john@blocked.example.com
+                Globex,Jim Poe,jim@globex.example.com
+                Initech,Bill Lumbergh,bill@initech.example.com
+                """;
+
+        LeadImportStatus status = importFile("leads.csv", LeadFileFormat.CSV, csv);
+
+        assertThat(status.getState()).isEqualTo("COMPLETED");
+        assertThat(status.getRowsImported()).isEqualTo(3);
+        assertThat(status.getRowsRejected()).isEqualTo(1);
+        assertThat(status.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.row()).isEqualTo(2);
+            assertThat(error.message()).startsWith("Rejected by database: ");
+        });
+        assertThat(companies()).containsExactlyInAnyOrder("Acme", "Globex", "Initech");
+        // Ids come from one pooled block; the retry reuses the batch's ids, leaving only the rejected row's unused
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM leads ORDER BY id", Long.class))
+                .satisfies(ids -> assertThat(ids.get(2) - ids.get(0)).isEqualTo(3));
+    }
+
+    @Test
+    void shouldReportPersistedJobsAndFailAbandonedOnes() throws Exception {
+        String csv = """
+                companyName,contactName,email
+                Acme,Jane Doe,jane@acme.example.com
+                Initech,Bill Lumbergh,
+                """;
+        LeadImportStatus finished = importFile("leads.csv", LeadFileFormat.CSV, csv);
+
+        // Read back as another instance would, from the database
+        assertThat(leadImportService.findJob(finished.getJobId()).orElseThrow().toStatus())
+                .usingRecursiveComparison().ignoringFieldsOfTypes(LocalDateTime.class).isEqualTo(finished);
+
+        LocalDateTime lastHeartbeat = LocalDateTime.now().minusMinutes(10);
+        leadImportRepository.save(LeadImport.builder()
+                .id("abandoned")
+                .fileName("leads.ndjson")
+                .format("NDJSON")
+                .submittedBy(owner.getEmail())
+                .state(LeadImport.State.RUNNING)
+                .rowsRead(2000)
+                .rowsImported(2000)
+                .submittedAt(lastHeartbeat)
+                .startedAt(lastHeartbeat)
+                .heartbeatAt(lastHeartbeat)
+                .build());
+        LeadImportStatus abandoned = leadImportService.findJob("abandoned").orElseThrow().toStatus();
+        assertThat(abandoned.getState()).isEqualTo("FAILED");
+        assertThat(abandoned.getRowsImported()).isEqualTo(2000);
+        assertThat(leadImportRepository.findById("abandoned").orElseThrow().getState()).isEqualTo(LeadImport.State.FAILED);
+    }
+
+    private LeadImportStatus importFile(String name, LeadFileFormat format, String content) throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", name, format.getContentType(),
+                content.getBytes(StandardCharsets.UTF_8));
+        // The import runs on the calling thread, so the job has finished when submit returns
+        return leadImportService.submit(file, format, owner).toStatus();
+    }
+
+    private List<String> companies() {
+        return jdbcTemplate.queryForList("SELECT company_name FROM leads", String.class);
+    }
+
+    @TestConfiguration
+    static class SynchronousImports {
+
+        @Bean(name = "leadImportExecutor")
+        TaskExecutor leadImportExecutor() {
+            return new SyncTaskExecutor();
+        }
+    }
+}
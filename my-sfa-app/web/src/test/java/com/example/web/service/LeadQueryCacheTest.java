@@ -0,0 +1,100 @@
+package com.example.web.service;
+
+import com.example.core.domain.Lead;
+import com.example.infra.repository.LeadFilter;
+import com.example.web.config.CacheConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cache keys and the status-scoped invalidation of cached lead queries
+ */
+class LeadQueryCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CacheManager cacheManager;
+    private LeadQueryCache leadQueryCache;
+
+    @BeforeEach
+    void setUp() {
+        SimpleCacheManager manager = (SimpleCacheManager) new CacheConfig().cacheManager(new MockEnvironment()
+                .withProperty("app.cache.specs.lead-stats", "maximumSize=1"));
+        manager.afterPropertiesSet();
+        cacheManager = manager;
+        leadQueryCache = new LeadQueryCache(cacheManager, meterRegistry);
+    }
+
+    @Test
+    void shouldShareKeysBetweenEquivalentQueries() {
+        PageRequest page = PageRequest.of(0, 20, Sort.by("createdAt"));
+
+        assertThat(LeadQueryKey.of(LeadFilter.builder().searchTerm("  Acme ").build(), page))
+                .isEqualTo(LeadQueryKey.of(LeadFilter.builder().searchTerm("acme").build(), page));
+        assertThat(LeadQueryKey.of(LeadFilter.builder().searchTerm(" ").build(), page))
+                .isEqualTo(LeadQueryKey.of(new LeadFilter(), page));
+        assertThat(LeadQueryKey.of(new LeadFilter(), page))
+                .isNotEqualTo(LeadQueryKey.of(new LeadFilter(), PageRequest.of(1, 20, Sort.by("createdAt"))))
+                .isNotEqualTo(LeadQueryKey.of(new LeadFilter(), PageRequest.of(0, 20)));
+        assertThat(LeadQueryKey.of(new LeadFilter(), page).withTotal(5))
+                .isNotEqualTo(LeadQueryKey.of(new LeadFilter(), page).withTotal(6));
+    }
+
+    @Test
+    void shouldDropOnlyListsThatCanContainTheWrittenStatuses() {
+        Cache pages = cacheManager.getCache(LeadQueryCache.PAGES);
+        PageRequest page = PageRequest.of(0, 20);
+        Object all = leadQueryCache.currentKey(LeadQueryKey.of(new LeadFilter(), page));
+        Object qualified = leadQueryCache.currentKey(
+                LeadQueryKey.of(LeadFilter.builder().status(Lead.Status.QUALIFIED).build(), page));
+        Object lost = leadQueryCache.currentKey(
+                LeadQueryKey.of(LeadFilter.builder().status(Lead.Status.LOST).build(), page));
+        Object statistics = leadQueryCache.currentKey("statistics");
+        pages.put(all, "all");
+        pages.put(qualified, "qualified");
+        pages.put(lost, "lost");
+        cacheManager.getCache(LeadQueryCache.STATS).put(statistics, "stats");
+
+        leadQueryCache.leadsChanged(List.of(Lead.Status.NEW, Lead.Status.QUALIFIED));
+
+        assertThat(pages.get(all)).isNull();
+        assertThat(pages.get(qualified)).isNull();
+        assertThat(pages.get(lost)).isNotNull();
+        assertThat(cacheManager.getCache(LeadQueryCache.STATS).get(statistics)).isNull();
+        assertThat(meterRegistry.get("cache.invalidations").tag("cache", LeadQueryCache.PAGES).counter().count())
+                .isEqualTo(2.0);
+
+        leadQueryCache.allLeadsChanged();
+        assertThat(pages.get(lost)).isNull();
+    }
+
+    @Test
+    void shouldNotServeResultsStoredUnderAKeyTakenBeforeAWrite() {
+        Cache pages = cacheManager.getCache(LeadQueryCache.PAGES);
+        LeadQueryKey qualified = LeadQueryKey.of(LeadFilter.builder().status(Lead.Status.QUALIFIED).build(),
+                PageRequest.of(0, 20));
+        LeadQueryKey lost = LeadQueryKey.of(LeadFilter.builder().status(Lead.Status.LOST).build(),
+                PageRequest.of(0, 20));
+        Object qualifiedBefore = leadQueryCache.currentKey(qualified);
+        Object lostBefore = leadQueryCache.currentKey(lost);
+        Object statisticsBefore = leadQueryCache.currentKey("statistics");
+
+        // A query that read before the write puts its result after the invalidation
+        leadQueryCache.leadsChanged(List.of(Lead.Status.QUALIFIED));
+        pages.put(qualifiedBefore, "stale");
+
+        assertThat(pages.get(leadQueryCache.currentKey(qualified))).isNull();
+        assertThat(leadQueryCache.currentKey("statistics")).isNotEqualTo(statisticsBefore);
+        assertThat(leadQueryCache.currentKey(lost)).isEqualTo(lostBefore);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.web.service;
+
+import com.example.core.domain.Lead;
+import com.example.core.domain.User;
+import com.example.infra.repository.LeadFilter;
+import com.example.infra.repository.projection.LeadListFingerprint;
+import com.example.web.config.CacheConfig;
+import com.example.web.support.ServiceJpaTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * List fingerprints, the validators behind lead list ETags, change with every write to the list
+ */
+@Import({CacheConfig.class, SimpleMeterRegistry.class, LeadQueryCache.class, LeadQueryService.class})
+class LeadQueryServiceTest extends ServiceJpaTest {
+
+    @Autowired
+    private LeadQueryService leadQueryService;
+
+    @Autowired
+    private LeadQueryCache leadQueryCache;
+
+    @Test
+    void shouldChangeFingerprintWhenListIsWritten() {
+        User owner = user("ann@example.com", "Ann");
+        leadRepository.save(lead("Acme", owner));
+        LeadFilter newLeads = LeadFilter.builder().status(Lead.Status.NEW).build();
+        LeadFilter lostLeads = LeadFilter.builder().status(Lead.Status.LOST).build();
+        LeadListFingerprint initial = leadQueryService.fingerprint(newLeads);
+        LeadListFingerprint lost = leadQueryService.fingerprint(lostLeads);
+
+        Lead added = leadRepository.save(lead("Globex", owner));
+        leadQueryCache.leadsChanged(List.of(Lead.Status.NEW));
+        LeadListFingerprint afterInsert = leadQueryService.fingerprint(newLeads);
+
+        leadRepository.delete(added);
+        leadQueryCache.leadsChanged(List.of(Lead.Status.NEW));
+        LeadListFingerprint afterDelete = leadQueryService.fingerprint(newLeads);
+
+        assertThat(initial.count()).isEqualTo(1);
+        assertThat(afterInsert).isNotEqualTo(initial);
+        assertThat(afterInsert.count()).isEqualTo(2);
+        assertThat(afterDelete).isNotEqualTo(afterInsert);
+        assertThat(afterDelete.count()).isEqualTo(1);
+        assertThat(leadQueryService.fingerprint(lostLeads)).isSameAs(lost);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.web.service;
+
+import com.example.core.domain.Lead;
+import com.example.core.domain.User;
+import com.example.infra.repository.projection.LeadSummary;
+import com.example.web.config.CacheConfig;
+import com.example.web.support.ServiceJpaTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The portable LIKE search matches the term literally: {@code %}, {@code _} and {@code \} are not wildcards
+ */
+@Import({CacheConfig.class, SimpleMeterRegistry.class, LeadQueryCache.class, LeadSearchService.class})
+@TestPropertySource(properties = "app.leads.search.mode=like")
+class LeadSearchServiceTest extends ServiceJpaTest {
+
+    @Autowired
+    private LeadSearchService leadSearchService;
+
+    @Test
+    void shouldMatchWildcardCharactersLiterally() {
+        User owner = user("ann@example.com", "Ann");
+        save("100% Organic", "organic100", owner);
+        save("1000 Organic", "organic1000", owner);
+        save("Data_Works", "data", owner);
+        save("DataXWorks", "datax", owner);
+        save("Back\\Slash", "back", owner);
+
+        assertThat(companies("100%")).containsExactly("100% Organic");
+        assertThat(companies("a_w")).containsExactly("Data_Works");
+        assertThat(companies("K\\S")).containsExactly("Back\\Slash");
+        assertThat(companies("organic")).containsExactlyInAnyOrder("100% Organic", "1000 Organic");
+    }
+
+    private void save(String company, String domain, User owner) {
+        Lead lead = lead(company, owner);
+        lead.setEmail("contact@" + domain + ".example.com");
+        leadRepository.save(lead);
+    }
+
+    private List<String> companies(String term) {
+        return leadSearchService.search(term, PageRequest.of(0, 20)).map(LeadSummary::companyName).getContent();
+    }
+}
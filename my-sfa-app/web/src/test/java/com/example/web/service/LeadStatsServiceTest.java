@@ -0,0 +1,63 @@
+package com.example.web.service;
+
+import com.example.core.domain.Lead;
+import com.example.core.domain.User;
+import com.example.web.dto.LeadStatistics;
+import com.example.web.support.ServiceJpaTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Aggregate statistics: zero-filled breakdowns, leads without a source and the recent window
+ */
+@Import(LeadStatsService.class)
+class LeadStatsServiceTest extends ServiceJpaTest {
+
+    @Autowired
+    private LeadStatsService leadStatsService;
+
+    @BeforeEach
+    void setUp() {
+        User owner = user("ann@example.com", "Ann");
+        lead("Acme", owner, Lead.Status.NEW, Lead.Source.WEBSITE);
+        lead("Globex", owner, Lead.Status.NEW, Lead.Source.REFERRAL);
+        lead("Initech", owner, Lead.Status.QUALIFIED, null);
+        Lead old = lead("Umbrella", owner, Lead.Status.LOST, Lead.Source.WEBSITE);
+        jdbcTemplate.update("UPDATE leads SET created_at = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(LeadStatsService.RECENT_DAYS + 1)), old.getId());
+    }
+
+    @Test
+    void shouldComputeStatisticsFromAggregates() {
+        LeadStatistics statistics = leadStatsService.getStatistics();
+
+        assertThat(statistics.getTotalLeads()).isEqualTo(4);
+        assertThat(statistics.getRecentLeads()).isEqualTo(3);
+        assertThat(statistics.getStatusBreakdown()).containsExactly(
+                entry("NEW", 2L), entry("CONTACTED", 0L), entry("QUALIFIED", 1L), entry("LOST", 1L), entry("CONVERTED", 0L));
+        assertThat(statistics.getSourceBreakdown())
+                .hasSize(Lead.Source.values().length)
+                .contains(entry("WEBSITE", 2L), entry("REFERRAL", 1L), entry("EMAIL", 0L));
+    }
+
+    @Test
+    void shouldZeroFillStatusCounts() {
+        assertThat(leadStatsService.getStatusCounts()).containsExactly(
+                entry("NEW", 2L), entry("CONTACTED", 0L), entry("QUALIFIED", 1L), entry("LOST", 1L), entry("CONVERTED", 0L));
+    }
+
+    private Lead lead(String company, User owner, Lead.Status status, Lead.Source source) {
+        Lead lead = lead(company, owner);
+        lead.setStatus(status);
+        lead.setSource(source);
+        return leadRepository.save(lead);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.web.service;
+
+import com.example.core.domain.Account;
+import com.example.core.domain.Opportunity;
+import com.example.core.domain.User;
+import com.example.web.config.CacheConfig;
+import com.example.web.dto.PipelineReport;
+import com.example.web.support.ServiceJpaTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pipeline totals from the grouped query, cached until a committed opportunity write changes them
+ */
+@Import({CacheConfig.class, ReportCache.class, PipelineReportService.class})
+class PipelineReportServiceTest extends ServiceJpaTest {
+
+    @Autowired
+    private PipelineReportService pipelineReportService;
+
+    private Opportunity proposal;
+
+    @BeforeEach
+    void setUp() {
+        User ann = user("ann@example.com", "Ann");
+        User bob = user("bob@example.com", "Bob");
+        Account account = account("Acme", ann);
+
+        proposal = opportunity("Renewal", account, ann, Opportunity.Stage.PROPOSAL, "1000.00", 50, null);
+        opportunity("Upsell", account, ann, Opportunity.Stage.PROPOSAL, "200.00", 25, null);
+        opportunity("Pilot", account, bob, Opportunity.Stage.PROSPECTING, null, 10, null);
+    }
+
+    @Test
+    void shouldSumByStageAndOwner() {
+        PipelineReport report = pipelineReportService.getPipeline();
+
+        assertThat(report.getStages()).hasSize(Opportunity.Stage.values().length);
+        assertThat(report.getStages()).filteredOn(stage -> stage.getStage().equals("PROPOSAL")).singleElement()
+                .satisfies(stage -> {
+                    assertThat(stage.getCount()).isEqualTo(2);
+                    assertThat(stage.getAmount()).isEqualByComparingTo("1200");
+                    assertThat(stage.getWeightedAmount()).isEqualByComparingTo("550");
+                });
+        assertThat(report.getOwners()).extracting(PipelineReport.OwnerPipeline::getOwnerName)
+                .containsExactly("Ann Tester", "Bob Tester");
+        assertThat(report.getOwners().get(1).getStages()).singleElement()
+                .satisfies(stage -> assertThat(stage.getAmount()).isEqualByComparingTo("0"));
+        assertThat(report.getTotalCount()).isEqualTo(3);
+        assertThat(report.getTotalWeightedAmount()).isEqualByComparingTo("550");
+    }
+
+    @Test
+    void shouldStayCachedUntilAnAggregatedFieldChanges() {
+        PipelineReport first = pipelineReportService.getPipeline();
+
+        proposal.setName("Renewal 2025");
+        proposal = opportunityRepository.save(proposal);
+        assertThat(pipelineReportService.getPipeline()).isSameAs(first);
+
+        proposal.setStage(Opportunity.Stage.CLOSED_WON);
+        proposal = opportunityRepository.save(proposal);
+        PipelineReport afterStageChange = pipelineReportService.getPipeline();
+        assertThat(afterStageChange).isNotSameAs(first);
+        assertThat(afterStageChange.getStages()).filteredOn(stage -> stage.getStage().equals("CLOSED_WON"))
+                .singleElement().satisfies(stage -> assertThat(stage.getCount()).isEqualTo(1));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.web.support;
+
+import com.example.infra.config.JpaConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Base for tests of the SQL the migrations ship: a PostgreSQL container migrated by Flyway, with
+ * Hibernate validating the entities against the result. Skipped where Docker is not available.
+ * <p>
+ * The container is shared by all subclasses. Data tables are truncated (including the V2 sample data)
+ * before each test; the single-row state tables the migrations seed are kept.
+ */
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=true",
+    "spring.jpa.hibernate.ddl-auto=validate",
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+    "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import(JpaConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public abstract class PostgresJpaTest {
+
+    @ServiceConnection
+    protected static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    static {
+        // Without Docker @Testcontainers(disabledWithoutDocker) skips the tests, so there is nothing to start
+        if (DockerClientFactory.instance().isDockerAvailable()) {
+            POSTGRES.start();
+        }
+    }
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void truncateData() {
+        jdbcTemplate.execute("TRUNCATE users, accounts, leads, contacts, opportunities, activities, lead_status_history, " +
+                "activity_rollups, activity_rollup_deltas, lead_stats_counters, lead_stats_counter_deltas CASCADE");
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.web.support;
+
+import com.example.core.domain.Account;
+import com.example.core.domain.Lead;
+import com.example.core.domain.Opportunity;
+import com.example.core.domain.User;
+import com.example.infra.config.JpaConfig;
+import com.example.infra.repository.AccountRepository;
+import com.example.infra.repository.LeadRepository;
+import com.example.infra.repository.OpportunityRepository;
+import com.example.infra.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Base for service tests on an in-memory H2 schema generated from the entities.
+ * <p>
+ * Flyway is off, so nothing here runs the SQL migrations (triggers, materialized views, backfills);
+ * those are covered by {@link PostgresJpaTest} subclasses. There is no test-managed transaction, so
+ * every repository call commits as it does in production and post-commit listeners fire. All tables
+ * are emptied after each test. Subclasses {@code @Import} the services under test.
+ */
+@DataJpaTest(properties = {
+    "spring.flyway.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+    "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@Import(JpaConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public abstract class ServiceJpaTest {
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @Autowired
+    protected AccountRepository accountRepository;
+
+    @Autowired
+    protected LeadRepository leadRepository;
+
+    @Autowired
+    protected OpportunityRepository opportunityRepository;
+
+    @AfterEach
+    void deleteAllRows() {
+        List<String> tables = jdbcTemplate.queryForList(
+                "SELECT table_name FROM information_schema.tables WHERE table_schema = 'PUBLIC' AND table_type = 'BASE TABLE'",
+                String.class);
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        try {
+            tables.forEach(table -> jdbcTemplate.execute("TRUNCATE TABLE " + table));
+        } finally {
+            jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        }
+    }
+
+    /**
+     * A sales rep named {@code firstName} Tester
+     */
+    protected User user(String email, String firstName) {
+        return userRepository.save(User.builder()
+                .email(email)
+                .password("x")
+                .firstName(firstName)
+                .lastName("Tester")
+                .role(User.Role.SALES_REP)
+                .build());
+    }
+
+    protected Account account(String name, User owner) {
+        return accountRepository.save(Account.builder().name(name).owner(owner).build());
+    }
+
+    /**
+     * A NEW website lead; not saved
+     */
+    protected Lead lead(String company, User owner) {
+        return Lead.builder()
+                .companyName(company)
+                .contactName("Contact")
+                .email("contact@" + company.toLowerCase().replace(' ', '-') + ".example.com")
+                .source(Lead.Source.WEBSITE)
+                .owner(owner)
+                .build();
+    }
+
+    /**
+     * @param amount    decimal string, or null
+     * @param closeDate ISO date, or null
+     */
+    protected Opportunity opportunity(String name, Account account, User owner, Opportunity.Stage stage,
+                                      String amount, int probability, String closeDate) {
+        return opportunityRepository.save(Opportunity.builder()
+                .name(name)
+                .account(account)
+                .owner(owner)
+                .stage(stage)
+                .amount(amount != null ? new BigDecimal(amount) : null)
+                .probability(probability)
+                .closeDate(closeDate != null ? LocalDate.parse(closeDate) : null)
+                .build());
+    }
+}
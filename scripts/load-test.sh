@@ -1,5 +1,7 @@
 #!/bin/bash
 # Simple Load Test for SalesForge API
+# Smoke-level check of public endpoints only. For latency percentiles of the
+# authenticated lead API run the load generator: cd my-sfa-app && ./gradlew :loadtest:loadTest
 
 API_URL=${1:-"http://localhost:8080"}
 CONCURRENT_USERS=${2:-5}